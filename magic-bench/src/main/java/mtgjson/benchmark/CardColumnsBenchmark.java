@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import mtgjson.CardColumns;
+import mtgjson.Color;
+import mtgjson.Format;
+import mtgjson.Legality;
+import mtgjson.MtgJsonParser;
+import mtgjson.Rarity;
+import mtgjson.Set;
+import mtgjson.SetCard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks a filter over the whole card pool, once as a scan of the card objects and once with the columnar store.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CardColumnsBenchmark {
+
+    private static final EnumSet<Color> COLORS = EnumSet.of(Color.BLUE, Color.RED);
+
+    private List<SetCard> cards;
+
+    private CardColumns columns;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        try (InputStream inputStream = CardColumnsBenchmark.class.getResourceAsStream("/MRD.json")) {
+            Set set = MtgJsonParser.parseSet(inputStream).orElseThrow();
+            cards = set.getCards();
+            columns = CardColumns.of(Stream.of(set));
+        }
+    }
+
+    @Benchmark
+    public List<SetCard> filterObjects() {
+        return cards.stream()
+                .filter(card -> card.getManaValue() <= 3)
+                .filter(card -> card.getRarity() == Rarity.RARE || card.getRarity() == Rarity.MYTHIC)
+                .filter(card -> COLORS.containsAll(card.getColors()))
+                .filter(card -> "Legal".equals(card.getLegalities().getModern()))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public BitSet filterColumns() {
+        BitSet rows = columns.manaValueBetween(0, 3);
+        rows.and(columns.rarityIn(Rarity.RARE, Rarity.MYTHIC));
+        rows.and(columns.colorsWithin(COLORS));
+        rows.and(columns.legalityEquals(Format.MODERN, Legality.LEGAL));
+        return rows;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import liquibase.exception.LiquibaseException;
+import mtgjson.DatabaseUtil;
+import mtgjson.MtgJsonParser;
+import mtgjson.Set;
+import mtgjson.SetCard;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the database access with an in-memory H2 database.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DatabaseBenchmark {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    /**
+     * Inserts a set into an empty database. A new database is created for every invocation, because a set can only be
+     * inserted once.
+     */
+    @Benchmark
+    public void insert(EmptyDatabase database) throws SQLException {
+        database.databaseUtil.insert(database.set);
+    }
+
+    @Benchmark
+    public List<SetCard> findCardsByName(Database database) throws SQLException {
+        return database.databaseUtil.findCardsByName("Chrome Mox");
+    }
+
+    @Benchmark
+    public List<Set> findSets(Database database) throws SQLException {
+        return database.databaseUtil.findSets();
+    }
+
+    private static Set parseSet() throws IOException {
+        try (InputStream inputStream = DatabaseBenchmark.class.getResourceAsStream("/MRD.json")) {
+            return MtgJsonParser.parseSet(inputStream).orElseThrow();
+        }
+    }
+
+    /**
+     * An in-memory database, which lives as long as its connection is open.
+     */
+    abstract static class InMemoryDatabase {
+
+        DatabaseUtil databaseUtil;
+
+        private Connection connection;
+
+        void open() throws SQLException, LiquibaseException {
+            JdbcDataSource dataSource = new JdbcDataSource();
+            dataSource.setURL("jdbc:h2:mem:Magic" + DATABASES.incrementAndGet());
+            connection = dataSource.getConnection();
+            databaseUtil = new DatabaseUtil(dataSource);
+            databaseUtil.init();
+        }
+
+        void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class EmptyDatabase extends InMemoryDatabase {
+
+        Set set;
+
+        @Setup(Level.Trial)
+        public void parse() throws IOException {
+            set = parseSet();
+        }
+
+        @Setup(Level.Invocation)
+        public void setUp() throws SQLException, LiquibaseException {
+            open();
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() throws SQLException {
+            close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Database extends InMemoryDatabase {
+
+        @Setup(Level.Trial)
+        public void setUp() throws SQLException, LiquibaseException, IOException {
+            open();
+            databaseUtil.insert(parseSet());
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            close();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import mtgjson.AllPrintingsIndex;
+import mtgjson.MtgJsonParser;
+import mtgjson.ParseOptions;
+import mtgjson.Set;
+import mtgjson.Snapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the parser with a single set and with a synthetic AllPrintings file, which consists of copies of the
+ * set, and the snapshot of the file.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+
+    // The index of the AllPrintings file is stored in the setup, so that it is not scanned again by each invocation.
+    private static final ParseOptions STORED_INDEX = ParseOptions.builder().storeIndex(true).build();
+
+    private byte[] set;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        set = readSet();
+    }
+
+    @Benchmark
+    public Set parseSet() throws IOException {
+        return MtgJsonParser.parseSet(new ByteArrayInputStream(set)).orElseThrow();
+    }
+
+    /**
+     * Parses the AllPrintings file sequentially from a stream.
+     */
+    @Benchmark
+    public long parseAllPrintingsStream(AllPrintings allPrintings) throws IOException {
+        try (Stream<Set> stream = MtgJsonParser.parseAllPrintings(new ByteArrayInputStream(allPrintings.bytes))) {
+            return stream.mapToLong(s -> s.getCards().size()).sum();
+        }
+    }
+
+    /**
+     * Parses the AllPrintings file from a memory-mapped file in parallel.
+     */
+    @Benchmark
+    public long parseAllPrintingsMapped(AllPrintings allPrintings) throws IOException {
+        try (Stream<Set> stream = MtgJsonParser.parseAllPrintings(allPrintings.path, STORED_INDEX)) {
+            return stream.mapToLong(s -> s.getCards().size()).sum();
+        }
+    }
+
+    /**
+     * Reads the sets of the AllPrintings file from a binary snapshot instead of parsing the file.
+     */
+    @Benchmark
+    public long readSnapshot(AllPrintings allPrintings) throws IOException {
+        try (Stream<Set> stream = Snapshot.read(allPrintings.snapshot)) {
+            return stream.mapToLong(s -> s.getCards().size()).sum();
+        }
+    }
+
+    private static byte[] readSet() throws IOException {
+        try (InputStream inputStream = ParserBenchmark.class.getResourceAsStream("/MRD.json")) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    /**
+     * A synthetic AllPrintings file, which consists of copies of the set with distinct codes.
+     */
+    @State(Scope.Benchmark)
+    public static class AllPrintings {
+
+        /**
+         * The number of sets of the AllPrintings file.
+         */
+        @Param("20")
+        public int sets;
+
+        private byte[] bytes;
+
+        private Path path;
+
+        private Path snapshot;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            ObjectMapper mapper = new ObjectMapper();
+            JsonNode mrd = mapper.readTree(readSet());
+            ObjectNode root = mapper.createObjectNode();
+            root.set("meta", mrd.get("meta"));
+            ObjectNode data = root.putObject("data");
+            for (int i = 0; i < sets; i++) {
+                String code = String.format("X%03d", i);
+                data.set(code, ((ObjectNode) mrd.get("data").deepCopy()).put("code", code));
+            }
+            bytes = mapper.writeValueAsBytes(root);
+            path = Files.createTempFile("AllPrintings", ".json");
+            Files.write(path, bytes);
+            // Stores the index of the file, which is reused by all invocations.
+            AllPrintingsIndex.load(path, AllPrintingsIndex.indexPath(path));
+            snapshot = path.resolveSibling(path.getFileName() + ".snapshot");
+            Snapshot.load(path, snapshot).close();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(path);
+            Files.deleteIfExists(AllPrintingsIndex.indexPath(path));
+            Files.deleteIfExists(snapshot);
+        }
+    }
+}
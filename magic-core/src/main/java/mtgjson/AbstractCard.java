@@ -24,7 +24,6 @@
 
 package mtgjson;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -34,25 +33,25 @@ public abstract class AbstractCard {
 
     private final String asciiName;
 
-    private final Set<Availability> availability;
+    private final EnumBitSet<Availability> availability;
 
     private final BorderColor borderColor;
 
-    private final Set<Color> colorIdentity;
+    private final EnumBitSet<Color> colorIdentity;
 
-    private final Set<Color> colorIndicator;
+    private final EnumBitSet<Color> colorIndicator;
 
-    private final Set<Color> colors;
+    private final EnumBitSet<Color> colors;
 
     private final Integer edhrecRank;
 
     private final String faceName;
 
-    private final Set<Finish> finishes;
+    private final EnumBitSet<Finish> finishes;
 
     private final String flavorText;
 
-    private final Set<FrameEffect> frameEffects;
+    private final EnumBitSet<FrameEffect> frameEffects;
 
     private final FrameVersion frameVersion;
 
@@ -66,8 +65,6 @@ public abstract class AbstractCard {
 
     private final boolean isReprint;
 
-    private final List<String> keywords;
-
     private final Layout layout;
 
     private final String loyalty;
@@ -79,7 +76,8 @@ public abstract class AbstractCard {
 
     private final String number;
 
-    private final String power;
+    // Not final, because the parser replaces it with the instance, which is shared by all printings.
+    private OracleCard oracleCard;
 
     private final List<String> promoTypes;
 
@@ -91,12 +89,6 @@ public abstract class AbstractCard {
 
     private final List<String> supertypes;
 
-    private final String text;
-
-    private final String toughness;
-
-    private final String type;
-
     private final List<String> types;
 
     private final String uuid;
@@ -121,55 +113,47 @@ public abstract class AbstractCard {
                  boolean isOnlineOnly,
                  boolean isPromo,
                  boolean isReprint,
-                 List<String> keywords,
                  Layout layout,
                  String loyalty,
                  String name,
                  String number,
-                 String power,
+                 OracleCard oracleCard,
                  List<String> promoTypes,
                  String setCode,
                  String side,
                  List<String> subtypes,
                  List<String> supertypes,
-                 String text,
-                 String toughness,
-                 String type,
                  List<String> types,
                  String uuid,
                  String watermark) {
         this.artist = artist;
         this.asciiName = asciiName;
-        this.availability = availabilities;
+        this.availability = EnumBitSet.of(Availability.class, availabilities);
         this.borderColor = borderColor;
-        this.colorIdentity = colorIdentity != null ? Set.copyOf(colorIdentity) : Collections.emptySet();
-        this.colorIndicator = colorIndicator != null ? Set.copyOf(colorIndicator) : Collections.emptySet();
-        this.colors = colors != null ? Set.copyOf(colors) : Collections.emptySet();
+        this.colorIdentity = EnumBitSet.of(Color.class, colorIdentity);
+        this.colorIndicator = EnumBitSet.of(Color.class, colorIndicator);
+        this.colors = EnumBitSet.of(Color.class, colors);
         this.edhrecRank = edhrecRank;
         this.faceName = faceName;
-        this.finishes = finishes;
+        this.finishes = EnumBitSet.of(Finish.class, finishes);
         this.flavorText = flavorText;
-        this.frameEffects = frameEffects != null ? Set.copyOf(frameEffects) : Collections.emptySet();
+        this.frameEffects = EnumBitSet.of(FrameEffect.class, frameEffects);
         this.frameVersion = frameVersion;
         this.identifiers = identifiers;
         this.isFullArt = isFullArt;
         this.isOnlineOnly = isOnlineOnly;
         this.isPromo = isPromo;
         this.isReprint = isReprint;
-        this.keywords = keywords;
         this.layout = layout;
         this.loyalty = loyalty;
         this.name = name;
         this.number = number;
-        this.power = power;
+        this.oracleCard = oracleCard;
         this.promoTypes = promoTypes;
         this.setCode = setCode;
         this.side = side;
         this.subtypes = subtypes;
         this.supertypes = supertypes;
-        this.text = text;
-        this.toughness = toughness;
-        this.type = type;
         this.types = types;
         this.uuid = uuid;
         this.watermark = watermark;
@@ -202,6 +186,16 @@ public abstract class AbstractCard {
         return availability;
     }
 
+    /**
+     * The bitmask of the card's available printing types.
+     *
+     * @return The bitmask of the card's available printing types.
+     * @see EnumBitSet
+     */
+    public final int getAvailabilityMask() {
+        return availability.toMask();
+    }
+
     /**
      * The color of the card border.
      *
@@ -220,6 +214,16 @@ public abstract class AbstractCard {
         return colorIdentity;
     }
 
+    /**
+     * The bitmask of the color identity.
+     *
+     * @return The bitmask of the color identity.
+     * @see EnumBitSet
+     */
+    public final int getColorIdentityMask() {
+        return colorIdentity.toMask();
+    }
+
     /**
      * A list of all the colors in the color indicator (The symbol prefixed to a card's types).
      *
@@ -229,6 +233,16 @@ public abstract class AbstractCard {
         return colorIndicator;
     }
 
+    /**
+     * The bitmask of the colors in the color indicator.
+     *
+     * @return The bitmask of the colors in the color indicator.
+     * @see EnumBitSet
+     */
+    public final int getColorIndicatorMask() {
+        return colorIndicator.toMask();
+    }
+
     /**
      * A list of all the colors in manaCost and colorIndicator. Some cards may not have a value, such as cards with
      * "Devoid" in its text.
@@ -239,6 +253,16 @@ public abstract class AbstractCard {
         return colors;
     }
 
+    /**
+     * The bitmask of the colors.
+     *
+     * @return The bitmask of the colors.
+     * @see EnumBitSet
+     */
+    public final int getColorsMask() {
+        return colors.toMask();
+    }
+
     /**
      * The card rank on <a href="https://www.edhrec.com/">EDHRec</a>.
      *
@@ -266,6 +290,16 @@ public abstract class AbstractCard {
         return finishes;
     }
 
+    /**
+     * The bitmask of the finishes.
+     *
+     * @return The bitmask of the finishes.
+     * @see EnumBitSet
+     */
+    public final int getFinishesMask() {
+        return finishes.toMask();
+    }
+
     /**
      * The italicized text found below the rules text that has no game function.
      *
@@ -284,6 +318,16 @@ public abstract class AbstractCard {
         return frameEffects;
     }
 
+    /**
+     * The bitmask of the visual frame effects.
+     *
+     * @return The bitmask of the visual frame effects.
+     * @see EnumBitSet
+     */
+    public final int getFrameEffectsMask() {
+        return frameEffects.toMask();
+    }
+
     /**
      * The version of the card frame style.
      *
@@ -345,7 +389,7 @@ public abstract class AbstractCard {
      * @return A list of keywords found on the card.
      */
     public final List<String> getKeywords() {
-        return keywords;
+        return oracleCard.getKeywords();
     }
 
     /**
@@ -384,13 +428,31 @@ public abstract class AbstractCard {
         return number;
     }
 
+    /**
+     * The gameplay data of the card, which all its printings share.
+     *
+     * @return The oracle card.
+     */
+    public final OracleCard getOracleCard() {
+        return oracleCard;
+    }
+
+    /**
+     * Replaces the oracle card by an instance, which is shared with other printings, before the card is published.
+     *
+     * @param oracleCard The shared oracle card with the same data.
+     */
+    final void setOracleCard(OracleCard oracleCard) {
+        this.oracleCard = oracleCard;
+    }
+
     /**
      * The power of the card.
      *
      * @return The power of the card.
      */
     public final String getPower() {
-        return power;
+        return oracleCard.getPower();
     }
 
     /**
@@ -444,7 +506,7 @@ public abstract class AbstractCard {
      * @return The rules text of the card.
      */
     public final String getText() {
-        return text;
+        return oracleCard.getText();
     }
 
     /**
@@ -453,7 +515,7 @@ public abstract class AbstractCard {
      * @return The toughness of the card.
      */
     public final String getToughness() {
-        return toughness;
+        return oracleCard.getToughness();
     }
 
     /**
@@ -462,7 +524,7 @@ public abstract class AbstractCard {
      * @return Type of the card as visible, including any supertypes and subtypes.
      */
     public final String getType() {
-        return type;
+        return oracleCard.getType();
     }
 
     /**
@@ -0,0 +1,276 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * The byte ranges of the sets within an AllPrintings file, which allow to read single sets without parsing the whole
+ * file.
+ *
+ * <p>The index is built by a structural scan of the file. It is only stored, if asked to (e.g. as
+ * {@code AllPrintings.json.idx} next to the file), and is then rebuilt, if the size or modification time of the file
+ * has changed.</p>
+ *
+ * @see MtgJsonParser#parseSet(Path, String)
+ */
+public final class AllPrintingsIndex {
+
+    private static final String SUFFIX = ".idx";
+
+    private final Meta meta;
+
+    private final long fileSize;
+
+    private final long lastModified;
+
+    private final String[] codes;
+
+    private final long[] offsets;
+
+    private final int[] lengths;
+
+    private final Map<String, Integer> positions;
+
+    private AllPrintingsIndex(Meta meta, long fileSize, long lastModified, String[] codes, long[] offsets,
+                              int[] lengths) {
+        this.meta = meta;
+        this.fileSize = fileSize;
+        this.lastModified = lastModified;
+        this.codes = codes;
+        this.offsets = offsets;
+        this.lengths = lengths;
+        this.positions = new HashMap<>();
+        for (int i = 0; i < codes.length; i++) {
+            positions.put(codes[i], i);
+        }
+    }
+
+    /**
+     * Builds the index of an AllPrintings file in memory. Nothing is written.
+     *
+     * @param allPrintings The path of the AllPrintings file.
+     * @return The index.
+     * @throws IOException If the file could not be read or is malformed.
+     * @see #load(Path, Path)
+     */
+    public static AllPrintingsIndex load(Path allPrintings) throws IOException {
+        long lastModified = Files.getLastModifiedTime(allPrintings).toMillis();
+        try (MappedFile file = MappedFile.open(allPrintings)) {
+            return scan(file, lastModified);
+        }
+    }
+
+    /**
+     * Loads the stored index of an AllPrintings file. If the index file does not exist or is outdated, the index is
+     * built and stored in the index file.
+     *
+     * @param allPrintings The path of the AllPrintings file.
+     * @param indexPath    The path of the index file, e.g. {@link #indexPath(Path)}.
+     * @return The index.
+     * @throws IOException If the file could not be read or is malformed, or if the index could not be stored.
+     */
+    public static AllPrintingsIndex load(Path allPrintings, Path indexPath) throws IOException {
+        long fileSize = Files.size(allPrintings);
+        long lastModified = Files.getLastModifiedTime(allPrintings).toMillis();
+        if (Files.exists(indexPath)) {
+            try {
+                AllPrintingsIndex index = read(indexPath);
+                if (index.fileSize == fileSize && index.lastModified == lastModified) {
+                    return index;
+                }
+            } catch (IOException | RuntimeException e) {
+                // The index is corrupt and is rebuilt.
+            }
+        }
+        AllPrintingsIndex index;
+        try (MappedFile file = MappedFile.open(allPrintings)) {
+            index = scan(file, lastModified);
+        }
+        index.write(indexPath);
+        return index;
+    }
+
+    /**
+     * Gets the default path of the index file of an AllPrintings file, which is next to it.
+     *
+     * @param allPrintings The path of the AllPrintings file, e.g. {@code AllPrintings.json}.
+     * @return The path of the index file, e.g. {@code AllPrintings.json.idx}.
+     */
+    public static Path indexPath(Path allPrintings) {
+        return allPrintings.resolveSibling(allPrintings.getFileName() + SUFFIX);
+    }
+
+    /**
+     * Scans the top-level {@code meta} and {@code data} objects of an AllPrintings file for the byte ranges of the
+     * sets.
+     *
+     * @param file         The mapped file.
+     * @param lastModified The modification time of the file.
+     * @return The index.
+     * @throws IOException If the file is malformed.
+     */
+    static AllPrintingsIndex scan(MappedFile file, long lastModified) throws IOException {
+        Meta meta = null;
+        String[] codes = new String[256];
+        long[] offsets = new long[256];
+        int[] lengths = new int[256];
+        int count = 0;
+        JsonScanner scanner = new JsonScanner(file);
+        scanner.expect('{');
+        while (!scanner.tryConsume('}')) {
+            String fieldName = scanner.readString();
+            scanner.expect(':');
+            if ("data".equals(fieldName) && scanner.tryConsume('{')) {
+                while (!scanner.tryConsume('}')) {
+                    String code = scanner.readString();
+                    scanner.expect(':');
+                    boolean isObject = scanner.peek() == '{';
+                    long start = scanner.position();
+                    scanner.skipValue();
+                    long length = scanner.position() - start;
+                    if (length > Integer.MAX_VALUE) {
+                        throw new IOException("Set exceeds maximal size at byte " + start);
+                    }
+                    if (isObject) {
+                        if (count == offsets.length) {
+                            codes = Arrays.copyOf(codes, count * 2);
+                            offsets = Arrays.copyOf(offsets, count * 2);
+                            lengths = Arrays.copyOf(lengths, count * 2);
+                        }
+                        codes[count] = code;
+                        offsets[count] = start;
+                        lengths[count] = (int) length;
+                        count++;
+                    }
+                    scanner.tryConsume(',');
+                }
+            } else if ("meta".equals(fieldName) && scanner.peek() == '{') {
+                long start = scanner.position();
+                scanner.skipValue();
+                meta = MtgJsonParser.OBJECT_MAPPER.readValue(
+                        file.newInputStream(start, (int) (scanner.position() - start)), Meta.class);
+            } else {
+                scanner.skipValue();
+            }
+            scanner.tryConsume(',');
+        }
+        return new AllPrintingsIndex(meta, file.size(), lastModified, Arrays.copyOf(codes, count),
+                Arrays.copyOf(offsets, count), Arrays.copyOf(lengths, count));
+    }
+
+    private static AllPrintingsIndex read(Path indexPath) throws IOException {
+        JsonNode root = MtgJsonParser.OBJECT_MAPPER.readTree(indexPath.toFile());
+        JsonNode metaNode = root.get("meta");
+        Meta meta = metaNode.isNull() ? null : MtgJsonParser.OBJECT_MAPPER.treeToValue(metaNode, Meta.class);
+        JsonNode sets = root.get("sets");
+        String[] codes = new String[sets.size()];
+        long[] offsets = new long[sets.size()];
+        int[] lengths = new int[sets.size()];
+        for (int i = 0; i < sets.size(); i++) {
+            JsonNode set = sets.get(i);
+            codes[i] = set.get(0).textValue();
+            offsets[i] = set.get(1).longValue();
+            lengths[i] = set.get(2).intValue();
+        }
+        return new AllPrintingsIndex(meta, root.get("fileSize").longValue(), root.get("lastModified").longValue(),
+                codes, offsets, lengths);
+    }
+
+    private void write(Path indexPath) throws IOException {
+        ObjectNode root = MtgJsonParser.OBJECT_MAPPER.createObjectNode();
+        root.set("meta", MtgJsonParser.OBJECT_MAPPER.valueToTree(meta));
+        root.put("fileSize", fileSize);
+        root.put("lastModified", lastModified);
+        ArrayNode sets = root.putArray("sets");
+        for (int i = 0; i < codes.length; i++) {
+            sets.addArray().add(codes[i]).add(offsets[i]).add(lengths[i]);
+        }
+        // Readers must never see a partially written index.
+        Path tempFile = Files.createTempFile(indexPath.toAbsolutePath().getParent(), indexPath.getFileName().toString(),
+                ".tmp");
+        try {
+            MtgJsonParser.OBJECT_MAPPER.writeValue(tempFile.toFile(), root);
+            Files.move(tempFile, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Gets the meta data of the AllPrintings file.
+     *
+     * @return The meta data or null, if the file has none.
+     */
+    public final Meta getMeta() {
+        return meta;
+    }
+
+    /**
+     * Gets the codes of all sets in the order of the file.
+     *
+     * @return The set codes.
+     */
+    public final List<String> getSetCodes() {
+        return Collections.unmodifiableList(Arrays.asList(codes));
+    }
+
+    /**
+     * Checks, whether the index is still valid for the file, i.e. whether its size and modification time are
+     * unchanged.
+     */
+    boolean isUpToDate(Path allPrintings) throws IOException {
+        return Files.size(allPrintings) == fileSize
+                && Files.getLastModifiedTime(allPrintings).toMillis() == lastModified;
+    }
+
+    int indexOf(String code) {
+        return positions.getOrDefault(code, -1);
+    }
+
+    int size() {
+        return codes.length;
+    }
+
+    long getOffset(int index) {
+        return offsets[index];
+    }
+
+    int getLength(int index) {
+        return lengths[index];
+    }
+}
@@ -0,0 +1,661 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.stream.Stream;
+
+/**
+ * A columnar in-memory store of the set cards, which is meant for analytical scans over the whole card pool.
+ *
+ * <p>Each property is stored in a column of its own, i.e. an array with one element per card (a row): Numbers are
+ * stored as {@code double} or {@code int}, enums as {@code byte} ordinals, sets of colors as bitmasks (like
+ * {@link EnumBitSet}) and strings as {@code int} codes into a dictionary of their distinct values. A filter therefore
+ * runs over a single contiguous array, instead of chasing the pointers of the card objects.</p>
+ *
+ * <p>Filters return the matching rows as {@link BitSet}, which can be combined with its bitwise operations:</p>
+ *
+ * <pre>{@code
+ * CardColumns columns = CardColumns.of(MtgJsonParser.parseAllPrintings(path));
+ * BitSet rows = columns.manaValueBetween(0, 2);
+ * rows.and(columns.rarityIn(Rarity.RARE, Rarity.MYTHIC));
+ * rows.and(columns.legalityEquals(Format.MODERN, Legality.LEGAL));
+ * List<String> names = rows.stream().mapToObj(columns::getName).collect(Collectors.toList());
+ * }</pre>
+ *
+ * <p>The store is immutable and thread-safe. Tokens are not stored.</p>
+ */
+public final class CardColumns {
+
+    private static final Format[] FORMATS = Format.values();
+
+    private static final Rarity[] RARITIES = Rarity.values();
+
+    private static final Layout[] LAYOUTS = Layout.values();
+
+    private final int size;
+
+    private final double[] manaValues;
+
+    private final double[] faceManaValues;
+
+    // 0, if the card has no rank.
+    private final int[] edhrecRanks;
+
+    // The ordinals of the enums, -1 for null.
+    private final byte[] rarities;
+
+    private final byte[] layouts;
+
+    private final byte[] borderColors;
+
+    private final byte[] frameVersions;
+
+    private final byte[] colors;
+
+    private final byte[] colorIdentities;
+
+    // Bit i stands for the i-th value of the type dictionary.
+    private final long[] types;
+
+    // Per format, the codes of the legalities.
+    private final byte[][] legalities;
+
+    private final int[] names;
+
+    private final int[] setCodes;
+
+    private final int[] artists;
+
+    private final String[] uuids;
+
+    private final Dictionary typeDictionary;
+
+    private final Dictionary legalityDictionary;
+
+    private final Dictionary stringDictionary;
+
+    private CardColumns(Builder builder) {
+        this.size = builder.size;
+        this.manaValues = Arrays.copyOf(builder.manaValues, size);
+        this.faceManaValues = Arrays.copyOf(builder.faceManaValues, size);
+        this.edhrecRanks = Arrays.copyOf(builder.edhrecRanks, size);
+        this.rarities = Arrays.copyOf(builder.rarities, size);
+        this.layouts = Arrays.copyOf(builder.layouts, size);
+        this.borderColors = Arrays.copyOf(builder.borderColors, size);
+        this.frameVersions = Arrays.copyOf(builder.frameVersions, size);
+        this.colors = Arrays.copyOf(builder.colors, size);
+        this.colorIdentities = Arrays.copyOf(builder.colorIdentities, size);
+        this.types = Arrays.copyOf(builder.types, size);
+        this.legalities = new byte[FORMATS.length][];
+        for (int f = 0; f < FORMATS.length; f++) {
+            legalities[f] = Arrays.copyOf(builder.legalities[f], size);
+        }
+        this.names = Arrays.copyOf(builder.names, size);
+        this.setCodes = Arrays.copyOf(builder.setCodes, size);
+        this.artists = Arrays.copyOf(builder.artists, size);
+        this.uuids = Arrays.copyOf(builder.uuids, size);
+        this.typeDictionary = builder.typeDictionary;
+        this.legalityDictionary = builder.legalityDictionary;
+        this.stringDictionary = builder.stringDictionary;
+    }
+
+    /**
+     * Builds the columns of the cards of the sets. The sets are consumed one after another and need not be held in
+     * memory.
+     *
+     * @param sets The sets, e.g. as parsed from an AllPrintings file.
+     * @return The columns.
+     * @throws IllegalArgumentException If the cards have more than 64 distinct types.
+     */
+    public static CardColumns of(Stream<Set> sets) {
+        Builder builder = new Builder();
+        sets.forEachOrdered(set -> set.getCards().forEach(builder::add));
+        return new CardColumns(builder);
+    }
+
+    /**
+     * Gets the number of rows, i.e. of cards.
+     *
+     * @return The number of rows.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the cards, whose mana value is within a range.
+     *
+     * @param min The minimal mana value (inclusive).
+     * @param max The maximal mana value (inclusive).
+     * @return The matching rows.
+     */
+    public BitSet manaValueBetween(double min, double max) {
+        return between(manaValues, min, max);
+    }
+
+    /**
+     * Finds the cards, whose face mana value is within a range.
+     *
+     * @param min The minimal face mana value (inclusive).
+     * @param max The maximal face mana value (inclusive).
+     * @return The matching rows.
+     */
+    public BitSet faceManaValueBetween(double min, double max) {
+        return between(faceManaValues, min, max);
+    }
+
+    /**
+     * Finds the cards, which have an EDHREC rank of at most the given one, i.e. the most popular cards.
+     *
+     * @param rank The maximal rank (inclusive).
+     * @return The matching rows. Cards without rank never match.
+     */
+    public BitSet edhrecRankAtMost(int rank) {
+        // Cards without rank are stored as 0.
+        return between(edhrecRanks, 1, rank);
+    }
+
+    /**
+     * Finds the cards with one of the given rarities.
+     *
+     * @param values The rarities.
+     * @return The matching rows.
+     */
+    public BitSet rarityIn(Rarity... values) {
+        return ordinalIn(rarities, ordinalMask(values));
+    }
+
+    /**
+     * Finds the cards with one of the given layouts.
+     *
+     * @param values The layouts.
+     * @return The matching rows.
+     */
+    public BitSet layoutIn(Layout... values) {
+        return ordinalIn(layouts, ordinalMask(values));
+    }
+
+    /**
+     * Finds the cards with one of the given border colors.
+     *
+     * @param values The border colors.
+     * @return The matching rows.
+     */
+    public BitSet borderColorIn(BorderColor... values) {
+        return ordinalIn(borderColors, ordinalMask(values));
+    }
+
+    /**
+     * Finds the cards with one of the given frame versions.
+     *
+     * @param values The frame versions.
+     * @return The matching rows.
+     */
+    public BitSet frameVersionIn(FrameVersion... values) {
+        return ordinalIn(frameVersions, ordinalMask(values));
+    }
+
+    /**
+     * Finds the cards, whose colors are within the given ones. Colorless cards always match.
+     *
+     * @param values The colors.
+     * @return The matching rows.
+     */
+    public BitSet colorsWithin(java.util.Set<Color> values) {
+        int mask = EnumBitSet.mask(values);
+        return matches(colors, value -> (value & ~mask) == 0);
+    }
+
+    /**
+     * Finds the cards, which have (at least) all of the given colors.
+     *
+     * @param values The colors.
+     * @return The matching rows.
+     */
+    public BitSet colorsIncluding(java.util.Set<Color> values) {
+        int mask = EnumBitSet.mask(values);
+        return matches(colors, value -> (value & mask) == mask);
+    }
+
+    /**
+     * Finds the cards, whose color identity is within the given colors, e.g. the cards, which may be played in a
+     * Commander deck of these colors. Colorless cards always match.
+     *
+     * @param values The colors.
+     * @return The matching rows.
+     */
+    public BitSet colorIdentityWithin(java.util.Set<Color> values) {
+        int mask = EnumBitSet.mask(values);
+        return matches(colorIdentities, value -> (value & ~mask) == 0);
+    }
+
+    /**
+     * Finds the cards of a type.
+     *
+     * @param type The type, e.g. "Creature".
+     * @return The matching rows.
+     */
+    public BitSet typeContains(String type) {
+        int code = typeDictionary.code(type);
+        return code >= 0 ? bitSet(types, code) : new BitSet();
+    }
+
+    /**
+     * Finds the cards, which have the given legality in a format.
+     *
+     * @param format   The format.
+     * @param legality The legality, e.g. "Legal" or "Banned".
+     * @return The matching rows.
+     */
+    public BitSet legalityEquals(Format format, String legality) {
+        int code = legalityDictionary.code(legality);
+        return code >= 0 ? matches(legalities[format.ordinal()], value -> value == code) : new BitSet();
+    }
+
+    /**
+     * Finds the cards, which have the given legality in a format.
+     *
+     * @param format   The format.
+     * @param legality The legality. {@link Legality#NOT_LEGAL} also matches cards without or with an unknown legality.
+     * @return The matching rows.
+     * @see Legality#of(String)
+     */
+    public BitSet legalityEquals(Format format, Legality legality) {
+        return matches(legalities[format.ordinal()],
+                value -> value < legalityDictionary.size() && Legality.of(legalityDictionary.value(value)) == legality);
+    }
+
+    /**
+     * Finds the cards with the given name.
+     *
+     * @param name The name, e.g. "Chrome Mox".
+     * @return The matching rows.
+     */
+    public BitSet nameEquals(String name) {
+        return codeEquals(names, stringDictionary.code(name));
+    }
+
+    /**
+     * Finds the cards of a set.
+     *
+     * @param setCode The set code, e.g. "MRD".
+     * @return The matching rows.
+     */
+    public BitSet setCodeEquals(String setCode) {
+        return codeEquals(setCodes, stringDictionary.code(setCode));
+    }
+
+    /**
+     * Gets the uuid of a card.
+     *
+     * @param row The row.
+     * @return The uuid.
+     */
+    public String getUuid(int row) {
+        return uuids[row];
+    }
+
+    /**
+     * Gets the name of a card.
+     *
+     * @param row The row.
+     * @return The name.
+     */
+    public String getName(int row) {
+        return stringDictionary.value(names[row]);
+    }
+
+    /**
+     * Gets the set code of a card.
+     *
+     * @param row The row.
+     * @return The set code.
+     */
+    public String getSetCode(int row) {
+        return stringDictionary.value(setCodes[row]);
+    }
+
+    /**
+     * Gets the artist of a card.
+     *
+     * @param row The row.
+     * @return The artist or null.
+     */
+    public String getArtist(int row) {
+        return stringDictionary.value(artists[row]);
+    }
+
+    /**
+     * Gets the mana value of a card.
+     *
+     * @param row The row.
+     * @return The mana value.
+     */
+    public double getManaValue(int row) {
+        return manaValues[row];
+    }
+
+    /**
+     * Gets the face mana value of a card.
+     *
+     * @param row The row.
+     * @return The face mana value.
+     */
+    public double getFaceManaValue(int row) {
+        return faceManaValues[row];
+    }
+
+    /**
+     * Gets the EDHREC rank of a card.
+     *
+     * @param row The row.
+     * @return The rank or null, if the card has none.
+     */
+    public Integer getEdhrecRank(int row) {
+        return edhrecRanks[row] > 0 ? edhrecRanks[row] : null;
+    }
+
+    /**
+     * Gets the rarity of a card.
+     *
+     * @param row The row.
+     * @return The rarity or null.
+     */
+    public Rarity getRarity(int row) {
+        return rarities[row] < 0 ? null : RARITIES[rarities[row]];
+    }
+
+    /**
+     * Gets the layout of a card.
+     *
+     * @param row The row.
+     * @return The layout or null.
+     */
+    public Layout getLayout(int row) {
+        return layouts[row] < 0 ? null : LAYOUTS[layouts[row]];
+    }
+
+    /**
+     * Gets the colors of a card.
+     *
+     * @param row The row.
+     * @return The colors.
+     */
+    public java.util.Set<Color> getColors(int row) {
+        return EnumBitSet.fromMask(Color.class, colors[row]);
+    }
+
+    /**
+     * Gets the color identity of a card.
+     *
+     * @param row The row.
+     * @return The color identity.
+     */
+    public java.util.Set<Color> getColorIdentity(int row) {
+        return EnumBitSet.fromMask(Color.class, colorIdentities[row]);
+    }
+
+    /**
+     * Gets the legality of a card in a format.
+     *
+     * @param row    The row.
+     * @param format The format.
+     * @return The legality, e.g. "Legal", or null.
+     */
+    public String getLegality(int row, Format format) {
+        return legalityDictionary.value(legalities[format.ordinal()][row]);
+    }
+
+    private BitSet ordinalIn(byte[] column, long mask) {
+        // Null (-1) never matches.
+        return matches(column, value -> value >= 0 && value < Long.SIZE && (mask >>> value & 1L) != 0);
+    }
+
+    private BitSet codeEquals(int[] column, int code) {
+        return code >= 0 ? between(column, code, code) : new BitSet();
+    }
+
+    private BitSet between(double[] column, double min, double max) {
+        long[] words = newWords();
+        for (int w = 0; w < words.length; w++) {
+            long word = 0;
+            int end = Math.min((w + 1) << 6, size);
+            for (int i = w << 6; i < end; i++) {
+                word |= (column[i] >= min && column[i] <= max ? 1L : 0L) << i;
+            }
+            words[w] = word;
+        }
+        return BitSet.valueOf(words);
+    }
+
+    private BitSet between(int[] column, int min, int max) {
+        long[] words = newWords();
+        for (int w = 0; w < words.length; w++) {
+            long word = 0;
+            int end = Math.min((w + 1) << 6, size);
+            for (int i = w << 6; i < end; i++) {
+                word |= (column[i] >= min && column[i] <= max ? 1L : 0L) << i;
+            }
+            words[w] = word;
+        }
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * Finds the rows of a byte column, whose value matches a predicate. The predicate is evaluated once per possible
+     * value into a table of 256 bits, so that the scan itself only looks up the bits.
+     */
+    private BitSet matches(byte[] column, IntPredicate predicate) {
+        long[] table = new long[4];
+        for (int value = Byte.MIN_VALUE; value <= Byte.MAX_VALUE; value++) {
+            if (predicate.test(value)) {
+                int bit = value & 0xFF;
+                table[bit >>> 6] |= 1L << bit;
+            }
+        }
+        long[] words = newWords();
+        for (int w = 0; w < words.length; w++) {
+            long word = 0;
+            int end = Math.min((w + 1) << 6, size);
+            for (int i = w << 6; i < end; i++) {
+                int value = column[i] & 0xFF;
+                word |= (table[value >>> 6] >>> value & 1L) << i;
+            }
+            words[w] = word;
+        }
+        return BitSet.valueOf(words);
+    }
+
+    private BitSet bitSet(long[] column, int bit) {
+        long[] words = newWords();
+        for (int w = 0; w < words.length; w++) {
+            long word = 0;
+            int end = Math.min((w + 1) << 6, size);
+            for (int i = w << 6; i < end; i++) {
+                word |= (column[i] >>> bit & 1L) << i;
+            }
+            words[w] = word;
+        }
+        return BitSet.valueOf(words);
+    }
+
+    private long[] newWords() {
+        return new long[(size + 63) >>> 6];
+    }
+
+    @SafeVarargs
+    private static <E extends Enum<E>> long ordinalMask(E... values) {
+        long mask = 0;
+        for (E value : values) {
+            mask |= 1L << value.ordinal();
+        }
+        return mask;
+    }
+
+    /**
+     * The distinct values of a string column, which are encoded by their index. Null is encoded as -1.
+     */
+    private static final class Dictionary {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+
+        private final List<String> values = new ArrayList<>();
+
+        private int encode(String value) {
+            if (value == null) {
+                return -1;
+            }
+            return codes.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+
+        private int code(String value) {
+            return value != null ? codes.getOrDefault(value, -1) : -1;
+        }
+
+        private String value(int code) {
+            return code >= 0 ? values.get(code) : null;
+        }
+
+        private int size() {
+            return values.size();
+        }
+    }
+
+    /**
+     * Appends the cards to growing columns.
+     */
+    private static final class Builder {
+
+        private final Dictionary typeDictionary = new Dictionary();
+
+        private final Dictionary legalityDictionary = new Dictionary();
+
+        private final Dictionary stringDictionary = new Dictionary();
+
+        private int size;
+
+        private double[] manaValues = new double[1024];
+
+        private double[] faceManaValues = new double[1024];
+
+        private int[] edhrecRanks = new int[1024];
+
+        private byte[] rarities = new byte[1024];
+
+        private byte[] layouts = new byte[1024];
+
+        private byte[] borderColors = new byte[1024];
+
+        private byte[] frameVersions = new byte[1024];
+
+        private byte[] colors = new byte[1024];
+
+        private byte[] colorIdentities = new byte[1024];
+
+        private long[] types = new long[1024];
+
+        private final byte[][] legalities = new byte[FORMATS.length][1024];
+
+        private int[] names = new int[1024];
+
+        private int[] setCodes = new int[1024];
+
+        private int[] artists = new int[1024];
+
+        private String[] uuids = new String[1024];
+
+        private void add(SetCard card) {
+            if (size == uuids.length) {
+                grow(size * 2);
+            }
+            manaValues[size] = card.getManaValue();
+            faceManaValues[size] = card.getFaceManaValue();
+            edhrecRanks[size] = card.getEdhrecRank() != null ? card.getEdhrecRank() : 0;
+            rarities[size] = ordinal(card.getRarity());
+            layouts[size] = ordinal(card.getLayout());
+            borderColors[size] = ordinal(card.getBorderColor());
+            frameVersions[size] = ordinal(card.getFrameVersion());
+            colors[size] = (byte) card.getColorsMask();
+            colorIdentities[size] = (byte) card.getColorIdentityMask();
+            long typeMask = 0;
+            if (card.getTypes() != null) {
+                for (String type : card.getTypes()) {
+                    int code = typeDictionary.encode(type);
+                    if (code >= Long.SIZE) {
+                        throw new IllegalArgumentException("More than " + Long.SIZE + " distinct types: " + type);
+                    }
+                    typeMask |= 1L << code;
+                }
+            }
+            types[size] = typeMask;
+            for (int f = 0; f < FORMATS.length; f++) {
+                int code = legalityDictionary.encode(FORMATS[f].getLegality(card.getLegalities()));
+                if (code > Byte.MAX_VALUE) {
+                    throw new IllegalArgumentException("More than " + Byte.MAX_VALUE + " distinct legalities.");
+                }
+                legalities[f][size] = (byte) code;
+            }
+            names[size] = stringDictionary.encode(card.getName());
+            setCodes[size] = stringDictionary.encode(card.getSetCode());
+            artists[size] = stringDictionary.encode(card.getArtist());
+            uuids[size] = card.getUuid();
+            size++;
+        }
+
+        private static byte ordinal(Enum<?> value) {
+            return value != null ? (byte) value.ordinal() : -1;
+        }
+
+        private void grow(int capacity) {
+            manaValues = Arrays.copyOf(manaValues, capacity);
+            faceManaValues = Arrays.copyOf(faceManaValues, capacity);
+            edhrecRanks = Arrays.copyOf(edhrecRanks, capacity);
+            rarities = Arrays.copyOf(rarities, capacity);
+            layouts = Arrays.copyOf(layouts, capacity);
+            borderColors = Arrays.copyOf(borderColors, capacity);
+            frameVersions = Arrays.copyOf(frameVersions, capacity);
+            colors = Arrays.copyOf(colors, capacity);
+            colorIdentities = Arrays.copyOf(colorIdentities, capacity);
+            types = Arrays.copyOf(types, capacity);
+            for (int f = 0; f < FORMATS.length; f++) {
+                legalities[f] = Arrays.copyOf(legalities[f], capacity);
+            }
+            names = Arrays.copyOf(names, capacity);
+            setCodes = Arrays.copyOf(setCodes, capacity);
+            artists = Arrays.copyOf(artists, capacity);
+            uuids = Arrays.copyOf(uuids, capacity);
+        }
+    }
+}
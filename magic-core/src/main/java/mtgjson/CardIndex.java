@@ -0,0 +1,314 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * An in-memory index of the card names, which answers name queries without a database.
+ *
+ * <p>The names are normalized into keys, which are lower case and ASCII-folded, i.e. accents are removed and
+ * ligatures are replaced (e.g. "Æther Vial" becomes "aether vial"). Cards are indexed by their name and by their
+ * {@linkplain SetCard#getAsciiName() ASCII name}, if they have one. Queries are normalized the same way, therefore all
+ * lookups are case- and accent-insensitive.</p>
+ *
+ * <p>The keys are held in a sorted array, which answers exact and prefix queries by binary search. Substring queries
+ * (SQL {@code LIKE} patterns) are answered with an index of the trigrams (and bigrams) of the keys: Only keys, which
+ * contain all trigrams of the literal parts of the pattern, are matched against the pattern. Literal parts of two
+ * characters are looked up by their bigram.</p>
+ *
+ * <p>The index is immutable and thread-safe. The results are ordered by key and then by the order of the sets.</p>
+ */
+public final class CardIndex {
+
+    private static final int[] NO_KEYS = new int[0];
+
+    private final String[] keys;
+
+    private final List<List<SetCard>> cards;
+
+    // The keys, which contain a trigram or bigram, in ascending order.
+    private final Map<Long, int[]> ngrams;
+
+    private CardIndex(String[] keys, List<List<SetCard>> cards, Map<Long, int[]> ngrams) {
+        this.keys = keys;
+        this.cards = cards;
+        this.ngrams = ngrams;
+    }
+
+    /**
+     * Builds the index of the cards of the sets.
+     *
+     * @param sets The sets, e.g. as parsed from an AllPrintings file.
+     * @return The index.
+     */
+    public static CardIndex of(Stream<Set> sets) {
+        Map<String, List<SetCard>> cardsByKey = new TreeMap<>();
+        sets.forEachOrdered(set -> {
+            for (SetCard card : set.getCards()) {
+                String key = normalize(card.getName());
+                cardsByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(card);
+                if (card.getAsciiName() != null) {
+                    String asciiKey = normalize(card.getAsciiName());
+                    if (!asciiKey.equals(key)) {
+                        cardsByKey.computeIfAbsent(asciiKey, k -> new ArrayList<>()).add(card);
+                    }
+                }
+            }
+        });
+        String[] keys = cardsByKey.keySet().toArray(new String[0]);
+        List<List<SetCard>> cards = new ArrayList<>(keys.length);
+        Map<Long, List<Integer>> postings = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            cards.add(List.copyOf(cardsByKey.get(keys[i])));
+            for (int j = 0; j + 2 <= keys[i].length(); j++) {
+                addPosting(postings, bigram(keys[i], j), i);
+                if (j + 3 <= keys[i].length()) {
+                    addPosting(postings, trigram(keys[i], j), i);
+                }
+            }
+        }
+        Map<Long, int[]> ngrams = new HashMap<>(postings.size() * 4 / 3 + 1);
+        postings.forEach((ngram, keyIds) -> ngrams.put(ngram, keyIds.stream().mapToInt(i -> i).toArray()));
+        return new CardIndex(keys, cards, ngrams);
+    }
+
+    private static void addPosting(Map<Long, List<Integer>> postings, long ngram, int keyId) {
+        List<Integer> keyIds = postings.computeIfAbsent(ngram, t -> new ArrayList<>());
+        // Keys are added in ascending order, therefore a repeated n-gram of the same key is the last one.
+        if (keyIds.isEmpty() || keyIds.get(keyIds.size() - 1) != keyId) {
+            keyIds.add(keyId);
+        }
+    }
+
+    /**
+     * Finds the cards with the given name.
+     *
+     * @param name The name, e.g. "Chrome Mox".
+     * @return The cards (i.e. all printings) with the name.
+     */
+    public List<SetCard> findCardsByName(String name) {
+        int i = Arrays.binarySearch(keys, normalize(name));
+        return i >= 0 ? cards.get(i) : Collections.emptyList();
+    }
+
+    /**
+     * Finds the cards, whose names start with the given prefix, e.g. for autocompletion.
+     *
+     * @param prefix The prefix, e.g. "chrome m".
+     * @return The cards, whose names start with the prefix.
+     */
+    public List<SetCard> findCardsByNamePrefix(String prefix) {
+        String key = normalize(prefix);
+        java.util.Set<SetCard> result = new LinkedHashSet<>();
+        for (int i = lowerBound(key); i < keys.length && keys[i].startsWith(key); i++) {
+            result.addAll(cards.get(i));
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Finds the distinct names, which start with the given prefix, e.g. for autocompletion.
+     *
+     * @param prefix The prefix, e.g. "chrome m".
+     * @param limit  The maximal number of names.
+     * @return The names of the cards, in the order of their keys.
+     */
+    public List<String> findNamesByPrefix(String prefix, int limit) {
+        String key = normalize(prefix);
+        java.util.Set<String> result = new LinkedHashSet<>();
+        for (int i = lowerBound(key); i < keys.length && keys[i].startsWith(key) && result.size() < limit; i++) {
+            result.add(cards.get(i).get(0).getName());
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Finds the cards, whose names match an SQL {@code LIKE} pattern, in which {@code %} matches any number of
+     * characters and {@code _} matches a single character. A backslash escapes the next character.
+     *
+     * @param pattern The pattern, e.g. "%mox%".
+     * @return The cards, whose names match the pattern.
+     * @see DatabaseUtil#findCardsByName(String)
+     */
+    public List<SetCard> findCardsByNameLike(String pattern) {
+        String normalizedPattern = normalize(pattern);
+        java.util.Set<SetCard> result = new LinkedHashSet<>();
+        for (int i : candidates(normalizedPattern)) {
+            if (like(keys[i], 0, normalizedPattern, 0)) {
+                result.addAll(cards.get(i));
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Finds the keys, which contain all trigrams of the literal parts of the pattern, or their bigram, if they consist
+     * of two characters. If all literal parts are shorter, all keys are candidates, unless the pattern starts with a
+     * literal prefix.
+     */
+    private int[] candidates(String pattern) {
+        int[] candidates = null;
+        StringBuilder literal = new StringBuilder();
+        boolean leadingLiteral = true;
+        String prefix = null;
+        for (int i = 0; i <= pattern.length(); i++) {
+            char c = i < pattern.length() ? pattern.charAt(i) : '%';
+            if (c == '\\' && i + 1 < pattern.length()) {
+                literal.append(pattern.charAt(++i));
+            } else if (c == '%' || c == '_') {
+                if (leadingLiteral) {
+                    prefix = literal.toString();
+                    leadingLiteral = false;
+                }
+                // A literal of two characters has a single bigram, longer ones have a trigram per position.
+                int ngramCount = literal.length() == 2 ? 1 : literal.length() - 2;
+                for (int j = 0; j < ngramCount; j++) {
+                    long ngram = literal.length() == 2 ? bigram(literal, j) : trigram(literal, j);
+                    int[] keyIds = ngrams.getOrDefault(ngram, NO_KEYS);
+                    candidates = candidates == null ? keyIds : intersect(candidates, keyIds);
+                    if (candidates.length == 0) {
+                        return candidates;
+                    }
+                }
+                literal.setLength(0);
+            } else {
+                literal.append(c);
+            }
+        }
+        if (candidates != null) {
+            return candidates;
+        }
+        int from = lowerBound(prefix);
+        int to = from;
+        while (to < keys.length && keys[to].startsWith(prefix)) {
+            to++;
+        }
+        int[] range = new int[to - from];
+        Arrays.setAll(range, i -> from + i);
+        return range;
+    }
+
+    private int lowerBound(String key) {
+        int i = Arrays.binarySearch(keys, key);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int n = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private static long trigram(CharSequence s, int i) {
+        return (long) s.charAt(i) << 32 | (long) s.charAt(i + 1) << 16 | s.charAt(i + 2);
+    }
+
+    // Bigrams are distinguished from trigrams by the highest bit.
+    private static long bigram(CharSequence s, int i) {
+        return Long.MIN_VALUE | (long) s.charAt(i) << 16 | s.charAt(i + 1);
+    }
+
+    /**
+     * Matches a string against a {@code LIKE} pattern, starting at the given indexes.
+     */
+    private static boolean like(String s, int i, String pattern, int p) {
+        while (p < pattern.length()) {
+            char c = pattern.charAt(p);
+            if (c == '%') {
+                for (int j = i; j <= s.length(); j++) {
+                    if (like(s, j, pattern, p + 1)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            if (i == s.length()) {
+                return false;
+            }
+            if (c == '\\' && p + 1 < pattern.length()) {
+                c = pattern.charAt(++p);
+            } else if (c == '_') {
+                c = s.charAt(i);
+            }
+            if (s.charAt(i) != c) {
+                return false;
+            }
+            i++;
+            p++;
+        }
+        return i == s.length();
+    }
+
+    /**
+     * Normalizes a name into a key: Removes accents, replaces ligatures and converts it to lower case.
+     */
+    static String normalize(String name) {
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFKD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            switch (c) {
+                case 'Æ':
+                case 'æ':
+                    sb.append("ae");
+                    break;
+                case 'Œ':
+                case 'œ':
+                    sb.append("oe");
+                    break;
+                case 'ß':
+                    sb.append("ss");
+                    break;
+                default:
+                    sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+}
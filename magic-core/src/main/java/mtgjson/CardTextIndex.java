@@ -0,0 +1,422 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+/**
+ * An in-memory full-text index of the cards, which answers rules text and type queries without a database.
+ *
+ * <p>Each card is indexed by its name, rules text, type, original text and the names, texts and types of its foreign
+ * data. The texts are split into terms, which are folded like the keys of the {@link CardIndex}, i.e. they are lower
+ * case and accents are removed ("Einprägen" becomes "einpragen"). Apostrophes within words are dropped ("can't"
+ * becomes "cant"). Chinese, Japanese and Korean texts, which are not separated by spaces, are split into overlapping
+ * pairs of characters (bigrams) instead, after full-width and half-width forms have been folded.</p>
+ *
+ * <p>Each term has a posting list of the cards, which contain it, with the number of occurrences. Names and types
+ * count more than texts. Pairs of adjacent terms of a property are indexed the same way, so that phrases are matched
+ * without looking at the texts again. A query is split into terms the same way: All terms must occur and quoted
+ * phrases (as well as words, which consist of several terms, like "fire-breathing") must occur as adjacent pairs, i.e.
+ * a phrase of three or more terms may match pairs in different places. The matching cards are ranked by BM25, i.e.
+ * rare terms, repeated terms and short texts score higher. Terms are not stemmed.</p>
+ *
+ * <p>The index is immutable and thread-safe.</p>
+ */
+public final class CardTextIndex {
+
+    private static final int NAME_WEIGHT = 3;
+
+    private static final int TYPE_WEIGHT = 2;
+
+    private static final int TEXT_WEIGHT = 1;
+
+    // The usual BM25 parameters, which saturate the term frequency and normalize the length.
+    private static final double K1 = 1.2;
+
+    private static final double B = 0.75;
+
+    private final List<SetCard> cards;
+
+    private final Map<String, Postings> postings;
+
+    private final int[] lengths;
+
+    private final double averageLength;
+
+    private CardTextIndex(List<SetCard> cards, Map<String, Postings> postings, int[] lengths) {
+        this.cards = cards;
+        this.postings = postings;
+        this.lengths = lengths;
+        this.averageLength = Math.max(1, Arrays.stream(lengths).average().orElse(1));
+    }
+
+    /**
+     * Builds the index of the cards of the sets.
+     *
+     * @param sets The sets, e.g. as parsed from an AllPrintings file.
+     * @return The index.
+     */
+    public static CardTextIndex of(Stream<Set> sets) {
+        Builder builder = new Builder();
+        sets.forEachOrdered(set -> set.getCards().forEach(builder::add));
+        return builder.build();
+    }
+
+    private static List<Property> properties(SetCard card) {
+        List<Property> properties = new ArrayList<>();
+        properties.add(new Property(card.getName(), NAME_WEIGHT));
+        properties.add(new Property(card.getType(), TYPE_WEIGHT));
+        properties.add(new Property(card.getText(), TEXT_WEIGHT));
+        properties.add(new Property(card.getOriginalText(), TEXT_WEIGHT));
+        if (card.getForeignData() != null) {
+            for (ForeignData foreignData : card.getForeignData()) {
+                properties.add(new Property(foreignData.getName(), NAME_WEIGHT));
+                properties.add(new Property(foreignData.getType(), TYPE_WEIGHT));
+                properties.add(new Property(foreignData.getText(), TEXT_WEIGHT));
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Searches the cards, which contain all terms and phrases of the query, e.g. {@code "draw a card" flying}.
+     *
+     * @param query The query, in which phrases are quoted.
+     * @param limit The maximal number of cards.
+     * @return The matching cards, the best match first. Cards with the same score are in the order of the sets.
+     */
+    public List<SetCard> search(String query, int limit) {
+        List<Postings> lists = new ArrayList<>();
+        for (String term : terms(query)) {
+            Postings list = postings.get(term);
+            if (list == null) {
+                return new ArrayList<>();
+            }
+            lists.add(list);
+        }
+        if (lists.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        // The shortest posting list drives the intersection.
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        double[] idfs = lists.stream().mapToDouble(list -> idf(list.size)).toArray();
+        int[] positions = new int[lists.size()];
+        // The best matches so far, the worst one at the head.
+        Comparator<Match> order = Comparator.comparingDouble((Match match) -> -match.score)
+                .thenComparingInt(match -> match.cardId);
+        PriorityQueue<Match> matches = new PriorityQueue<>(order.reversed());
+        Postings first = lists.get(0);
+        candidates:
+        for (int i = 0; i < first.size; i++) {
+            int cardId = first.cardIds[i];
+            double score = score(first.frequencies[i], cardId, idfs[0]);
+            for (int t = 1; t < lists.size(); t++) {
+                Postings list = lists.get(t);
+                int position = list.seek(positions[t], cardId);
+                positions[t] = position;
+                if (position == list.size || list.cardIds[position] != cardId) {
+                    continue candidates;
+                }
+                score += score(list.frequencies[position], cardId, idfs[t]);
+            }
+            Match match = new Match(cardId, score);
+            if (matches.size() < limit) {
+                matches.add(match);
+            } else if (order.compare(match, matches.peek()) < 0) {
+                matches.poll();
+                matches.add(match);
+            }
+        }
+        List<Match> best = new ArrayList<>(matches);
+        best.sort(order);
+        List<SetCard> result = new ArrayList<>(best.size());
+        for (Match match : best) {
+            result.add(cards.get(match.cardId));
+        }
+        return result;
+    }
+
+    private double idf(int documentFrequency) {
+        return Math.log(1 + (cards.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private double score(int frequency, int cardId, double idf) {
+        double norm = K1 * (1 - B + B * lengths[cardId] / averageLength);
+        return idf * frequency * (K1 + 1) / (frequency + norm);
+    }
+
+    /**
+     * Splits a query into the terms, which must occur: Quoted parts are phrases, others are split into words at white
+     * space. Phrases, which consist of several terms, are looked up by their pairs of adjacent terms.
+     */
+    private static java.util.Set<String> terms(String query) {
+        java.util.Set<String> terms = new LinkedHashSet<>();
+        String[] parts = query.split("\"", -1);
+        for (int i = 0; i < parts.length; i++) {
+            // Parts at odd positions are enclosed in quotes.
+            for (String part : i % 2 == 1 ? new String[]{parts[i]} : parts[i].trim().split("\\s+")) {
+                Terms phrase = new Terms(part);
+                terms.addAll(phrase.pairs.isEmpty() ? phrase.words : phrase.pairs);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Splits a text into folded terms.
+     *
+     * @param text The text, which may be null.
+     * @return The terms in the order of the text.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return new ArrayList<>();
+        }
+        // Folds full-width and half-width forms, e.g. of Japanese texts, which are not decomposed later on.
+        String s = isAscii(text) ? text : Normalizer.normalize(text, Normalizer.Form.NFKC);
+        List<String> terms = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        int cjkStart = -1;
+        for (int i = 0; i <= s.length(); i++) {
+            char c = i < s.length() ? s.charAt(i) : ' ';
+            boolean cjk = isCjk(c);
+            if (cjkStart >= 0 && !cjk) {
+                addBigrams(terms, s, cjkStart, i);
+                cjkStart = -1;
+            }
+            if (cjk) {
+                addWord(terms, word);
+                if (cjkStart < 0) {
+                    cjkStart = i;
+                }
+            } else if (Character.isLetterOrDigit(c) || Character.getType(c) == Character.NON_SPACING_MARK) {
+                word.append(c);
+            } else if (!isApostrophe(c) || word.length() == 0) {
+                // Apostrophes within words are dropped, other characters separate words.
+                addWord(terms, word);
+            }
+        }
+        return terms;
+    }
+
+    private static void addWord(List<String> terms, StringBuilder word) {
+        if (word.length() > 0) {
+            String s = word.toString();
+            terms.add(isAscii(s) ? s.toLowerCase(Locale.ROOT) : CardIndex.normalize(s));
+            word.setLength(0);
+        }
+    }
+
+    private static void addBigrams(List<String> terms, String s, int start, int end) {
+        if (end - start == 1) {
+            terms.add(s.substring(start, end));
+        }
+        for (int i = start; i + 2 <= end; i++) {
+            terms.add(s.substring(i, i + 2));
+        }
+    }
+
+    private static boolean isAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isApostrophe(char c) {
+        return c == '\'' || c == '’';
+    }
+
+    private static boolean isCjk(char c) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(c);
+        return script == Character.UnicodeScript.HAN || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA || script == Character.UnicodeScript.HANGUL
+                || c == 'ー';
+    }
+
+    private static final class Property {
+
+        private final String value;
+
+        private final int weight;
+
+        private Property(String value, int weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Collects the postings by term ids, which are cheaper to count than the terms.
+     */
+    private static final class Builder {
+
+        private final List<SetCard> cards = new ArrayList<>();
+
+        private final List<Integer> lengths = new ArrayList<>();
+
+        private final Map<String, Integer> termIds = new HashMap<>();
+
+        private final List<Postings> postings = new ArrayList<>();
+
+        // Reprints and translations repeat the same texts, which are therefore only tokenized once.
+        private final Map<String, Terms> tokenized = new HashMap<>();
+
+        private final List<Integer> counted = new ArrayList<>();
+
+        private int[] frequencies = new int[1024];
+
+        private void add(SetCard card) {
+            int cardId = cards.size();
+            int length = 0;
+            for (Property property : properties(card)) {
+                if (property.value != null) {
+                    Terms terms = tokenized.computeIfAbsent(property.value, value -> new Terms(value, this::termId));
+                    for (int termId : terms.ids) {
+                        if (frequencies[termId] == 0) {
+                            counted.add(termId);
+                        }
+                        frequencies[termId] += property.weight;
+                    }
+                    length += terms.words.size() * property.weight;
+                }
+            }
+            for (int termId : counted) {
+                postings.get(termId).add(cardId, frequencies[termId]);
+                frequencies[termId] = 0;
+            }
+            counted.clear();
+            cards.add(card);
+            lengths.add(length);
+        }
+
+        private int termId(String term) {
+            return termIds.computeIfAbsent(term, t -> {
+                postings.add(new Postings());
+                if (postings.size() > frequencies.length) {
+                    frequencies = Arrays.copyOf(frequencies, frequencies.length * 2);
+                }
+                return postings.size() - 1;
+            });
+        }
+
+        private CardTextIndex build() {
+            Map<String, Postings> postingsByTerm = new HashMap<>(termIds.size() * 4 / 3 + 1);
+            termIds.forEach((term, termId) -> {
+                Postings list = postings.get(termId);
+                list.trim();
+                postingsByTerm.put(term, list);
+            });
+            return new CardTextIndex(List.copyOf(cards), postingsByTerm, lengths.stream().mapToInt(i -> i).toArray());
+        }
+    }
+
+    /**
+     * The terms of a text and the pairs of adjacent terms, which are indexed to match phrases.
+     */
+    private static final class Terms {
+
+        private final List<String> words;
+
+        private final List<String> pairs;
+
+        // The ids of the terms and pairs, while the index is built.
+        private final int[] ids;
+
+        private Terms(String text) {
+            this(text, term -> -1);
+        }
+
+        private Terms(String text, ToIntFunction<String> termIds) {
+            words = tokenize(text);
+            pairs = new ArrayList<>(Math.max(0, words.size() - 1));
+            for (int i = 1; i < words.size(); i++) {
+                // Terms never contain spaces, therefore pairs are distinct from terms.
+                pairs.add(words.get(i - 1) + ' ' + words.get(i));
+            }
+            ids = Stream.concat(words.stream(), pairs.stream()).mapToInt(termIds).toArray();
+        }
+    }
+
+    private static final class Match {
+
+        private final int cardId;
+
+        private final double score;
+
+        private Match(int cardId, double score) {
+            this.cardId = cardId;
+            this.score = score;
+        }
+    }
+
+    /**
+     * The ids of the cards, which contain a term, in ascending order, and the weighted number of occurrences.
+     */
+    private static final class Postings {
+
+        private int[] cardIds = new int[4];
+
+        private int[] frequencies = new int[4];
+
+        private int size;
+
+        private void add(int cardId, int frequency) {
+            if (size == cardIds.length) {
+                cardIds = Arrays.copyOf(cardIds, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            cardIds[size] = cardId;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        private void trim() {
+            cardIds = Arrays.copyOf(cardIds, size);
+            frequencies = Arrays.copyOf(frequencies, size);
+        }
+
+        /**
+         * Finds the position of the first card id, which is not less than the given one, starting at a position.
+         */
+        private int seek(int from, int cardId) {
+            int i = Arrays.binarySearch(cardIds, from, size, cardId);
+            return i >= 0 ? i : -i - 1;
+        }
+    }
+}
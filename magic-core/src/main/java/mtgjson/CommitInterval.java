@@ -0,0 +1,106 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+/**
+ * Determines, how often an import of sets commits its transaction.
+ *
+ * <p>Sets are always imported atomically, i.e. a transaction is only committed between two sets. Committing less often
+ * saves log flushes (e.g. of a file-based H2 database), but a failure rolls back all sets since the last commit.</p>
+ *
+ * <p>This class is immutable.</p>
+ *
+ * @see DatabaseUtil#insert(java.util.stream.Stream, CommitInterval)
+ */
+public final class CommitInterval {
+
+    private static final CommitInterval PER_SET = new CommitInterval(1, Long.MAX_VALUE);
+
+    private final int sets;
+
+    private final long rows;
+
+    private CommitInterval(int sets, long rows) {
+        this.sets = sets;
+        this.rows = rows;
+    }
+
+    /**
+     * Commits after each set.
+     *
+     * @return The commit interval.
+     */
+    public static CommitInterval perSet() {
+        return PER_SET;
+    }
+
+    /**
+     * Commits after every given number of sets.
+     *
+     * @param sets The number of sets per transaction.
+     * @return The commit interval.
+     * @throws IllegalArgumentException If the number of sets is not positive.
+     */
+    public static CommitInterval perSets(int sets) {
+        if (sets < 1) {
+            throw new IllegalArgumentException("sets must be positive: " + sets);
+        }
+        return new CommitInterval(sets, Long.MAX_VALUE);
+    }
+
+    /**
+     * Commits after the set, with which at least the given number of rows (of all tables) have been written since the
+     * last commit. A transaction may therefore contain more rows, but never a partial set.
+     *
+     * @param rows The minimal number of rows per transaction.
+     * @return The commit interval.
+     * @throws IllegalArgumentException If the number of rows is not positive.
+     */
+    public static CommitInterval perRows(long rows) {
+        if (rows < 1) {
+            throw new IllegalArgumentException("rows must be positive: " + rows);
+        }
+        return new CommitInterval(Integer.MAX_VALUE, rows);
+    }
+
+    /**
+     * Checks, whether a transaction is to be committed.
+     *
+     * @param pendingSets The number of sets written since the last commit.
+     * @param pendingRows The number of rows written since the last commit.
+     * @return True, if the transaction is to be committed.
+     */
+    boolean isDue(int pendingSets, long pendingRows) {
+        return pendingSets >= sets || pendingRows >= rows;
+    }
+
+    @Override
+    public final String toString() {
+        if (rows != Long.MAX_VALUE) {
+            return "Per " + rows + " rows";
+        }
+        return sets == 1 ? "Per set" : "Per " + sets + " sets";
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipInputStream;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
+
+/**
+ * The compression formats, in which the MTGJSON files are distributed, which are detected by their magic bytes.
+ */
+enum Compression {
+
+    // The magic bytes are given as ISO-8859-1 strings, which map each byte to one character.
+
+    NONE(""),
+
+    GZIP("\u001F\u008B"),
+
+    XZ("\u00FD7zXZ\u0000"),
+
+    BZIP2("BZh"),
+
+    ZIP("PK\u0003\u0004"),
+
+    ZSTD("(\u00B5/\u00FD");
+
+    private static final int MAX_MAGIC_LENGTH = 6;
+
+    private final String magic;
+
+    Compression(String magic) {
+        this.magic = magic;
+    }
+
+    /**
+     * Detects the compression of a stream.
+     *
+     * @param inputStream The input stream, which must support marks. Its position is not changed.
+     * @return The compression.
+     * @throws IOException If the stream could not be read.
+     */
+    static Compression detect(InputStream inputStream) throws IOException {
+        inputStream.mark(MAX_MAGIC_LENGTH);
+        String header = new String(inputStream.readNBytes(MAX_MAGIC_LENGTH), StandardCharsets.ISO_8859_1);
+        inputStream.reset();
+        for (Compression compression : values()) {
+            if (compression != NONE && header.startsWith(compression.magic)) {
+                return compression;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Detects the compression of a stream and decompresses it on a separate thread, so that decompression overlaps
+     * with parsing.
+     *
+     * @param inputStream The input stream.
+     * @return The decompressed stream or a buffered stream of the input, if it is not compressed.
+     * @throws IOException If the stream could not be read or its compression is not supported.
+     */
+    static InputStream decompress(InputStream inputStream) throws IOException {
+        InputStream in = inputStream.markSupported() ? inputStream : new BufferedInputStream(inputStream);
+        Compression compression = detect(in);
+        if (compression == NONE) {
+            return in;
+        }
+        return new DecompressingInputStream(compression, in);
+    }
+
+    /**
+     * Wraps an input stream with a decompressor of this format.
+     *
+     * @param inputStream The compressed input stream.
+     * @return The decompressed input stream.
+     * @throws IOException If the stream could not be read.
+     */
+    InputStream newDecompressor(InputStream inputStream) throws IOException {
+        switch (this) {
+            case GZIP:
+                return new GZIPInputStream(inputStream, 1 << 16);
+            case XZ:
+                return new XZCompressorInputStream(inputStream, true);
+            case BZIP2:
+                return new BZip2CompressorInputStream(inputStream, true);
+            case ZIP:
+                // The MTGJSON archives contain a single file.
+                ZipInputStream zipInputStream = new ZipInputStream(inputStream);
+                if (zipInputStream.getNextEntry() == null) {
+                    throw new IOException("Empty ZIP archive");
+                }
+                return zipInputStream;
+            case ZSTD:
+                throw new IOException("Zstandard compression is not supported, use gzip, xz or bzip2 instead");
+            default:
+                return inputStream;
+        }
+    }
+}
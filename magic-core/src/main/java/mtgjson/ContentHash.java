@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.jooq.Field;
+import org.jooq.Record;
+
+/**
+ * Computes a 64-bit hash of the rows of a set or card, by which an incremental sync detects unchanged content.
+ *
+ * <p>The hash covers the values of all columns, except the generated ids, the foreign keys and the hash itself, which
+ * differ between databases. It is derived from SHA-256, so that it is stable across JVMs and collisions are
+ * negligible.</p>
+ */
+final class ContentHash {
+
+    private static final String[] EXCLUDED_COLUMNS = {"id", "card_id", "set_id", "oracle_card_id", "content_hash"};
+
+    private final MessageDigest digest;
+
+    private final byte[] buffer = new byte[Long.BYTES];
+
+    ContentHash() {
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Adds the values of a row. Each value is length-prefixed, so that different rows cannot have the same encoding.
+     *
+     * @param record The row, which may be null.
+     * @return This hash.
+     */
+    ContentHash add(Record record) {
+        if (record == null) {
+            return add(-1L);
+        }
+        // The values are accessed by index, because a lookup by field is comparatively expensive.
+        for (int i = 0; i < record.size(); i++) {
+            if (!isExcluded(record.field(i))) {
+                Object value = record.get(i);
+                if (value == null) {
+                    add(-1L);
+                } else {
+                    byte[] bytes = String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+                    add(bytes.length);
+                    digest.update(bytes);
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds a number, e.g. the hash of a child row.
+     *
+     * @param value The number.
+     * @return This hash.
+     */
+    ContentHash add(long value) {
+        ByteBuffer.wrap(buffer).putLong(value);
+        digest.update(buffer);
+        return this;
+    }
+
+    /**
+     * Completes the hash. This instance must not be used afterwards.
+     *
+     * @return The hash.
+     */
+    long get() {
+        return ByteBuffer.wrap(digest.digest()).getLong();
+    }
+
+    private static boolean isExcluded(Field<?> field) {
+        for (String column : EXCLUDED_COLUMNS) {
+            if (column.equalsIgnoreCase(field.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -25,24 +25,40 @@
 package mtgjson;
 
 import static org.jooq.generated.Tables.CARD;
-import static org.jooq.generated.Tables.CARD_AVAILABILITY;
-import static org.jooq.generated.Tables.CARD_COLOR;
-import static org.jooq.generated.Tables.CARD_COLOR_IDENTITY;
-import static org.jooq.generated.Tables.CARD_COLOR_INDICATOR;
-import static org.jooq.generated.Tables.CARD_FINISH;
-import static org.jooq.generated.Tables.CARD_FRAME_EFFECT;
 import static org.jooq.generated.Tables.FOREIGN_DATA;
 import static org.jooq.generated.Tables.IDENTIFIERS;
+import static org.jooq.generated.Tables.ORACLE_CARD;
+import static org.jooq.generated.Tables.ORACLE_CARD_KEYWORD;
+import static org.jooq.generated.Tables.ORACLE_CARD_RULING;
 import static org.jooq.generated.Tables.SET;
 import static org.jooq.generated.Tables.SET_CARD;
 import static org.jooq.generated.Tables.TOKEN_CARD;
+import static org.jooq.generated.Tables.TOKEN_CARD_REVERSE_RELATED;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.sql.DataSource;
 
 import liquibase.Contexts;
@@ -53,34 +69,121 @@ import liquibase.database.core.H2Database;
 import liquibase.database.jvm.JdbcConnection;
 import liquibase.exception.LiquibaseException;
 import liquibase.resource.ClassLoaderResourceAccessor;
+import org.jooq.Condition;
+import org.jooq.Cursor;
 import org.jooq.DSLContext;
+import org.jooq.ExecuteListener;
+import org.jooq.Field;
 import org.jooq.Record;
+import org.jooq.Record1;
+import org.jooq.Record2;
+import org.jooq.Record4;
+import org.jooq.Result;
 import org.jooq.SQLDialect;
-import org.jooq.generated.tables.records.CardAvailabilityRecord;
-import org.jooq.generated.tables.records.CardColorIdentityRecord;
-import org.jooq.generated.tables.records.CardColorRecord;
-import org.jooq.generated.tables.records.CardFinishRecord;
-import org.jooq.generated.tables.records.CardFrameEffectRecord;
+import org.jooq.Select;
+import org.jooq.SelectConditionStep;
+import org.jooq.Table;
+import org.jooq.TableRecord;
+import org.jooq.exception.DataAccessException;
+import org.jooq.exception.SQLStateClass;
 import org.jooq.generated.tables.records.CardRecord;
 import org.jooq.generated.tables.records.ForeignDataRecord;
 import org.jooq.generated.tables.records.IdentifiersRecord;
+import org.jooq.generated.tables.records.OracleCardKeywordRecord;
+import org.jooq.generated.tables.records.OracleCardRecord;
+import org.jooq.generated.tables.records.OracleCardRulingRecord;
 import org.jooq.generated.tables.records.SetCardRecord;
 import org.jooq.generated.tables.records.SetRecord;
 import org.jooq.generated.tables.records.TokenCardRecord;
 import org.jooq.generated.tables.records.TokenCardReverseRelatedRecord;
 import org.jooq.impl.DSL;
+import org.jooq.impl.DefaultConfiguration;
 
 public final class DatabaseUtil {
 
+    /**
+     * The default number of rows, which are written to a table with a single statement.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    /**
+     * The number of rows, which are fetched at once by the streaming queries.
+     */
+    private static final int FETCH_SIZE = 500;
+
     private final DataSource dataSource;
 
+    private final int batchSize;
+
+    private final QueryCache cache;
+
+    private final Instrumentation instrumentation;
+
     public DatabaseUtil(DataSource dataSource) {
+        this(dataSource, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a database utility, which caches the results of its card queries.
+     *
+     * @param dataSource The data source.
+     * @param cache      The cache, which is invalidated, whenever data is modified by this utility.
+     * @see #DatabaseUtil(DataSource, int, QueryCache)
+     */
+    public DatabaseUtil(DataSource dataSource, QueryCache cache) {
+        this(dataSource, DEFAULT_BATCH_SIZE, cache);
+    }
+
+    /**
+     * Creates a database utility, which writes the rows of each table in batches of the given size, i.e. with one
+     * statement per batch.
+     *
+     * @param dataSource The data source.
+     * @param batchSize  The maximal number of rows per batch.
+     */
+    public DatabaseUtil(DataSource dataSource, int batchSize) {
+        this(dataSource, batchSize, null);
+    }
+
+    /**
+     * Creates a database utility, which writes the rows of each table in batches of the given size and caches the
+     * results of {@link #findCardsByName(String)} and {@link #findCardsWithinColorIdentity(java.util.Set)}.
+     *
+     * <p>The cache is invalidated, whenever data is modified by this utility, i.e. by {@link #insert(Set)} and by a
+     * sync, which has changed anything. Modifications by other means (e.g. another utility on the same database) are
+     * not noticed, but cached results may expire.</p>
+     *
+     * @param dataSource The data source.
+     * @param batchSize  The maximal number of rows per batch.
+     * @param cache      The cache or null, if no results are cached.
+     */
+    public DatabaseUtil(DataSource dataSource, int batchSize, QueryCache cache) {
+        this(dataSource, batchSize, cache, Instrumentation.NOOP);
+    }
+
+    /**
+     * Creates a database utility, which reports the time to obtain connections, the rows inserted per statement and
+     * the latency and number of SQL statements of its query methods to an instrumentation.
+     *
+     * @param dataSource      The data source.
+     * @param batchSize       The maximal number of rows per batch.
+     * @param cache           The cache or null, if no results are cached.
+     * @param instrumentation The instrumentation, e.g. a {@link MetricsInstrumentation}.
+     * @see #DatabaseUtil(DataSource, int, QueryCache)
+     */
+    public DatabaseUtil(DataSource dataSource, int batchSize, QueryCache cache, Instrumentation instrumentation) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
         this.dataSource = dataSource;
+        this.batchSize = batchSize;
+        this.cache = cache;
+        this.instrumentation = Objects.requireNonNull(instrumentation);
     }
 
     public void init() throws SQLException, LiquibaseException {
 
-        try (Connection connection = dataSource.getConnection()) {
+        try (Connection connection = getConnection()) {
 
             Database database = new H2Database();
             database.setConnection(new JdbcConnection(connection));
@@ -90,214 +193,1150 @@ public final class DatabaseUtil {
         }
     }
 
-    public void insert(Set set) throws SQLException {
-        try (Connection connection = dataSource.getConnection()) {
-            DSLContext context = DSL.using(connection, SQLDialect.DEFAULT);
-
-            SetRecord setRecord = context.newRecord(SET, set);
-            context.insertInto(SET).set(setRecord).execute();
-
-            for (SetCard card : set.getCards()) {
+    /**
+     * Obtains a connection from the data source and reports the time it took.
+     */
+    private Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = dataSource.getConnection();
+        instrumentation.connectionAcquired(System.nanoTime() - start);
+        return connection;
+    }
 
-                CardRecord cardRecord = context.newRecord(CARD, card);
-                cardRecord.store();
+    /**
+     * Creates the DSL context of a connection, which counts the executed SQL statements, unless nothing is measured.
+     */
+    private DSLContext using(Connection connection, AtomicInteger queries) {
+        if (instrumentation == Instrumentation.NOOP) {
+            return DSL.using(connection, SQLDialect.DEFAULT);
+        }
+        return DSL.using(new DefaultConfiguration().set(connection).set(SQLDialect.DEFAULT)
+                .set(ExecuteListener.onExecuteStart(context -> queries.incrementAndGet())));
+    }
 
-                SetCardRecord setCardRecord = context.newRecord(SET_CARD, card);
-                setCardRecord.setCardId(cardRecord.getId());
-                setCardRecord.store();
+    /**
+     * Runs a query method on a connection of its own and reports its latency and number of SQL statements, even if it
+     * fails.
+     *
+     * @param method The name of the query method.
+     * @param query  The query, which fetches the result with the DSL context of the connection.
+     * @return The result.
+     * @throws SQLException If the connection could not be obtained.
+     */
+    private <T> T query(String method, Function<DSLContext, T> query) throws SQLException {
+        long start = System.nanoTime();
+        AtomicInteger queries = new AtomicInteger();
+        try (Connection connection = getConnection()) {
+            return query.apply(using(connection, queries));
+        } finally {
+            // Failed queries are reported as well, so that their latency is not lost.
+            instrumentation.queryExecuted(method, queries.get(), System.nanoTime() - start);
+        }
+    }
 
-                for (ForeignData foreignData : card.getForeignData()) {
-                    ForeignDataRecord foreignDataRecord =
-                            new ForeignDataRecord(null, cardRecord.getId(), foreignData.getFaceName(),
-                                    foreignData.getFlavorText(), foreignData.getLanguage(),
-                                    foreignData.getMultiverseId(), foreignData.getName(), foreignData.getText(),
-                                    foreignData.getType());
-                    foreignDataRecord.attach(context.configuration());
-                    foreignDataRecord.store();
-                }
+    /**
+     * Inserts a set with all its cards and tokens in a single transaction. If the insert fails, nothing is written.
+     *
+     * @param set The set.
+     * @throws SQLException If the set could not be inserted.
+     * @see #insert(Stream, CommitInterval)
+     */
+    public void insert(Set set) throws SQLException {
+        insert(Stream.of(set), CommitInterval.perSet());
+    }
 
-                insertCard(card, context, cardRecord.getId());
+    /**
+     * Inserts sets with all their cards and tokens. The sets are written in transactions, which are committed at the
+     * given interval, but always between two sets. A set is therefore either inserted completely or not at all.
+     *
+     * <p>If the insert fails, the sets since the last commit are rolled back. Fewer commits save log flushes, e.g.
+     * with a file-based H2 database, but hold more uncommitted rows.</p>
+     *
+     * @param sets           The sets.
+     * @param commitInterval The interval, at which the transaction is committed.
+     * @return The number of inserted sets.
+     * @throws SQLException If the sets could not be inserted.
+     */
+    public int insert(Stream<Set> sets, CommitInterval commitInterval) throws SQLException {
+        try (SetWriter writer = openWriter(commitInterval)) {
+            Iterator<Set> iterator = sets.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
             }
+            writer.commit();
+            return writer.getCommittedSets();
+        }
+    }
 
-            for (TokenCard card : set.getTokens()) {
-
-                CardRecord cardRecord = context.newRecord(CARD, card);
-                cardRecord.store();
-
-                TokenCardRecord tokenCardRecord = context.newRecord(TOKEN_CARD, card);
-                tokenCardRecord.setCardId(cardRecord.getId());
-                tokenCardRecord.store();
+    /**
+     * Opens a writer, which holds a connection of its own until it is closed.
+     *
+     * @param commitInterval The interval, at which the writer commits its transaction.
+     * @return The writer.
+     * @throws SQLException If the connection could not be obtained.
+     */
+    SetWriter openWriter(CommitInterval commitInterval) throws SQLException {
+        Connection connection = getConnection();
+        try {
+            return new SetWriter(connection, commitInterval);
+        } catch (SQLException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+    }
 
-                insertCard(card, context, cardRecord.getId());
+    /**
+     * Synchronizes the database with a release of MTGJSON, e.g. a new AllPrintings file, by writing only what has
+     * changed since the previous release.
+     *
+     * <p>Sets are identified by their code, cards and tokens by their uuid. A content hash of each set and each card
+     * is stored with its row, so a set, whose hash has not changed, is skipped after a single query. Of the other
+     * sets, only the changed cards are rewritten (i.e. deleted and inserted again with a new id), new cards are
+     * inserted and cards, which are no longer part of the set, are deleted. Sets, which are no longer part of the
+     * release, are deleted as well.</p>
+     *
+     * <p>Each set is synchronized in a transaction of its own. If the sync fails, the sets, which have been
+     * synchronized until then, remain and the next sync continues with the rest.</p>
+     *
+     * @param sets All sets of the release.
+     * @return The numbers of inserted, updated, deleted and unchanged sets and cards.
+     * @throws SQLException If the database could not be synchronized.
+     * @see #sync(Set)
+     */
+    public SyncResult sync(Stream<Set> sets) throws SQLException {
+        try (Connection connection = getConnection()) {
+            DSLContext context = DSL.using(connection, SQLDialect.DEFAULT);
 
-                for (String reverseRelated : card.getReverseRelated()) {
-                    TokenCardReverseRelatedRecord tokenCardReverseRelatedRecord = new TokenCardReverseRelatedRecord(
-                            null, cardRecord.getId(), reverseRelated);
-                    tokenCardReverseRelatedRecord.attach(context.configuration());
-                    tokenCardReverseRelatedRecord.store();
+            SyncResult result = SyncResult.EMPTY;
+            java.util.Set<String> codes = new HashSet<>();
+            Iterator<Set> iterator = sets.iterator();
+            while (iterator.hasNext()) {
+                Set set = iterator.next();
+                codes.add(set.getCode());
+                result = result.plus(transaction(context, dslContext -> syncSet(dslContext, set)));
+            }
+            for (Record2<Integer, String> storedSet : context.select(SET.ID, SET.CODE).from(SET).fetch()) {
+                if (!codes.contains(storedSet.value2())) {
+                    result = result.plus(transaction(context,
+                            dslContext -> deleteSet(dslContext, storedSet.value1())));
                 }
             }
+            return result;
+        }
+    }
+
+    /**
+     * Synchronizes a single set with the database. Other sets are not affected.
+     *
+     * @param set The set.
+     * @return The numbers of inserted, updated and unchanged cards.
+     * @throws SQLException If the set could not be synchronized.
+     * @see #sync(Stream)
+     */
+    public SyncResult sync(Set set) throws SQLException {
+        try (Connection connection = getConnection()) {
+            DSLContext context = DSL.using(connection, SQLDialect.DEFAULT);
+            return transaction(context, dslContext -> syncSet(dslContext, set));
         }
     }
 
-    private void insertCard(AbstractCard card, DSLContext context, Integer cardId) {
-        for (Availability availability : card.getAvailabilities()) {
-            CardAvailabilityRecord cardAvailabilityRecord = new CardAvailabilityRecord(null, cardId, availability);
-            cardAvailabilityRecord.attach(context.configuration());
-            cardAvailabilityRecord.store();
+    /**
+     * Runs a part of a sync in a transaction of its own and invalidates the cache, if it has changed anything.
+     */
+    private SyncResult transaction(DSLContext context, Function<DSLContext, SyncResult> work) {
+        SyncResult result = context.transactionResult(configuration -> work.apply(DSL.using(configuration)));
+        if (result.isModified()) {
+            invalidateCache();
         }
+        return result;
+    }
+
+    private void invalidateCache() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
 
-        if (card.getFrameEffects() != null) {
-            for (FrameEffect frameEffect : card.getFrameEffects()) {
-                CardFrameEffectRecord cardFrameeffectRecord = new CardFrameEffectRecord(null, cardId, frameEffect);
-                cardFrameeffectRecord.attach(context.configuration());
-                cardFrameeffectRecord.store();
+    private SyncResult syncSet(DSLContext context, Set set) {
+        List<CardRows> cards = toCardRows(context, set);
+        SetRecord setRecord = toSetRecord(context, set, cards);
+
+        Record2<Integer, Long> storedSet = context.select(SET.ID, SET.CONTENT_HASH)
+                .from(SET)
+                .where(SET.CODE.eq(set.getCode()))
+                .fetchOne();
+        if (storedSet == null) {
+            insertCards(context, insertSet(context, setRecord), cards);
+            return new SyncResult(1, 0, 0, 0, cards.size(), 0, 0, 0);
+        }
+        Integer setId = storedSet.value1();
+        if (setRecord.getContentHash().equals(storedSet.value2())) {
+            return new SyncResult(0, 0, 0, 1, 0, 0, 0, cards.size());
+        }
+
+        // Cards, which have been imported with another set, are moved to this one.
+        List<String> uuids = cards.stream().map(card -> card.card.getUuid()).collect(Collectors.toList());
+        Map<String, Record4<String, Integer, Integer, Long>> storedCards = new HashMap<>(
+                context.select(CARD.UUID, CARD.ID, CARD.SET_ID, CARD.CONTENT_HASH)
+                        .from(CARD)
+                        .where(CARD.SET_ID.eq(setId).or(CARD.UUID.in(uuids)))
+                        .fetchMap(CARD.UUID));
+
+        List<Integer> deletedCardIds = new ArrayList<>();
+        List<CardRows> insertedCards = new ArrayList<>();
+        int updatedCards = 0;
+        for (CardRows card : cards) {
+            Record4<String, Integer, Integer, Long> storedCard = storedCards.remove(card.card.getUuid());
+            if (storedCard == null) {
+                insertedCards.add(card);
+            } else if (!card.card.getContentHash().equals(storedCard.value4()) || !setId.equals(storedCard.value3())) {
+                deletedCardIds.add(storedCard.value2());
+                insertedCards.add(card);
+                updatedCards++;
             }
         }
+        for (Record4<String, Integer, Integer, Long> storedCard : storedCards.values()) {
+            deletedCardIds.add(storedCard.value2());
+        }
+        deleteCards(context, deletedCardIds);
+        insertCards(context, setId, insertedCards);
 
-        for (Color color : card.getColors()) {
-            CardColorRecord cardColorRecord = new CardColorRecord(null, cardId, color);
-            cardColorRecord.attach(context.configuration());
-            cardColorRecord.store();
+        setRecord.setId(setId);
+        context.executeUpdate(setRecord);
+        return new SyncResult(0, 1, 0, 0, insertedCards.size() - updatedCards, updatedCards, storedCards.size(),
+                cards.size() - insertedCards.size());
+    }
+
+    private SyncResult deleteSet(DSLContext context, Integer setId) {
+        List<Integer> cardIds = context.select(CARD.ID).from(CARD).where(CARD.SET_ID.eq(setId)).fetch(CARD.ID);
+        deleteCards(context, cardIds);
+        context.deleteFrom(SET).where(SET.ID.eq(setId)).execute();
+        return new SyncResult(0, 0, 1, 0, 0, 0, cardIds.size(), 0);
+    }
+
+    /**
+     * Deletes cards with all their child rows, in chunks of at most {@link #batchSize} cards. Oracle cards, which are
+     * no longer used by any card, are deleted as well.
+     */
+    private void deleteCards(DSLContext context, List<Integer> cardIds) {
+        for (int i = 0; i < cardIds.size(); i += batchSize) {
+            List<Integer> chunk = cardIds.subList(i, Math.min(i + batchSize, cardIds.size()));
+            List<Integer> oracleCardIds = context.selectDistinct(CARD.ORACLE_CARD_ID)
+                    .from(CARD)
+                    .where(CARD.ID.in(chunk).and(CARD.ORACLE_CARD_ID.isNotNull()))
+                    .fetch(CARD.ORACLE_CARD_ID);
+            context.deleteFrom(FOREIGN_DATA).where(FOREIGN_DATA.CARD_ID.in(chunk)).execute();
+            context.deleteFrom(TOKEN_CARD_REVERSE_RELATED).where(TOKEN_CARD_REVERSE_RELATED.CARD_ID.in(chunk))
+                    .execute();
+            context.deleteFrom(IDENTIFIERS).where(IDENTIFIERS.CARD_ID.in(chunk)).execute();
+            context.deleteFrom(SET_CARD).where(SET_CARD.CARD_ID.in(chunk)).execute();
+            context.deleteFrom(TOKEN_CARD).where(TOKEN_CARD.CARD_ID.in(chunk)).execute();
+            context.deleteFrom(CARD).where(CARD.ID.in(chunk)).execute();
+
+            List<Integer> unusedOracleCardIds = context.select(ORACLE_CARD.ID)
+                    .from(ORACLE_CARD)
+                    .where(ORACLE_CARD.ID.in(oracleCardIds))
+                    .andNotExists(DSL.selectOne().from(CARD).where(CARD.ORACLE_CARD_ID.eq(ORACLE_CARD.ID)))
+                    .fetch(ORACLE_CARD.ID);
+            context.deleteFrom(ORACLE_CARD_KEYWORD).where(ORACLE_CARD_KEYWORD.ORACLE_CARD_ID.in(unusedOracleCardIds))
+                    .execute();
+            context.deleteFrom(ORACLE_CARD_RULING).where(ORACLE_CARD_RULING.ORACLE_CARD_ID.in(unusedOracleCardIds))
+                    .execute();
+            context.deleteFrom(ORACLE_CARD).where(ORACLE_CARD.ID.in(unusedOracleCardIds)).execute();
         }
+    }
 
-        for (Color color : card.getColorIdentity()) {
-            CardColorIdentityRecord cardColorIdentityRecord = new CardColorIdentityRecord(null, cardId, color);
-            cardColorIdentityRecord.attach(context.configuration());
-            cardColorIdentityRecord.store();
+    private Integer insertSet(DSLContext context, SetRecord setRecord) {
+        long start = System.nanoTime();
+        Integer setId = context.insertInto(SET).set(setRecord).returningResult(SET.ID).fetchOne(SET.ID);
+        rowsInserted(SET, 1, start);
+        return setId;
+    }
+
+    private void rowsInserted(Table<?> table, int rows, long start) {
+        instrumentation.rowsInserted(table.getName(), rows, System.nanoTime() - start);
+    }
+
+    /**
+     * Creates the {@code Set} row of a set, including the content hash of the set, which covers the hashes of its
+     * cards.
+     */
+    private static SetRecord toSetRecord(DSLContext context, Set set, List<CardRows> cards) {
+        SetRecord setRecord = context.newRecord(SET, set);
+        ContentHash hash = new ContentHash().add(setRecord).add(cards.size());
+        // The order of the cards is not stored, so it does not change the hash.
+        cards.stream().mapToLong(card -> card.card.getContentHash()).sorted().forEach(hash::add);
+        setRecord.setContentHash(hash.get());
+        return setRecord;
+    }
+
+    private static List<CardRows> toCardRows(DSLContext context, Set set) {
+        List<CardRows> cards = new ArrayList<>(set.getCards().size() + set.getTokens().size());
+        // The printings of a card share their oracle card, whose rows are therefore created only once.
+        IdentityHashMap<OracleCard, OracleRows> oracleCards = new IdentityHashMap<>();
+        for (SetCard card : set.getCards()) {
+            List<ForeignDataRecord> foreignData = card.getForeignData().stream()
+                    .map(data -> new ForeignDataRecord(null, null, data.getFaceName(), data.getFlavorText(),
+                            data.getLanguage(), data.getMultiverseId(), data.getName(), data.getText(),
+                            data.getType()))
+                    .collect(Collectors.toList());
+            cards.add(new CardRows(context.newRecord(CARD, card), context.newRecord(SET_CARD, card), null,
+                    toIdentifiersRecord(card.getIdentifiers()), foreignData, List.of(),
+                    oracleCards.computeIfAbsent(card.getOracleCard(), o -> toOracleRows(context, o, false))));
+        }
+        for (TokenCard card : set.getTokens()) {
+            List<TokenCardReverseRelatedRecord> reverseRelated = card.getReverseRelated().stream()
+                    .map(name -> new TokenCardReverseRelatedRecord(null, null, name))
+                    .collect(Collectors.toList());
+            cards.add(new CardRows(context.newRecord(CARD, card), null, context.newRecord(TOKEN_CARD, card),
+                    toIdentifiersRecord(card.getIdentifiers()), List.of(), reverseRelated,
+                    oracleCards.computeIfAbsent(card.getOracleCard(), o -> toOracleRows(context, o, true))));
         }
+        return cards;
+    }
 
-        for (Finish finish : card.getFinishes()) {
-            CardFinishRecord cardFinishRecord = new CardFinishRecord(null, cardId, finish);
-            cardFinishRecord.attach(context.configuration());
-            cardFinishRecord.store();
+    private static OracleRows toOracleRows(DSLContext context, OracleCard oracleCard, boolean token) {
+        OracleCardRecord oracleCardRecord = context.newRecord(ORACLE_CARD, oracleCard);
+        // The face name is null for cards without faces, but the key of the oracle card must not be null.
+        oracleCardRecord.setFaceKey(oracleCard.getFaceName() != null ? oracleCard.getFaceName() : "");
+        // Tokens do not share the oracle cards of set cards, which have the same oracle id (see OracleCardPool).
+        oracleCardRecord.setToken(token);
+        Legalities legalities = oracleCard.getLegalities();
+        if (legalities != null) {
+            oracleCardRecord.setBrawl(legalities.getBrawl());
+            oracleCardRecord.setCommander(legalities.getCommander());
+            oracleCardRecord.setDuel(legalities.getDuel());
+            oracleCardRecord.setFuture(legalities.getFuture());
+            oracleCardRecord.setFrontier(legalities.getFrontier());
+            oracleCardRecord.setHistoric(legalities.getHistoric());
+            oracleCardRecord.setLegacy(legalities.getLegacy());
+            oracleCardRecord.setModern(legalities.getModern());
+            oracleCardRecord.setPauper(legalities.getPauper());
+            oracleCardRecord.setPenny(legalities.getPenny());
+            oracleCardRecord.setPioneer(legalities.getPioneer());
+            oracleCardRecord.setStandard(legalities.getStandard());
+            oracleCardRecord.setVintage(legalities.getVintage());
         }
+        List<OracleCardKeywordRecord> keywords = oracleCard.getKeywords() == null ? List.of()
+                : oracleCard.getKeywords().stream()
+                .map(keyword -> new OracleCardKeywordRecord(null, null, keyword))
+                .collect(Collectors.toList());
+        List<OracleCardRulingRecord> rulings = oracleCard.getRulings() == null ? List.of()
+                : oracleCard.getRulings().stream()
+                .map(ruling -> new OracleCardRulingRecord(null, null, ruling.getDate(), ruling.getText()))
+                .collect(Collectors.toList());
+        return new OracleRows(oracleCardRecord, keywords, rulings);
+    }
 
-        Identifiers identifiers = card.getIdentifiers();
-        IdentifiersRecord identifiersRecord = new IdentifiersRecord(cardId, identifiers.getCardKingdomFoilId(),
+    private static IdentifiersRecord toIdentifiersRecord(Identifiers identifiers) {
+        return new IdentifiersRecord(null, identifiers.getCardKingdomFoilId(),
                 identifiers.getCardKingdomId(), identifiers.getMcmId(), identifiers.getMcmMetaId(),
                 identifiers.getMtgArenaId(), identifiers.getMtgoFoilId(), identifiers.getMtgoId(),
                 identifiers.getMtgjsonV4Id(), identifiers.getMultiverseId(), identifiers.getScryfallId(),
                 identifiers.getScryfallOracleId(), identifiers.getScryfallIllustrationId(),
                 identifiers.getTcgplayerProductId());
-        identifiersRecord.attach(context.configuration());
-        identifiersRecord.store();
-    }
-
-    private static List<SetCard> recordsToSetCards(DSLContext dslContext, Stream<Record> records) {
-        return records.map(r -> {
-            java.util.Set<Availability> availabilities =
-                    dslContext.selectDistinct(CARD_AVAILABILITY.AVAILABILITY)
-                            .from(CARD_AVAILABILITY)
-                            .where(CARD_AVAILABILITY.CARD_ID.eq(r.get(CARD.ID)))
-                            .fetchSet(CARD_AVAILABILITY.AVAILABILITY);
-            java.util.Set<Color> colorIdentities =
-                    dslContext.selectDistinct(CARD_COLOR_IDENTITY.COLOR)
-                            .from(CARD_COLOR_IDENTITY)
-                            .where(CARD_COLOR_IDENTITY.CARD_ID.eq(r.get(CARD.ID)))
-                            .fetchSet(CARD_COLOR_IDENTITY.COLOR);
-            java.util.Set<Color> colorIndicators =
-                    dslContext.selectDistinct(CARD_COLOR_INDICATOR.COLOR)
-                            .from(CARD_COLOR_INDICATOR)
-                            .where(CARD_COLOR_INDICATOR.CARD_ID.eq(r.get(CARD.ID)))
-                            .fetchSet(CARD_COLOR_INDICATOR.COLOR);
-            java.util.Set<Color> colors =
-                    dslContext.selectDistinct(CARD_COLOR.COLOR)
-                            .from(CARD_COLOR)
-                            .where(CARD_COLOR.CARD_ID.eq(r.get(CARD.ID)))
-                            .fetchSet(CARD_COLOR.COLOR);
-            java.util.Set<FrameEffect> frameEffects =
-                    dslContext.selectDistinct(CARD_FRAME_EFFECT.FRAME_EFFECT)
-                            .from(CARD_FRAME_EFFECT)
-                            .where(CARD_FRAME_EFFECT.CARD_ID.eq(r.get(CARD.ID)))
-                            .fetchSet(CARD_FRAME_EFFECT.FRAME_EFFECT);
-            java.util.Set<Finish> finishes =
-                    dslContext.selectDistinct(CARD_FINISH.FINISH)
-                            .from(CARD_FINISH)
-                            .where(CARD_FINISH.CARD_ID.eq(r.get(CARD.ID)))
-                            .fetchSet(CARD_FINISH.FINISH);
-            java.util.Set<ForeignData> foreignData =
-                    new HashSet<>(dslContext.selectFrom(FOREIGN_DATA)
-                            .where(FOREIGN_DATA.CARD_ID.eq(r.get(CARD.ID)))
-                            .fetchInto(ForeignData.class));
-            Identifiers identifiers = dslContext.selectFrom(IDENTIFIERS)
-                    .where(IDENTIFIERS.CARD_ID.eq(r.get(CARD.ID)))
-                    .fetchSingleInto(Identifiers.class);
-            return new SetCard(r.get(CARD.ARTIST), r.get(CARD.ASCII_NAME), availabilities,
-                    r.get(CARD.BORDER_COLOR), colorIdentities, colorIndicators, colors,
+    }
+
+    /**
+     * Inserts the rows of the given cards. The {@code Card} rows are inserted first with multi-row inserts of at most
+     * {@link #batchSize} rows each, in order to get their generated ids, and then the child rows of all cards. Their
+     * oracle cards are inserted before, unless they are already stored.
+     *
+     * @return The number of inserted rows.
+     */
+    private int insertCards(DSLContext context, Integer setId, List<CardRows> cards) {
+        int rowCount = insertOracleCards(context, cards);
+
+        // The colors, finishes, availabilities and frame effects are stored as bitmasks in the Card row itself.
+        List<Integer> cardIds = new ArrayList<>(cards.size());
+        for (int i = 0; i < cards.size(); i += batchSize) {
+            List<CardRecord> cardRecords = new ArrayList<>();
+            for (CardRows card : cards.subList(i, Math.min(i + batchSize, cards.size()))) {
+                card.card.setSetId(setId);
+                cardRecords.add(card.card);
+            }
+            long start = System.nanoTime();
+            cardIds.addAll(context.insertInto(CARD)
+                    .columns(CARD.fields())
+                    .valuesOfRecords(cardRecords)
+                    .returningResult(CARD.ID)
+                    .fetch(CARD.ID));
+            rowsInserted(CARD, cardRecords.size(), start);
+        }
+
+        // Rows are collected per table in the order of their first occurrence, which is also the order
+        // required by the foreign keys (e.g. Set_Card before Foreign_Data).
+        Map<Table<?>, List<TableRecord<?>>> rows = new LinkedHashMap<>();
+        for (int i = 0; i < cards.size(); i++) {
+            cards.get(i).addRows(rows, cardIds.get(i));
+        }
+        return rowCount + cards.size() + insertRows(context, rows);
+    }
+
+    /**
+     * Stores the oracle cards of the given cards and sets their ids in the {@code Card} rows. The oracle cards are
+     * looked up by their Scryfall oracle id, face name and kind (i.e. set card or token), so that the printings of all
+     * sets share one row. A stored oracle card, whose content hash has changed, is updated together with its keywords
+     * and rulings. Oracle cards without an oracle id are not shared.
+     *
+     * <p>Concurrent writers may insert the same oracle card at the same time. The unique index on its key rejects all
+     * but the first of them, so the others look it up again.</p>
+     *
+     * @return The number of inserted and updated rows.
+     */
+    private int insertOracleCards(DSLContext context, List<CardRows> cards) {
+        Map<List<String>, OracleRows> oracleCards = new LinkedHashMap<>();
+        // The cards may share the rows of an oracle card without key, which are inserted only once.
+        java.util.Set<OracleRows> unsharedOracleCards = new LinkedHashSet<>();
+        for (CardRows card : cards) {
+            List<String> key = card.oracleCard.getKey();
+            if (key != null) {
+                oracleCards.putIfAbsent(key, card.oracleCard);
+            } else {
+                unsharedOracleCards.add(card.oracleCard);
+            }
+        }
+        List<OracleRows> missingOracleCards = new ArrayList<>(unsharedOracleCards);
+        List<OracleRows> changedOracleCards = new ArrayList<>();
+        Map<List<String>, Record2<Integer, Long>> storedOracleCards = fetchOracleCardIds(context, oracleCards.keySet());
+        for (OracleRows oracleCard : oracleCards.values()) {
+            Record2<Integer, Long> stored = storedOracleCards.get(oracleCard.getKey());
+            if (stored == null) {
+                missingOracleCards.add(oracleCard);
+            } else {
+                oracleCard.oracleCard.setId(stored.value1());
+                if (!oracleCard.getContentHash().equals(stored.value2())) {
+                    changedOracleCards.add(oracleCard);
+                }
+            }
+        }
+
+        Map<Table<?>, List<TableRecord<?>>> rows = new LinkedHashMap<>();
+        int rowCount = updateOracleCards(context, changedOracleCards, rows);
+        int inserted = 0;
+        while (inserted < missingOracleCards.size()) {
+            List<OracleRows> chunk = missingOracleCards.subList(inserted, Math.min(inserted + batchSize,
+                    missingOracleCards.size()));
+            try {
+                insertOracleCardChunk(context, chunk);
+            } catch (DataAccessException e) {
+                if (e.sqlStateClass() != SQLStateClass.C23_INTEGRITY_CONSTRAINT_VIOLATION) {
+                    throw e;
+                }
+                // A concurrent writer has stored some of the oracle cards meanwhile, which are used instead.
+                Map<List<String>, Record2<Integer, Long>> concurrentlyStored = fetchOracleCardIds(context,
+                        chunk.stream().map(OracleRows::getKey).filter(Objects::nonNull).collect(Collectors.toList()));
+                for (OracleRows oracleCard : chunk) {
+                    Record2<Integer, Long> stored = concurrentlyStored.get(oracleCard.getKey());
+                    if (stored != null) {
+                        oracleCard.oracleCard.setId(stored.value1());
+                    }
+                }
+                if (!chunk.removeIf(oracleCard -> oracleCard.oracleCard.getId() != null)) {
+                    throw e;
+                }
+                continue;
+            }
+            for (OracleRows oracleCard : chunk) {
+                oracleCard.addRows(rows, oracleCard.oracleCard.getId());
+            }
+            rowCount += chunk.size();
+            inserted += chunk.size();
+        }
+
+        for (CardRows card : cards) {
+            OracleRows oracleCard = card.oracleCard.getKey() != null
+                    ? oracleCards.get(card.oracleCard.getKey())
+                    : card.oracleCard;
+            card.card.setOracleCardId(oracleCard.oracleCard.getId());
+        }
+        return rowCount + insertRows(context, rows);
+    }
+
+    /**
+     * Looks up the ids and content hashes of the stored oracle cards by their keys.
+     */
+    private Map<List<String>, Record2<Integer, Long>> fetchOracleCardIds(DSLContext context,
+                                                                        Collection<List<String>> keys) {
+        List<String> oracleIds = keys.stream().map(key -> key.get(0)).distinct().collect(Collectors.toList());
+        Map<List<String>, Record2<Integer, Long>> oracleCardIds = new HashMap<>();
+        for (int i = 0; i < oracleIds.size(); i += batchSize) {
+            context.select(ORACLE_CARD.ID, ORACLE_CARD.CONTENT_HASH, ORACLE_CARD.SCRYFALL_ORACLE_ID,
+                            ORACLE_CARD.FACE_KEY, ORACLE_CARD.TOKEN)
+                    .from(ORACLE_CARD)
+                    .where(ORACLE_CARD.SCRYFALL_ORACLE_ID.in(oracleIds.subList(i, Math.min(i + batchSize,
+                            oracleIds.size()))))
+                    .forEach(r -> oracleCardIds.put(Arrays.asList(r.value3(), r.value4(), r.value5().toString()),
+                            r.into(ORACLE_CARD.ID, ORACLE_CARD.CONTENT_HASH)));
+        }
+        return oracleCardIds;
+    }
+
+    /**
+     * Updates the changed oracle cards, whose ids are known, and replaces their keywords and rulings.
+     *
+     * @return The number of updated rows.
+     */
+    private int updateOracleCards(DSLContext context, List<OracleRows> oracleCards,
+                                  Map<Table<?>, List<TableRecord<?>>> rows) {
+        List<Integer> ids = oracleCards.stream().map(oracleCard -> oracleCard.oracleCard.getId())
+                .collect(Collectors.toList());
+        for (int i = 0; i < ids.size(); i += batchSize) {
+            List<Integer> chunk = ids.subList(i, Math.min(i + batchSize, ids.size()));
+            context.deleteFrom(ORACLE_CARD_KEYWORD).where(ORACLE_CARD_KEYWORD.ORACLE_CARD_ID.in(chunk)).execute();
+            context.deleteFrom(ORACLE_CARD_RULING).where(ORACLE_CARD_RULING.ORACLE_CARD_ID.in(chunk)).execute();
+        }
+        for (OracleRows oracleCard : oracleCards) {
+            context.update(ORACLE_CARD)
+                    .set(oracleCard.oracleCard)
+                    .where(ORACLE_CARD.ID.eq(oracleCard.oracleCard.getId()))
+                    .execute();
+            oracleCard.addRows(rows, oracleCard.oracleCard.getId());
+        }
+        return oracleCards.size();
+    }
+
+    /**
+     * Inserts oracle cards with a single multi-row insert and sets their ids. If the insert fails, it is rolled back
+     * to a savepoint, so that the transaction can continue.
+     */
+    private void insertOracleCardChunk(DSLContext context, List<OracleRows> oracleCards) {
+        context.connection(connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            List<Integer> ids;
+            try {
+                long start = System.nanoTime();
+                ids = context.insertInto(ORACLE_CARD)
+                        .columns(ORACLE_CARD.fields())
+                        .valuesOfRecords(oracleCards.stream().map(oracleCard -> oracleCard.oracleCard)
+                                .collect(Collectors.toList()))
+                        .returningResult(ORACLE_CARD.ID)
+                        .fetch(ORACLE_CARD.ID);
+                rowsInserted(ORACLE_CARD, oracleCards.size(), start);
+            } catch (DataAccessException e) {
+                connection.rollback(savepoint);
+                throw e;
+            }
+            connection.releaseSavepoint(savepoint);
+            for (int i = 0; i < oracleCards.size(); i++) {
+                oracleCards.get(i).oracleCard.setId(ids.get(i));
+            }
+        });
+    }
+
+    /**
+     * Inserts the child rows, which have been collected per table.
+     *
+     * @return The number of inserted rows.
+     */
+    private int insertRows(DSLContext context, Map<Table<?>, List<TableRecord<?>>> rows) {
+        int rowCount = 0;
+        for (Map.Entry<Table<?>, List<TableRecord<?>>> tableRows : rows.entrySet()) {
+            insertRows(context, tableRows.getKey(), tableRows.getValue());
+            rowCount += tableRows.getValue().size();
+        }
+        return rowCount;
+    }
+
+    /**
+     * Inserts rows into a table with multi-row inserts of at most {@link #batchSize} rows each.
+     *
+     * <p>A single multi-row insert is used instead of a JDBC batch, because e.g. H2 executes and commits each
+     * statement of a batch separately.</p>
+     */
+    private void insertRows(DSLContext context, Table<?> table, List<TableRecord<?>> records) {
+        for (int i = 0; i < records.size(); i += batchSize) {
+            long start = System.nanoTime();
+            int rows = context.insertInto(table)
+                    .columns(table.fields())
+                    .valuesOfRecords(records.subList(i, Math.min(i + batchSize, records.size())))
+                    .execute();
+            rowsInserted(table, rows, start);
+        }
+    }
+
+    private static void addRow(Map<Table<?>, List<TableRecord<?>>> rows, TableRecord<?> record) {
+        rows.computeIfAbsent(record.getTable(), table -> new ArrayList<>()).add(record);
+    }
+
+    /**
+     * Fetches the set cards, which match the given condition on the joined {@code Set_Card} and {@code Card} tables.
+     *
+     * <p>Each child table is queried only once for all matching cards (with a sub-select of their ids), instead of
+     * once per card, so the number of queries does not depend on the number of cards.</p>
+     *
+     * @param dslContext The DSL context.
+     * @param condition  The condition on the joined {@code Set_Card} and {@code Card} tables.
+     * @return The set cards.
+     */
+    private static List<SetCard> fetchSetCards(DSLContext dslContext, Condition condition) {
+        Result<Record> records = selectSetCards(dslContext, condition).fetch();
+        if (records.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Select<Record1<Integer>> cardIds = DSL.select(SET_CARD.CARD_ID)
+                .from(SET_CARD)
+                .join(CARD)
+                .on(SET_CARD.CARD_ID.eq(CARD.ID))
+                .where(condition);
+        return toSetCards(dslContext, records, cardId -> cardId.in(cardIds));
+    }
+
+    private static SelectConditionStep<Record> selectSetCards(DSLContext dslContext, Condition condition) {
+        return dslContext.select()
+                .from(SET_CARD)
+                .join(CARD)
+                .on(SET_CARD.CARD_ID.eq(CARD.ID))
+                .where(condition);
+    }
+
+    /**
+     * Converts the rows of the joined {@code Set_Card} and {@code Card} tables to set cards.
+     *
+     * @param dslContext The DSL context.
+     * @param records    The rows.
+     * @param byCardId   The condition on the card id column of a child table, which selects the rows of the cards.
+     * @return The set cards.
+     */
+    private static List<SetCard> toSetCards(DSLContext dslContext, Result<Record> records,
+                                            Function<Field<Integer>, Condition> byCardId) {
+        Map<Integer, List<ForeignData>> foreignData = dslContext.selectFrom(FOREIGN_DATA)
+                .where(byCardId.apply(FOREIGN_DATA.CARD_ID))
+                .fetchGroups(FOREIGN_DATA.CARD_ID, ForeignData.class);
+        Map<Integer, Identifiers> identifiers = dslContext.selectFrom(IDENTIFIERS)
+                .where(byCardId.apply(IDENTIFIERS.CARD_ID))
+                .fetchMap(IDENTIFIERS.CARD_ID, Identifiers.class);
+        Map<Integer, OracleCard> oracleCards = fetchOracleCards(dslContext, ORACLE_CARD.ID.in(
+                DSL.select(CARD.ORACLE_CARD_ID).from(CARD).where(byCardId.apply(CARD.ID))));
+
+        List<SetCard> setCards = new ArrayList<>(records.size());
+        for (Record r : records) {
+            Integer cardId = r.get(CARD.ID);
+            // Cards, which have been imported before there were oracle cards, have their gameplay data themselves.
+            OracleCard oracleCard = r.get(CARD.ORACLE_CARD_ID) != null
+                    ? oracleCards.get(r.get(CARD.ORACLE_CARD_ID))
+                    : new OracleCard(r.get(CARD.FACE_NAME), null, null, r.get(SET_CARD.MANA_COST), r.get(CARD.NAME),
+                    r.get(CARD.POWER), null, null, r.get(CARD.TEXT), r.get(CARD.TOUGHNESS), r.get(CARD.TYPE));
+            SetCard setCard = new SetCard(r.get(CARD.ARTIST), r.get(CARD.ASCII_NAME),
+                    EnumBitSet.fromMask(Availability.class, r.get(CARD.AVAILABILITY_MASK)),
+                    r.get(CARD.BORDER_COLOR),
+                    EnumBitSet.fromMask(Color.class, r.get(CARD.COLOR_IDENTITY_MASK)),
+                    EnumBitSet.fromMask(Color.class, r.get(CARD.COLOR_INDICATOR_MASK)),
+                    EnumBitSet.fromMask(Color.class, r.get(CARD.COLORS_MASK)),
                     r.get(CARD.EDHREC_RANK),
-                    r.get(CARD.FACE_NAME), r.get(SET_CARD.FACE_MANA_VALUE), finishes,
-                    r.get(SET_CARD.FLAVOR_NAME), r.get(CARD.FLAVOR_TEXT), foreignData, frameEffects,
+                    r.get(CARD.FACE_NAME), r.get(SET_CARD.FACE_MANA_VALUE),
+                    EnumBitSet.fromMask(Finish.class, r.get(CARD.FINISHES_MASK)),
+                    r.get(SET_CARD.FLAVOR_NAME), r.get(CARD.FLAVOR_TEXT),
+                    new HashSet<>(foreignData.getOrDefault(cardId, List.of())),
+                    EnumBitSet.fromMask(FrameEffect.class, r.get(CARD.FRAME_EFFECTS_MASK)),
                     r.get(CARD.FRAME_VERSION), r.get(SET_CARD.HAND), r.get(SET_CARD.HAS_CONTENT_WARNING),
                     r.get(SET_CARD.HAS_ALTERNATIVE_DECK_LIMIT),
-                    identifiers, r.get(SET_CARD.IS_ALTERNATIVE), r.get(CARD.IS_FULL_ART),
+                    identifiers.get(cardId), r.get(SET_CARD.IS_ALTERNATIVE), r.get(CARD.IS_FULL_ART),
                     r.get(CARD.IS_ONLINE_ONLY), r.get(SET_CARD.IS_OVERSIZED), r.get(CARD.IS_PROMO),
                     r.get(CARD.IS_REPRINT), r.get(SET_CARD.IS_RESERVED), r.get(SET_CARD.IS_STARTER),
                     r.get(SET_CARD.IS_STORY_SPOTLIGHT), r.get(SET_CARD.IS_TEXTLESS),
-                    r.get(SET_CARD.IS_TIMESHIFTED), null, r.get(CARD.LAYOUT), null, r.get(SET_CARD.LIFE),
-                    r.get(CARD.LOYALTY), r.get(SET_CARD.MANA_COST), r.get(SET_CARD.MANA_VALUE),
-                    r.get(CARD.NAME), r.get(CARD.NUMBER), null, r.get(SET_CARD.ORIGINAL_TEXT),
-                    r.get(SET_CARD.ORIGINAL_TYPE), null, r.get(CARD.POWER), null, null,
-                    r.get(SET_CARD.RARITY), null, r.get(CARD.SET_CODE), r.get(CARD.SIDE), null, null, null,
-                    r.get(CARD.TOUGHNESS), r.get(CARD.TYPE), null, null, null, r.get(CARD.WATERMARK)
+                    r.get(SET_CARD.IS_TIMESHIFTED), oracleCard.getKeywords(), r.get(CARD.LAYOUT),
+                    oracleCard.getLegalities(), r.get(SET_CARD.LIFE), r.get(CARD.LOYALTY), oracleCard.getManaCost(),
+                    r.get(SET_CARD.MANA_VALUE), r.get(CARD.NAME), r.get(CARD.NUMBER), null,
+                    r.get(SET_CARD.ORIGINAL_TEXT), r.get(SET_CARD.ORIGINAL_TYPE), null, oracleCard.getPower(), null,
+                    null, r.get(SET_CARD.RARITY), oracleCard.getRulings(), r.get(CARD.SET_CODE), r.get(CARD.SIDE),
+                    null, null, oracleCard.getText(), oracleCard.getToughness(), oracleCard.getType(), null, null,
+                    null, r.get(CARD.WATERMARK)
             );
-        }).collect(Collectors.toList());
+            setCard.setOracleCard(oracleCard);
+            setCards.add(setCard);
+        }
+        return setCards;
     }
 
-    public List<SetCard> findCardsByName(String name) throws SQLException {
-        try (Connection connection = dataSource.getConnection()) {
+    /**
+     * Fetches the oracle cards, which match the given condition, with their keywords and rulings.
+     *
+     * @param dslContext The DSL context.
+     * @param condition  The condition on the {@code Oracle_Card} table.
+     * @return The oracle cards by their id, in the order of their ids.
+     */
+    private static Map<Integer, OracleCard> fetchOracleCards(DSLContext dslContext, Condition condition) {
+        Select<Record1<Integer>> oracleCardIds = DSL.select(ORACLE_CARD.ID).from(ORACLE_CARD).where(condition);
+        Map<Integer, List<String>> keywords = dslContext.selectFrom(ORACLE_CARD_KEYWORD)
+                .where(ORACLE_CARD_KEYWORD.ORACLE_CARD_ID.in(oracleCardIds))
+                .orderBy(ORACLE_CARD_KEYWORD.ID)
+                .fetchGroups(ORACLE_CARD_KEYWORD.ORACLE_CARD_ID, ORACLE_CARD_KEYWORD.KEYWORD);
+        Map<Integer, List<Ruling>> rulings = dslContext.selectFrom(ORACLE_CARD_RULING)
+                .where(ORACLE_CARD_RULING.ORACLE_CARD_ID.in(oracleCardIds))
+                .orderBy(ORACLE_CARD_RULING.ID)
+                .fetchGroups(ORACLE_CARD_RULING.ORACLE_CARD_ID, r -> new Ruling(r.getDate(), r.getText()));
 
-            DSLContext dslContext = DSL.using(connection, SQLDialect.DEFAULT);
-            return recordsToSetCards(dslContext, dslContext.select()
-                    .from(SET_CARD)
-                    .join(CARD)
-                    .on(SET_CARD.CARD_ID.eq(CARD.ID))
-                    .where(CARD.NAME.like(name))
-                    .fetch().stream());
+        Map<Integer, OracleCard> oracleCards = new LinkedHashMap<>();
+        for (OracleCardRecord r : dslContext.selectFrom(ORACLE_CARD).where(condition).orderBy(ORACLE_CARD.ID)) {
+            oracleCards.put(r.getId(), new OracleCard(r.getFaceName(), keywords.get(r.getId()),
+                    new Legalities(r.getBrawl(), r.getCommander(), r.getDuel(), r.getFuture(), r.getFrontier(),
+                            r.getHistoric(), r.getLegacy(), r.getModern(), r.getPauper(), r.getPenny(),
+                            r.getPioneer(), r.getStandard(), r.getVintage()),
+                    r.getManaCost(), r.getName(), r.getPower(), rulings.getOrDefault(r.getId(), List.of()),
+                    r.getScryfallOracleId(), r.getText(), r.getToughness(), r.getType()));
         }
+        return oracleCards;
     }
 
-    public List<Set> findSets() throws SQLException {
-        try (Connection connection = dataSource.getConnection()) {
+    /**
+     * Finds the cards with the given name.
+     *
+     * <p>If this utility has a {@link QueryCache}, the result is cached and unmodifiable.</p>
+     *
+     * @param name The name, which may contain the wildcards of SQL's {@code LIKE}.
+     * @return The cards with the name.
+     * @throws SQLException If the cards could not be fetched.
+     */
+    public List<SetCard> findCardsByName(String name) throws SQLException {
+        return cached(List.of("findCardsByName", name),
+                () -> query("findCardsByName", dslContext -> fetchSetCards(dslContext, CARD.NAME.like(name))));
+    }
+
+    /**
+     * Finds the oracle cards with the given name, i.e. the gameplay data of the card, e.g. its rules text, rulings and
+     * legalities, regardless of its printings.
+     *
+     * <p>If this utility has a {@link QueryCache}, the result is cached and unmodifiable.</p>
+     *
+     * @param name The name, which may contain the wildcards of SQL's {@code LIKE}.
+     * @return The oracle cards with the name, e.g. one per face of a split card.
+     * @throws SQLException If the oracle cards could not be fetched.
+     */
+    public List<OracleCard> findOracleCardsByName(String name) throws SQLException {
+        return cached(List.of("findOracleCardsByName", name), () -> query("findOracleCardsByName",
+                dslContext -> new ArrayList<>(fetchOracleCards(dslContext, ORACLE_CARD.NAME.like(name)).values())));
+    }
+
+    private <T> List<T> cached(Object key, QueryCache.Query<T> query) throws SQLException {
+        return cache != null ? cache.get(key, query) : query.fetch();
+    }
+
+    /**
+     * Streams the cards with the given name, without holding all of them in memory.
+     *
+     * <p>The cards are read with a cursor in chunks of {@value #FETCH_SIZE} rows, whose foreign data and identifiers
+     * are fetched with one query per chunk. Only one chunk is held in memory at a time.</p>
+     *
+     * <p>The stream holds a database connection until it is closed, so it must be closed, e.g. with a
+     * try-with-resources statement.</p>
+     *
+     * @param name The name, which may contain the wildcards of SQL's {@code LIKE}.
+     * @return The stream of cards, which must be closed.
+     * @throws SQLException If the connection could not be obtained.
+     * @see #findCardsByName(String)
+     */
+    public Stream<SetCard> streamCardsByName(String name) throws SQLException {
+        return stream("streamCardsByName", dslContext -> {
+            Cursor<Record> cursor = selectSetCards(dslContext, CARD.NAME.like(name))
+                    .fetchSize(FETCH_SIZE)
+                    .fetchLazy();
+            return StreamSupport.stream(new SetCardSpliterator(dslContext, cursor), false).onClose(cursor::close);
+        });
+    }
 
-            DSLContext dslContext = DSL.using(connection, SQLDialect.DEFAULT);
+    /**
+     * Finds the cards, whose color identity is within the given colors, e.g. the cards, which may be played in a
+     * Commander deck of these colors. Colorless cards are always found.
+     *
+     * <p>The color identity is stored as bitmask. Since there are only 32 combinations of colors, the subset test is
+     * expressed as the list of all submasks of the given colors, instead of a bitwise operation, which the default
+     * SQL dialect cannot render.</p>
+     *
+     * <p>If this utility has a {@link QueryCache}, the result is cached and unmodifiable.</p>
+     *
+     * @param colors The colors, e.g. white, blue and black.
+     * @return The cards, whose color identity is a subset of the colors.
+     * @throws SQLException If the cards could not be fetched.
+     */
+    public List<SetCard> findCardsWithinColorIdentity(java.util.Set<Color> colors) throws SQLException {
+        int allowed = EnumBitSet.mask(colors);
+        return cached(List.of("findCardsWithinColorIdentity", allowed), () -> {
+            List<Integer> masks = new ArrayList<>();
+            for (int mask = allowed; ; mask = (mask - 1) & allowed) {
+                masks.add(mask);
+                if (mask == 0) {
+                    break;
+                }
+            }
+            return query("findCardsWithinColorIdentity",
+                    dslContext -> fetchSetCards(dslContext, CARD.COLOR_IDENTITY_MASK.in(masks)));
+        });
+    }
+
+    public List<Set> findSets() throws SQLException {
+        return query("findSets", dslContext -> {
+            Map<String, List<SetCard>> cardsBySet = fetchSetCards(dslContext, DSL.noCondition()).stream()
+                    .collect(Collectors.groupingBy(SetCard::getSetCode));
             return dslContext.select()
                     .from(SET)
-                    .fetch(r -> {
-                        Stream<Record> records = dslContext.select()
-                                .from(SET_CARD)
-                                .join(CARD)
-                                .on(SET_CARD.CARD_ID.eq(CARD.ID))
-                                .where(CARD.SET_CODE.eq(r.get(SET.CODE)))
-                                .fetch().stream();
-
-                        java.util.List<SetCard> cards = recordsToSetCards(dslContext, records);
-                        return new Set(r.get(SET.BASE_SET_SIZE),
-                                r.get(SET.BLOCK),
-                                r.get(SET.CODE),
-                                r.get(SET.CODE_V3),
-                                cards,
-                                r.get(SET.IS_FOREIGN_ONLY),
-                                r.get(SET.IS_FOIL_ONLY),
-                                r.get(SET.IS_NON_FOIL_ONLY),
-                                r.get(SET.IS_ONLINE_ONLY),
-                                r.get(SET.IS_PAPER_ONLY),
-                                r.get(SET.IS_PARTIAL_PREVIEW),
-                                r.get(SET.KEYRUNE_CODE),
-                                r.get(SET.MCM_ID),
-                                r.get(SET.MCM_ID_EXTRAS),
-                                r.get(SET.MCM_NAME),
-                                r.get(SET.MTGO_CODE),
-                                r.get(SET.NAME),
-                                r.get(SET.RELEASE_DATE),
-                                r.get(SET.PARENT_CODE),
-                                r.get(SET.TCGPLAYER_GROUP_ID),
-                                null,
-                                r.get(SET.TOTAL_SET_SIZE),
-                                null,
-                                r.get(SET.TYPE)
-                        );
-                    });
+                    .fetch(r -> toSet(r, cardsBySet.getOrDefault(r.get(SET.CODE), List.of())));
+        });
+    }
+
+    /**
+     * Lists all sets with a single query, but loads the cards of a set only, when they are accessed. This is much
+     * cheaper than {@link #findSets()}, if only the set metadata (e.g. names, codes and release dates) is needed.
+     *
+     * <p>The cards of each set are fetched with a connection of their own on the first call of
+     * {@link Set#getCards()}, which throws a {@link DataAccessException}, if they could not be fetched. Like those of
+     * {@link #findSets()}, the sets have no tokens and translations.</p>
+     *
+     * @return The lazy sets.
+     * @throws SQLException If the sets could not be fetched.
+     * @see Set#isLoaded()
+     */
+    public List<Set> findSetsLazily() throws SQLException {
+        return query("findSetsLazily", dslContext -> dslContext.select()
+                .from(SET)
+                .fetch(r -> new Set(toSet(r, null), () -> loadSet(r))));
+    }
+
+    private Set loadSet(Record r) {
+        try {
+            return query("findSetsLazily.getCards",
+                    dslContext -> toSet(r, fetchSetCards(dslContext, CARD.SET_CODE.eq(r.get(SET.CODE)))));
+        } catch (SQLException e) {
+            throw new DataAccessException("The cards of set " + r.get(SET.CODE) + " could not be fetched.", e);
+        }
+    }
+
+    /**
+     * Streams all sets, without holding all of them in memory.
+     *
+     * <p>The sets are read with a cursor and the cards of each set are fetched, when the set is consumed. Only one set
+     * with its cards is held in memory at a time, regardless of the size of the database.</p>
+     *
+     * <p>The stream holds a database connection until it is closed, so it must be closed, e.g. with a
+     * try-with-resources statement.</p>
+     *
+     * @return The stream of sets, which must be closed.
+     * @throws SQLException If the connection could not be obtained.
+     * @see #findSets()
+     */
+    public Stream<Set> streamSets() throws SQLException {
+        return stream("streamSets", dslContext -> {
+            Cursor<Record> cursor = dslContext.select()
+                    .from(SET)
+                    .fetchSize(FETCH_SIZE)
+                    .fetchLazy();
+            return cursor.stream()
+                    .map(r -> toSet(r, fetchSetCards(dslContext, CARD.SET_CODE.eq(r.get(SET.CODE)))))
+                    .onClose(cursor::close);
+        });
+    }
+
+    /**
+     * Opens a stream, which holds a connection of its own until it is closed.
+     *
+     * <p>Auto-commit is turned off for the lifetime of the stream, because some drivers (e.g. PostgreSQL's) only
+     * fetch the rows of a cursor in chunks of the fetch size within a transaction. Otherwise they read the whole
+     * result at once.</p>
+     *
+     * @param method The name of the query method, which is reported, when the stream is closed.
+     * @param query  The query, which opens the stream with the DSL context of the connection.
+     * @return The stream, which closes the connection, when it is closed.
+     * @throws SQLException If the connection could not be obtained.
+     */
+    private <T> Stream<T> stream(String method, Function<DSLContext, Stream<T>> query) throws SQLException {
+        long start = System.nanoTime();
+        AtomicInteger queries = new AtomicInteger();
+        Connection connection = getConnection();
+        try {
+            boolean autoCommit = connection.getAutoCommit();
+            if (autoCommit) {
+                connection.setAutoCommit(false);
+            }
+            return query.apply(using(connection, queries)).onClose(() -> {
+                instrumentation.queryExecuted(method, queries.get(), System.nanoTime() - start);
+                try (connection) {
+                    if (autoCommit) {
+                        // Nothing has been written, so the transaction only ends the cursor.
+                        connection.rollback();
+                        connection.setAutoCommit(true);
+                    }
+                } catch (SQLException e) {
+                    throw new DataAccessException("The connection could not be closed.", e);
+                }
+            });
+        } catch (SQLException | RuntimeException e) {
+            instrumentation.queryExecuted(method, queries.get(), System.nanoTime() - start);
+            connection.close();
+            throw e;
+        }
+    }
+
+    private static Set toSet(Record r, List<SetCard> cards) {
+        return new Set(r.get(SET.BASE_SET_SIZE),
+                r.get(SET.BLOCK),
+                r.get(SET.CODE),
+                r.get(SET.CODE_V3),
+                cards,
+                r.get(SET.IS_FOREIGN_ONLY),
+                r.get(SET.IS_FOIL_ONLY),
+                r.get(SET.IS_NON_FOIL_ONLY),
+                r.get(SET.IS_ONLINE_ONLY),
+                r.get(SET.IS_PAPER_ONLY),
+                r.get(SET.IS_PARTIAL_PREVIEW),
+                r.get(SET.KEYRUNE_CODE),
+                r.get(SET.MCM_ID),
+                r.get(SET.MCM_ID_EXTRAS),
+                r.get(SET.MCM_NAME),
+                r.get(SET.MTGO_CODE),
+                r.get(SET.NAME),
+                r.get(SET.RELEASE_DATE),
+                r.get(SET.PARENT_CODE),
+                r.get(SET.TCGPLAYER_GROUP_ID),
+                null,
+                r.get(SET.TOTAL_SET_SIZE),
+                null,
+                r.get(SET.TYPE)
+        );
+    }
+
+    /**
+     * Inserts sets on a connection of its own, in transactions, which are committed at a commit interval. Closing the
+     * writer rolls back everything, which has not been committed.
+     *
+     * <p>A writer must only be used by one thread at a time, but several writers may insert different sets
+     * concurrently: The ids of the cards are generated by the database.</p>
+     */
+    final class SetWriter implements AutoCloseable {
+
+        private final Connection connection;
+
+        private final boolean autoCommit;
+
+        private final DSLContext context;
+
+        private final CommitInterval commitInterval;
+
+        private int pendingSets;
+
+        private int pendingCards;
+
+        private long pendingRows;
+
+        private int committedSets;
+
+        private int committedCards;
+
+        private long committedRows;
+
+        private SetWriter(Connection connection, CommitInterval commitInterval) throws SQLException {
+            this.connection = connection;
+            this.autoCommit = connection.getAutoCommit();
+            this.context = DSL.using(connection, SQLDialect.DEFAULT);
+            this.commitInterval = commitInterval;
+            connection.setAutoCommit(false);
+        }
+
+        /**
+         * Inserts a set with all its cards and tokens and commits, if the commit interval has been reached.
+         */
+        void write(Set set) throws SQLException {
+            List<CardRows> cards = toCardRows(context, set);
+            Integer setId = insertSet(context, toSetRecord(context, set, cards));
+            pendingRows += 1 + insertCards(context, setId, cards);
+            pendingCards += cards.size();
+            pendingSets++;
+            if (commitInterval.isDue(pendingSets, pendingRows)) {
+                commit();
+            }
+        }
+
+        void commit() throws SQLException {
+            connection.commit();
+            committedSets += pendingSets;
+            committedCards += pendingCards;
+            committedRows += pendingRows;
+            pendingSets = 0;
+            pendingCards = 0;
+            pendingRows = 0;
+            invalidateCache();
+        }
+
+        int getCommittedSets() {
+            return committedSets;
+        }
+
+        int getCommittedCards() {
+            return committedCards;
+        }
+
+        long getCommittedRows() {
+            return committedRows;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try (connection) {
+                // Also removes the rows of a set, which has failed to be written.
+                connection.rollback();
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * Reads the set cards from a cursor in chunks, so that the child tables are queried once per chunk.
+     */
+    private static final class SetCardSpliterator extends Spliterators.AbstractSpliterator<SetCard> {
+
+        private final DSLContext dslContext;
+
+        private final Cursor<Record> cursor;
+
+        private Iterator<SetCard> chunk = Collections.emptyIterator();
+
+        private SetCardSpliterator(DSLContext dslContext, Cursor<Record> cursor) {
+            super(Long.MAX_VALUE, Spliterator.NONNULL | Spliterator.IMMUTABLE);
+            this.dslContext = dslContext;
+            this.cursor = cursor;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super SetCard> action) {
+            if (!chunk.hasNext()) {
+                Result<Record> records = cursor.fetchNext(FETCH_SIZE);
+                if (records.isEmpty()) {
+                    return false;
+                }
+                List<Integer> cardIds = records.getValues(CARD.ID);
+                chunk = toSetCards(dslContext, records, cardId -> cardId.in(cardIds)).iterator();
+            }
+            action.accept(chunk.next());
+            return true;
+        }
+    }
+
+    /**
+     * The rows of a card or token, before the id of the card is known, and their content hash.
+     */
+    private static final class CardRows {
+
+        private final CardRecord card;
+
+        private final SetCardRecord setCard;
+
+        private final TokenCardRecord tokenCard;
+
+        private final IdentifiersRecord identifiers;
+
+        private final List<ForeignDataRecord> foreignData;
+
+        private final List<TokenCardReverseRelatedRecord> reverseRelated;
+
+        private final OracleRows oracleCard;
+
+        private CardRows(CardRecord card, SetCardRecord setCard, TokenCardRecord tokenCard,
+                         IdentifiersRecord identifiers, List<ForeignDataRecord> foreignData,
+                         List<TokenCardReverseRelatedRecord> reverseRelated, OracleRows oracleCard) {
+            this.card = card;
+            this.setCard = setCard;
+            this.tokenCard = tokenCard;
+            this.identifiers = identifiers;
+            this.foreignData = foreignData;
+            this.reverseRelated = reverseRelated;
+            this.oracleCard = oracleCard;
+
+            // The gameplay data is only stored in the shared Oracle_Card row.
+            card.setPower(null);
+            card.setText(null);
+            card.setToughness(null);
+            card.setType(null);
+            if (setCard != null) {
+                setCard.setManaCost(null);
+            }
+
+            ContentHash hash = new ContentHash().add(card).add(setCard).add(tokenCard).add(identifiers)
+                    .add(oracleCard.getContentHash()).add(foreignData.size());
+            // The foreign data is an unordered set, so its rows are hashed independently of their order.
+            foreignData.stream().mapToLong(row -> new ContentHash().add(row).get()).sorted().forEach(hash::add);
+            hash.add(reverseRelated.size());
+            reverseRelated.forEach(hash::add);
+            card.setContentHash(hash.get());
+        }
+
+        /**
+         * Sets the id of the card in its child rows and adds them to the rows, which are inserted per table.
+         */
+        private void addRows(Map<Table<?>, List<TableRecord<?>>> rows, Integer cardId) {
+            if (setCard != null) {
+                setCard.setCardId(cardId);
+                addRow(rows, setCard);
+                for (ForeignDataRecord foreignDataRecord : foreignData) {
+                    foreignDataRecord.setCardId(cardId);
+                    addRow(rows, foreignDataRecord);
+                }
+            }
+            identifiers.setCardId(cardId);
+            addRow(rows, identifiers);
+            if (tokenCard != null) {
+                tokenCard.setCardId(cardId);
+                addRow(rows, tokenCard);
+                for (TokenCardReverseRelatedRecord reverseRelatedRecord : reverseRelated) {
+                    reverseRelatedRecord.setCardId(cardId);
+                    addRow(rows, reverseRelatedRecord);
+                }
+            }
+        }
+    }
+
+    /**
+     * The rows of an oracle card, before its id is known, and their content hash.
+     */
+    private static final class OracleRows {
+
+        private final OracleCardRecord oracleCard;
+
+        private final List<OracleCardKeywordRecord> keywords;
+
+        private final List<OracleCardRulingRecord> rulings;
+
+        private OracleRows(OracleCardRecord oracleCard, List<OracleCardKeywordRecord> keywords,
+                           List<OracleCardRulingRecord> rulings) {
+            this.oracleCard = oracleCard;
+            this.keywords = keywords;
+            this.rulings = rulings;
+
+            // The keywords and rulings are ordered lists, so their order is part of the hash.
+            ContentHash hash = new ContentHash().add(oracleCard).add(keywords.size());
+            keywords.forEach(hash::add);
+            hash.add(rulings.size());
+            rulings.forEach(hash::add);
+            oracleCard.setContentHash(hash.get());
+        }
+
+        private Long getContentHash() {
+            return oracleCard.getContentHash();
+        }
+
+        /**
+         * Gets the key, by which the oracle card is shared, i.e. its Scryfall oracle id, face key and whether it is the
+         * oracle card of a token.
+         *
+         * @return The key or null, if the oracle card has no oracle id and is not shared.
+         */
+        private List<String> getKey() {
+            return oracleCard.getScryfallOracleId() != null
+                    ? Arrays.asList(oracleCard.getScryfallOracleId(), oracleCard.getFaceKey(),
+                    oracleCard.getToken().toString())
+                    : null;
+        }
+
+        /**
+         * Sets the id of the oracle card in its child rows and adds them to the rows, which are inserted per table.
+         */
+        private void addRows(Map<Table<?>, List<TableRecord<?>>> rows, Integer oracleCardId) {
+            for (OracleCardKeywordRecord keyword : keywords) {
+                keyword.setOracleCardId(oracleCardId);
+                addRow(rows, keyword);
+            }
+            for (OracleCardRulingRecord ruling : rulings) {
+                ruling.setOracleCardId(oracleCardId);
+                addRow(rows, ruling);
+            }
         }
     }
 }
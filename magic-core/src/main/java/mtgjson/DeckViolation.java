@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+/**
+ * A violation of the rules of a {@link Format} by a card of a deck.
+ *
+ * @see LegalityIndex#validate(Format, java.util.Map)
+ */
+public final class DeckViolation {
+
+    private final String card;
+
+    private final Reason reason;
+
+    private final Legality legality;
+
+    DeckViolation(String card, Reason reason, Legality legality) {
+        this.card = card;
+        this.reason = reason;
+        this.legality = legality;
+    }
+
+    /**
+     * The card as given in the deck list, i.e. its name or UUID.
+     *
+     * @return The card.
+     */
+    public final String getCard() {
+        return card;
+    }
+
+    /**
+     * The reason of the violation.
+     *
+     * @return The reason.
+     */
+    public final Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * The legality of the card in the format.
+     *
+     * @return The legality or null, if the card is unknown.
+     */
+    public final Legality getLegality() {
+        return legality;
+    }
+
+    @Override
+    public final String toString() {
+        return card + ": " + reason + (legality != null ? " (" + legality.getValue() + ")" : "");
+    }
+
+    /**
+     * The reasons of a violation.
+     */
+    public enum Reason {
+        /**
+         * The card is neither a known name nor a known UUID.
+         */
+        UNKNOWN_CARD,
+        /**
+         * The card is not legal in the format, e.g. because it is banned.
+         */
+        NOT_LEGAL,
+        /**
+         * The card is restricted, but the deck contains more than one copy of it.
+         */
+        TOO_MANY_COPIES,
+        /**
+         * The color identity of the card is not within the color identity of the commanders.
+         */
+        OUTSIDE_COLOR_IDENTITY
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An input stream, which decompresses its source on a dedicated thread.
+ *
+ * <p>The decompressed data is handed over in chunks through a bounded queue, which acts as a ring buffer of
+ * {@code QUEUE_CAPACITY * CHUNK_SIZE} bytes: The decompressor waits while the queue is full and the reader waits while
+ * it is empty, so that decompression and parsing overlap without buffering the whole file.</p>
+ *
+ * <p>Closing the stream stops the decompressor, but does not close the source.</p>
+ */
+final class DecompressingInputStream extends InputStream {
+
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private static final int QUEUE_CAPACITY = 32;
+
+    // Signals the end of the decompressed data.
+    private static final byte[] END = new byte[0];
+
+    private final BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+    private final Thread thread;
+
+    private volatile IOException failure;
+
+    private volatile boolean closed;
+
+    private byte[] chunk = new byte[0];
+
+    private int position;
+
+    DecompressingInputStream(Compression compression, InputStream source) {
+        thread = new Thread(() -> decompress(compression, source), "mtgjson-decompressor-" + compression);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void decompress(Compression compression, InputStream source) {
+        try {
+            InputStream decompressor = compression.newDecompressor(source);
+            while (!closed) {
+                byte[] buffer = decompressor.readNBytes(CHUNK_SIZE);
+                if (buffer.length == 0) {
+                    break;
+                }
+                put(buffer);
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            return;
+        }
+        try {
+            put(END);
+        } catch (InterruptedException e) {
+            // The stream has been closed.
+        }
+    }
+
+    /**
+     * Puts a chunk into the queue and waits while it is full.
+     *
+     * @throws InterruptedException If the stream has been closed in the meantime.
+     */
+    private void put(byte[] buffer) throws InterruptedException {
+        while (!closed) {
+            if (queue.offer(buffer, 100, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        }
+        throw new InterruptedException("Stream closed");
+    }
+
+    /**
+     * @return True, if there is data left in the current chunk, false at the end of the data.
+     */
+    private boolean fill() throws IOException {
+        if (position < chunk.length) {
+            return true;
+        }
+        if (chunk == END) {
+            return false;
+        }
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        try {
+            chunk = queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the decompressor", e);
+        }
+        position = 0;
+        if (chunk == END) {
+            if (failure != null) {
+                throw new IOException("Decompression failed", failure);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return fill() ? chunk[position++] & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int n = Math.min(len, chunk.length - position);
+        System.arraycopy(chunk, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return chunk.length - position;
+    }
+
+    @Override
+    public void close() {
+        // The decompressor is not interrupted, because that would close the source, if it is a channel.
+        closed = true;
+        queue.clear();
+    }
+}
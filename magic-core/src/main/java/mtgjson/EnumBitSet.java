@@ -0,0 +1,188 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable set of enum constants, which is represented by an {@code int} bitmask.
+ *
+ * <p>Bit {@code i} of the mask stands for the constant with the ordinal {@code i}, like in {@link java.util.EnumSet}.
+ * Masks are also stored in the database (e.g. {@code Card.color_identity_mask}), therefore the constants of the
+ * enums, which are stored as masks ({@link Color}, {@link Finish}, {@link Availability} and {@link FrameEffect}), must
+ * never be reordered, only appended.</p>
+ *
+ * <p>Subset tests between two masks are a single bitwise operation, e.g. a color identity is within the colors
+ * {@code allowed}, if {@code (identity & ~allowed) == 0}.</p>
+ *
+ * @param <E> The enum type.
+ */
+public final class EnumBitSet<E extends Enum<E>> extends AbstractSet<E> {
+
+    private static final ClassValue<Enum<?>[]> UNIVERSES = new ClassValue<>() {
+        @Override
+        protected Enum<?>[] computeValue(Class<?> type) {
+            Enum<?>[] constants = (Enum<?>[]) type.getEnumConstants();
+            if (constants.length > Integer.SIZE) {
+                throw new IllegalArgumentException(type.getName() + " has more than " + Integer.SIZE + " constants.");
+            }
+            return constants;
+        }
+    };
+
+    private final Class<E> type;
+
+    private final int mask;
+
+    private EnumBitSet(Class<E> type, int mask) {
+        this.type = type;
+        this.mask = mask;
+    }
+
+    /**
+     * Creates a set from a bitmask.
+     *
+     * @param type The enum type.
+     * @param mask The bitmask.
+     * @param <E>  The enum type.
+     * @return The set.
+     * @throws IllegalArgumentException If the mask contains bits, which do not stand for a constant.
+     */
+    public static <E extends Enum<E>> EnumBitSet<E> fromMask(Class<E> type, int mask) {
+        int size = UNIVERSES.get(type).length;
+        if (size < Integer.SIZE && mask >>> size != 0) {
+            throw new IllegalArgumentException("Invalid mask for " + type.getName() + ": " + mask);
+        }
+        return new EnumBitSet<>(type, mask);
+    }
+
+    /**
+     * Creates a set from a collection of enum constants.
+     *
+     * @param type   The enum type.
+     * @param values The enum constants or null, which results in an empty set.
+     * @param <E>    The enum type.
+     * @return The set.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E extends Enum<E>> EnumBitSet<E> of(Class<E> type, Collection<E> values) {
+        if (values instanceof EnumBitSet && ((EnumBitSet<E>) values).type == type) {
+            return (EnumBitSet<E>) values;
+        }
+        UNIVERSES.get(type);
+        return new EnumBitSet<>(type, mask(values));
+    }
+
+    /**
+     * Gets the bitmask of a collection of enum constants.
+     *
+     * @param values The enum constants or null, which results in 0.
+     * @param <E>    The enum type.
+     * @return The bitmask.
+     */
+    public static <E extends Enum<E>> int mask(Collection<E> values) {
+        if (values instanceof EnumBitSet) {
+            return ((EnumBitSet<?>) values).mask;
+        }
+        int mask = 0;
+        if (values != null) {
+            for (E value : values) {
+                mask |= 1 << value.ordinal();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Gets the bitmask of this set.
+     *
+     * @return The bitmask.
+     */
+    public int toMask() {
+        return mask;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return type.isInstance(o) && (mask & 1 << ((Enum<?>) o).ordinal()) != 0;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        if (c instanceof EnumBitSet && ((EnumBitSet<?>) c).type == type) {
+            return (((EnumBitSet<?>) c).mask & ~mask) == 0;
+        }
+        return super.containsAll(c);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return mask == 0;
+    }
+
+    @Override
+    public int size() {
+        return Integer.bitCount(mask);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+
+            private int remaining = mask;
+
+            @Override
+            public boolean hasNext() {
+                return remaining != 0;
+            }
+
+            @Override
+            public E next() {
+                if (remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                int ordinal = Integer.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                return type.cast(UNIVERSES.get(type)[ordinal]);
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof EnumBitSet && ((EnumBitSet<?>) o).type == type) {
+            return ((EnumBitSet<?>) o).mask == mask;
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+}
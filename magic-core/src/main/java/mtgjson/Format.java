@@ -0,0 +1,97 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+/**
+ * The play formats, for which the {@link Legalities} of a card are given.
+ */
+public enum Format {
+
+    BRAWL("brawl"),
+    COMMANDER("commander"),
+    DUEL("duel"),
+    FUTURE("future"),
+    FRONTIER("frontier"),
+    HISTORIC("historic"),
+    LEGACY("legacy"),
+    MODERN("modern"),
+    PAUPER("pauper"),
+    PENNY("penny"),
+    PIONEER("pioneer"),
+    STANDARD("standard"),
+    VINTAGE("vintage");
+
+    private final String value;
+
+    Format(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Gets the legality of a card in this format.
+     *
+     * @param legalities The legalities of the card, which may be null.
+     * @return The legality, e.g. "Legal" or "Banned", or null, if the card is not legal in this format.
+     */
+    public String getLegality(Legalities legalities) {
+        if (legalities == null) {
+            return null;
+        }
+        switch (this) {
+            case BRAWL:
+                return legalities.getBrawl();
+            case COMMANDER:
+                return legalities.getCommander();
+            case DUEL:
+                return legalities.getDuel();
+            case FUTURE:
+                return legalities.getFuture();
+            case FRONTIER:
+                return legalities.getFrontier();
+            case HISTORIC:
+                return legalities.getHistoric();
+            case LEGACY:
+                return legalities.getLegacy();
+            case MODERN:
+                return legalities.getModern();
+            case PAUPER:
+                return legalities.getPauper();
+            case PENNY:
+                return legalities.getPenny();
+            case PIONEER:
+                return legalities.getPioneer();
+            case STANDARD:
+                return legalities.getStandard();
+            case VINTAGE:
+                return legalities.getVintage();
+            default:
+                throw new AssertionError(this);
+        }
+    }
+}
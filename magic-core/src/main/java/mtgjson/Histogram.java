@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of non-negative values, e.g. times in nanoseconds, which is recorded by the
+ * {@link MetricsInstrumentation}.
+ *
+ * <p>Values are counted in buckets of powers of two, i.e. a bucket per bit length, so that recording is lock-free and
+ * takes constant memory. Percentiles are therefore approximated by the upper bound of their bucket, which is at most
+ * twice the exact value. The count, sum and maximum are exact.</p>
+ *
+ * <p>The histogram is thread-safe. Its values may change, while they are read.</p>
+ */
+public final class Histogram {
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder sum = new LongAdder();
+
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    // The bucket i counts the values of bit length i, i.e. from 2^(i-1) to 2^i - 1.
+    private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE);
+
+    Histogram() {
+    }
+
+    void record(long value) {
+        long v = Math.max(0, value);
+        count.increment();
+        sum.add(v);
+        max.accumulate(v);
+        buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(v));
+    }
+
+    /**
+     * Gets the number of recorded values.
+     *
+     * @return The number of values.
+     */
+    public final long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the sum of the recorded values.
+     *
+     * @return The sum.
+     */
+    public final long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * Gets the largest recorded value.
+     *
+     * @return The maximum or 0, if no values have been recorded.
+     */
+    public final long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets the mean of the recorded values.
+     *
+     * @return The mean or 0, if no values have been recorded.
+     */
+    public final double getMean() {
+        long n = getCount();
+        return n > 0 ? (double) getSum() / n : 0;
+    }
+
+    /**
+     * Gets an approximation of a percentile of the recorded values, e.g. the median or the 99th percentile.
+     *
+     * @param percentile The percentile between 0 and 100, e.g. 99.
+     * @return The upper bound of the bucket of the percentile, but at most the maximum.
+     */
+    public final long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+        }
+        long[] counts = new long[buckets.length()];
+        long n = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+            n += counts[i];
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(i == 0 ? 0 : -1L >>> (Long.SIZE - i), getMax());
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public final String toString() {
+        return "count=" + getCount() + ", mean=" + Math.round(getMean()) + ", p50=" + getPercentile(50)
+                + ", p99=" + getPercentile(99) + ", max=" + getMax();
+    }
+}
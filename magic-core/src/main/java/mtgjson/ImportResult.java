@@ -0,0 +1,173 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The result of an import by a {@link SetImporter}, i.e. the number of imported sets and the throughput of each
+ * writer.
+ *
+ * <p>This class is immutable.</p>
+ */
+public final class ImportResult {
+
+    private final int importedSets;
+
+    private final Duration elapsedTime;
+
+    private final List<WriterStats> writers;
+
+    ImportResult(int importedSets, Duration elapsedTime, List<WriterStats> writers) {
+        this.importedSets = importedSets;
+        this.elapsedTime = elapsedTime;
+        this.writers = List.copyOf(writers);
+    }
+
+    /**
+     * Gets the number of sets, which have been written and committed.
+     *
+     * @return The number of imported sets.
+     */
+    public final int getImportedSets() {
+        return importedSets;
+    }
+
+    /**
+     * Gets the wall-clock time of the whole import, including the parsing.
+     *
+     * @return The elapsed time.
+     */
+    public final Duration getElapsedTime() {
+        return elapsedTime;
+    }
+
+    /**
+     * Gets the statistics of each writer thread.
+     *
+     * @return The writer statistics, in the order of the threads.
+     */
+    public final List<WriterStats> getWriters() {
+        return writers;
+    }
+
+    @Override
+    public final String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(importedSets).append(" sets imported in ")
+                .append(elapsedTime.toMillis()).append(" ms");
+        for (WriterStats writer : writers) {
+            sb.append(System.lineSeparator()).append(writer);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The statistics of a single writer thread. Only committed sets are counted.
+     *
+     * <p>This class is immutable.</p>
+     */
+    public static final class WriterStats {
+
+        private final String name;
+
+        private final int sets;
+
+        private final int cards;
+
+        private final long rows;
+
+        private final Duration busyTime;
+
+        WriterStats(String name, int sets, int cards, long rows, Duration busyTime) {
+            this.name = name;
+            this.sets = sets;
+            this.cards = cards;
+            this.rows = rows;
+            this.busyTime = busyTime;
+        }
+
+        /**
+         * Gets the name of the writer thread.
+         *
+         * @return The thread name.
+         */
+        public final String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the number of sets, which the writer has committed.
+         *
+         * @return The number of sets.
+         */
+        public final int getSets() {
+            return sets;
+        }
+
+        /**
+         * Gets the number of cards and tokens of the committed sets.
+         *
+         * @return The number of cards.
+         */
+        public final int getCards() {
+            return cards;
+        }
+
+        /**
+         * Gets the number of rows (of all tables) of the committed sets.
+         *
+         * @return The number of rows.
+         */
+        public final long getRows() {
+            return rows;
+        }
+
+        /**
+         * Gets the time, which the writer has spent writing and committing, i.e. without waiting for parsed sets.
+         *
+         * @return The busy time.
+         */
+        public final Duration getBusyTime() {
+            return busyTime;
+        }
+
+        /**
+         * Gets the throughput of the writer, while it was busy.
+         *
+         * @return The number of rows per second or 0, if the writer has not been busy.
+         */
+        public final double getRowsPerSecond() {
+            return busyTime.isZero() ? 0 : rows * 1e9 / busyTime.toNanos();
+        }
+
+        @Override
+        public final String toString() {
+            return name + ": " + sets + " sets, " + cards + " cards, " + rows + " rows in " + busyTime.toMillis()
+                    + " ms (" + Math.round(getRowsPerSecond()) + " rows/s)";
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+/**
+ * Receives measurements of the {@link MtgJsonParser} and the {@link DatabaseUtil}, e.g. in order to expose them as
+ * metrics or to record them as profiling events.
+ *
+ * <p>All methods do nothing by default, so implementations only override, what they need. They are called on the
+ * threads, which parse, insert or query, possibly concurrently, and should return quickly. Times are measured with
+ * {@link System#nanoTime()}.</p>
+ *
+ * @see ParseOptions.Builder#instrumentation(Instrumentation)
+ * @see DatabaseUtil#DatabaseUtil(javax.sql.DataSource, int, QueryCache, Instrumentation)
+ * @see MetricsInstrumentation
+ * @see JfrInstrumentation
+ */
+public interface Instrumentation {
+
+    /**
+     * The instrumentation, which ignores all measurements. It is the default of the parser and the database utility.
+     */
+    Instrumentation NOOP = new Instrumentation() {
+    };
+
+    /**
+     * Called after a set has been parsed.
+     *
+     * @param code  The set code, e.g. "MRD".
+     * @param cards The number of cards of the set.
+     * @param bytes The number of (uncompressed) bytes of the set or -1, if unknown.
+     * @param nanos The time it took to parse the set.
+     */
+    default void setParsed(String code, int cards, long bytes, long nanos) {
+    }
+
+    /**
+     * Called after rows have been inserted into a table with a single statement.
+     *
+     * @param table The name of the table, e.g. "CARD".
+     * @param rows  The number of rows.
+     * @param nanos The time it took to execute the statement.
+     */
+    default void rowsInserted(String table, int rows, long nanos) {
+    }
+
+    /**
+     * Called after a query method of the {@link DatabaseUtil} has fetched its result from the database or has failed.
+     * Cached results are not reported. Streams are reported, when they are closed, i.e. including the time of their
+     * consumer, or when they could not be opened.
+     *
+     * @param method  The name of the method, e.g. "findCardsByName".
+     * @param queries The number of SQL statements, which have been executed, i.e. the main query and its child queries.
+     * @param nanos   The time it took to fetch the result or to fail, including the time to obtain the connection.
+     */
+    default void queryExecuted(String method, int queries, long nanos) {
+    }
+
+    /**
+     * Called after a connection has been obtained from the data source.
+     *
+     * @param nanos The time it took to obtain the connection, e.g. waiting for a pooled one.
+     */
+    default void connectionAcquired(long nanos) {
+    }
+
+    /**
+     * Composes this instrumentation with another one, e.g. in order to expose metrics and record profiling events.
+     *
+     * @param after The instrumentation, which receives the measurements after this one.
+     * @return The composed instrumentation.
+     */
+    default Instrumentation andThen(Instrumentation after) {
+        Instrumentation before = this;
+        return new Instrumentation() {
+            @Override
+            public void setParsed(String code, int cards, long bytes, long nanos) {
+                before.setParsed(code, cards, bytes, nanos);
+                after.setParsed(code, cards, bytes, nanos);
+            }
+
+            @Override
+            public void rowsInserted(String table, int rows, long nanos) {
+                before.rowsInserted(table, rows, nanos);
+                after.rowsInserted(table, rows, nanos);
+            }
+
+            @Override
+            public void queryExecuted(String method, int queries, long nanos) {
+                before.queryExecuted(method, queries, nanos);
+                after.queryExecuted(method, queries, nanos);
+            }
+
+            @Override
+            public void connectionAcquired(long nanos) {
+                before.connectionAcquired(nanos);
+                after.connectionAcquired(nanos);
+            }
+        };
+    }
+}
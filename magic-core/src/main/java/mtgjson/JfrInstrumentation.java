@@ -0,0 +1,155 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * An instrumentation, which emits JDK Flight Recorder events, so that parsing and database access can be profiled in
+ * production without an agent, e.g. with {@code jcmd <pid> JFR.start}.
+ *
+ * <p>The events are {@code mtgjson.SetParsed}, {@code mtgjson.RowsInserted}, {@code mtgjson.QueryExecuted} and
+ * {@code mtgjson.ConnectionAcquired} in the category "MTGJSON". Since they are emitted after a measurement, their
+ * measured time is a field of the event and not its duration. Events, which are not enabled in the recording, cost
+ * only a check.</p>
+ */
+public final class JfrInstrumentation implements Instrumentation {
+
+    @Override
+    public void setParsed(String code, int cards, long bytes, long nanos) {
+        SetParsed event = new SetParsed();
+        if (event.shouldCommit()) {
+            event.code = code;
+            event.cards = cards;
+            event.bytes = bytes;
+            event.time = nanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void rowsInserted(String table, int rows, long nanos) {
+        RowsInserted event = new RowsInserted();
+        if (event.shouldCommit()) {
+            event.table = table;
+            event.rows = rows;
+            event.time = nanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void queryExecuted(String method, int queries, long nanos) {
+        QueryExecuted event = new QueryExecuted();
+        if (event.shouldCommit()) {
+            event.method = method;
+            event.queries = queries;
+            event.time = nanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void connectionAcquired(long nanos) {
+        ConnectionAcquired event = new ConnectionAcquired();
+        if (event.shouldCommit()) {
+            event.time = nanos;
+            event.commit();
+        }
+    }
+
+    @Name("mtgjson.SetParsed")
+    @Label("Set Parsed")
+    @Category("MTGJSON")
+    @StackTrace(false)
+    static final class SetParsed extends Event {
+
+        @Label("Set Code")
+        String code;
+
+        @Label("Cards")
+        int cards;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Label("Parse Time")
+        @Timespan
+        long time;
+    }
+
+    @Name("mtgjson.RowsInserted")
+    @Label("Rows Inserted")
+    @Category("MTGJSON")
+    @StackTrace(false)
+    static final class RowsInserted extends Event {
+
+        @Label("Table")
+        String table;
+
+        @Label("Rows")
+        int rows;
+
+        @Label("Insert Time")
+        @Timespan
+        long time;
+    }
+
+    @Name("mtgjson.QueryExecuted")
+    @Label("Query Executed")
+    @Description("A query method of the database utility with the number of its SQL statements")
+    @Category("MTGJSON")
+    static final class QueryExecuted extends Event {
+
+        @Label("Method")
+        String method;
+
+        @Label("Queries")
+        int queries;
+
+        @Label("Query Time")
+        @Timespan
+        long time;
+    }
+
+    @Name("mtgjson.ConnectionAcquired")
+    @Label("Connection Acquired")
+    @Category("MTGJSON")
+    @StackTrace(false)
+    static final class ConnectionAcquired extends Event {
+
+        @Label("Wait Time")
+        @Timespan
+        long time;
+    }
+}
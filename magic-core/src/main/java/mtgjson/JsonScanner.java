@@ -0,0 +1,265 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Finds the structure of a JSON document in a mapped file without tokenizing it.
+ *
+ * <p>Only strings, brackets and separators are recognized and values are not validated, which makes it several times
+ * faster than skipping the values with a JSON parser. Malformed documents are detected by the JSON parser, when the
+ * values are actually read.</p>
+ */
+final class JsonScanner {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private static final long QUOTES = 0x2222222222222222L;
+
+    private static final long BACKSLASHES = 0x5C5C5C5C5C5C5C5CL;
+
+    private final MappedFile file;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    // The position of the buffer within the file.
+    private long bufferPosition;
+
+    private int limit;
+
+    private int index;
+
+    JsonScanner(MappedFile file) {
+        this.file = file;
+    }
+
+    /**
+     * @return The current position.
+     */
+    long position() {
+        return bufferPosition + index;
+    }
+
+    /**
+     * @return The next character, after skipping whitespace, which is not consumed.
+     * @throws IOException If the end of the file has been reached.
+     */
+    char peek() throws IOException {
+        skipWhitespace();
+        return (char) buffer[index];
+    }
+
+    /**
+     * Consumes the next character, after skipping whitespace.
+     *
+     * @param c The expected character.
+     * @throws IOException If the next character is a different one.
+     */
+    void expect(char c) throws IOException {
+        if (!tryConsume(c)) {
+            throw malformed("Expected '" + c + "'");
+        }
+    }
+
+    /**
+     * Consumes the next character, after skipping whitespace, if it is the given one.
+     *
+     * @param c The character.
+     * @return True, if the character has been consumed.
+     * @throws IOException If the end of the file has been reached.
+     */
+    boolean tryConsume(char c) throws IOException {
+        if (peek() == c) {
+            index++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reads a string, e.g. a field name. Escape sequences are not resolved.
+     *
+     * @return The string.
+     * @throws IOException If the next value is no string.
+     */
+    String readString() throws IOException {
+        if (peek() != '"') {
+            throw malformed("Expected a string");
+        }
+        index++;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte b;
+        while ((b = next()) != '"') {
+            bytes.write(b);
+            if (b == '\\') {
+                bytes.write(next());
+            }
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Skips the next value, i.e. an object, array, string or literal.
+     *
+     * @throws IOException If the end of the file has been reached.
+     */
+    void skipValue() throws IOException {
+        char c = peek();
+        if (c == '"') {
+            index++;
+            skipString();
+        } else if (c == '{' || c == '[') {
+            index++;
+            skipContainer();
+        } else {
+            while (",}] \t\r\n".indexOf(peekByte()) < 0) {
+                index++;
+            }
+        }
+    }
+
+    /**
+     * Skips the rest of an object or array, whose opening bracket has been consumed.
+     */
+    private void skipContainer() throws IOException {
+        // This is the hot loop of the scan, therefore the state is kept in local variables.
+        byte[] bytes = buffer;
+        int depth = 1;
+        boolean inString = false;
+        boolean escaped = false;
+        while (true) {
+            int i = index;
+            int n = limit;
+            if (escaped && i < n) {
+                i++;
+                escaped = false;
+            }
+            while (i < n) {
+                if (inString) {
+                    // Most of the document consists of strings, which are skipped eight bytes at a time, as long as
+                    // they contain neither quotes nor backslashes.
+                    while (i + Long.BYTES <= n && !containsQuoteOrBackslash((long) LONGS.get(bytes, i))) {
+                        i += Long.BYTES;
+                    }
+                    while (i < n) {
+                        byte b = bytes[i++];
+                        if (b == '"') {
+                            inString = false;
+                            break;
+                        } else if (b == '\\') {
+                            if (i < n) {
+                                i++;
+                            } else {
+                                escaped = true;
+                            }
+                        }
+                    }
+                } else {
+                    byte b = bytes[i++];
+                    if (b == '"') {
+                        inString = true;
+                    } else if (b == '{' || b == '[') {
+                        depth++;
+                    } else if ((b == '}' || b == ']') && --depth == 0) {
+                        index = i;
+                        return;
+                    }
+                }
+            }
+            index = n;
+            fill();
+        }
+    }
+
+    /**
+     * Tests with SWAR ("SIMD within a register") operations, whether one of eight bytes is a quote or a backslash.
+     */
+    private static boolean containsQuoteOrBackslash(long word) {
+        return (containsZero(word ^ QUOTES) | containsZero(word ^ BACKSLASHES)) != 0;
+    }
+
+    private static long containsZero(long word) {
+        return (word - 0x0101010101010101L) & ~word & 0x8080808080808080L;
+    }
+
+    /**
+     * Skips the rest of a string, whose opening quote has been consumed.
+     */
+    private void skipString() throws IOException {
+        while (true) {
+            if (index == limit) {
+                fill();
+            }
+            byte b = buffer[index++];
+            if (b == '"') {
+                return;
+            } else if (b == '\\') {
+                next();
+            }
+        }
+    }
+
+    private void skipWhitespace() throws IOException {
+        byte b;
+        while ((b = peekByte()) == ' ' || b == '\n' || b == '\r' || b == '\t') {
+            index++;
+        }
+    }
+
+    private byte peekByte() throws IOException {
+        if (index == limit) {
+            fill();
+        }
+        return buffer[index];
+    }
+
+    private byte next() throws IOException {
+        byte b = peekByte();
+        index++;
+        return b;
+    }
+
+    private void fill() throws IOException {
+        bufferPosition += limit;
+        index = 0;
+        limit = file.read(bufferPosition, buffer);
+        if (limit <= 0) {
+            limit = 0;
+            throw malformed("Unexpected end of file");
+        }
+    }
+
+    private IOException malformed(String message) {
+        return new IOException(message + " at byte " + position());
+    }
+}
@@ -70,6 +70,31 @@ public final class Legalities {
     @JsonProperty
     private String vintage;
 
+    // Used by Jackson, which sets the fields.
+    Legalities() {
+    }
+
+    /**
+     * Creates the legalities, e.g. when reading a {@linkplain Snapshot snapshot}.
+     */
+    Legalities(String brawl, String commander, String duel, String future, String frontier, String historic,
+               String legacy, String modern, String pauper, String penny, String pioneer, String standard,
+               String vintage) {
+        this.brawl = brawl;
+        this.commander = commander;
+        this.duel = duel;
+        this.future = future;
+        this.frontier = frontier;
+        this.historic = historic;
+        this.legacy = legacy;
+        this.modern = modern;
+        this.pauper = pauper;
+        this.penny = penny;
+        this.pioneer = pioneer;
+        this.standard = standard;
+        this.vintage = vintage;
+    }
+
     /**
      * Gets legality in the Brawl play format.
      *
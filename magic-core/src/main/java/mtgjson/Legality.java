@@ -0,0 +1,66 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+/**
+ * The legality of a card in a {@link Format}.
+ *
+ * @see Format#getLegality(Legalities)
+ */
+public enum Legality {
+
+    NOT_LEGAL("Not Legal"),
+    LEGAL("Legal"),
+    RESTRICTED("Restricted"),
+    BANNED("Banned"),
+    SUSPENDED("Suspended");
+
+    private final String value;
+
+    Legality(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Gets the legality of a value of the {@link Legalities}.
+     *
+     * @param value The value, e.g. "Legal" or "Banned", or null, if the card is not legal in a format.
+     * @return The legality. Unknown values are not legal.
+     */
+    public static Legality of(String value) {
+        if (value != null) {
+            for (Legality legality : values()) {
+                if (legality.value.equals(value)) {
+                    return legality;
+                }
+            }
+        }
+        return NOT_LEGAL;
+    }
+}
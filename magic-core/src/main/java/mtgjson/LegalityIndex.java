@@ -0,0 +1,203 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * An in-memory index of the legalities of the cards, which validates deck lists without a database.
+ *
+ * <p>The legalities of a card in all {@linkplain Format formats} and its color identity are packed into a single
+ * {@code long}: Each format occupies three bits (the ordinal of the {@link Legality}) at the position of its ordinal,
+ * followed by the {@linkplain AbstractCard#getColorIdentityMask() color identity mask}. Validating a card is therefore
+ * a lookup of its entry and a few bit operations.</p>
+ *
+ * <p>Cards are looked up by their UUID or by their name (like the {@link CardIndex}, case- and accent-insensitive).
+ * Printings with the same name and the same legalities share an entry. If printings with the same name differ, a name
+ * refers to the first one.</p>
+ *
+ * <p>The index is immutable and thread-safe.</p>
+ */
+public final class LegalityIndex {
+
+    private static final int BITS_PER_FORMAT = 3;
+
+    private static final long LEGALITY_MASK = (1L << BITS_PER_FORMAT) - 1;
+
+    private static final int COLOR_IDENTITY_SHIFT = Format.values().length * BITS_PER_FORMAT;
+
+    private static final Legality[] LEGALITIES = Legality.values();
+
+    private static final Format[] FORMATS = Format.values();
+
+    // The UUIDs and normalized names of the cards and their entries.
+    private final Map<String, Integer> ids;
+
+    private final long[] entries;
+
+    private LegalityIndex(Map<String, Integer> ids, long[] entries) {
+        this.ids = ids;
+        this.entries = entries;
+    }
+
+    /**
+     * Builds the index of the cards of the sets.
+     *
+     * @param sets The sets, e.g. as parsed from an AllPrintings file.
+     * @return The index.
+     */
+    public static LegalityIndex of(Stream<Set> sets) {
+        Map<String, Integer> ids = new HashMap<>();
+        List<Long> entries = new ArrayList<>();
+        sets.forEachOrdered(set -> {
+            for (SetCard card : set.getCards()) {
+                long entry = pack(card);
+                String key = CardIndex.normalize(card.getName());
+                Integer id = ids.get(key);
+                if (id == null || entries.get(id) != entry) {
+                    id = entries.size();
+                    entries.add(entry);
+                    ids.putIfAbsent(key, id);
+                    if (card.getAsciiName() != null) {
+                        ids.putIfAbsent(CardIndex.normalize(card.getAsciiName()), id);
+                    }
+                }
+                ids.put(card.getUuid(), id);
+            }
+        });
+        return new LegalityIndex(ids, entries.stream().mapToLong(e -> e).toArray());
+    }
+
+    private static long pack(SetCard card) {
+        long entry = (long) card.getColorIdentityMask() << COLOR_IDENTITY_SHIFT;
+        if (card.getLegalities() != null) {
+            for (Format format : FORMATS) {
+                long legality = Legality.of(format.getLegality(card.getLegalities())).ordinal();
+                entry |= legality << (format.ordinal() * BITS_PER_FORMAT);
+            }
+        }
+        return entry;
+    }
+
+    private static Legality legality(long entry, Format format) {
+        return LEGALITIES[(int) ((entry >>> (format.ordinal() * BITS_PER_FORMAT)) & LEGALITY_MASK)];
+    }
+
+    private static int colorIdentity(long entry) {
+        return (int) (entry >>> COLOR_IDENTITY_SHIFT);
+    }
+
+    private int find(String card) {
+        Integer id = ids.get(card);
+        if (id == null) {
+            id = ids.get(CardIndex.normalize(card));
+        }
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Gets the legality of a card in a format.
+     *
+     * @param card   The name or UUID of the card.
+     * @param format The format.
+     * @return The legality or empty, if the card is unknown.
+     */
+    public Optional<Legality> getLegality(String card, Format format) {
+        int id = find(card);
+        return id >= 0 ? Optional.of(legality(entries[id], format)) : Optional.empty();
+    }
+
+    /**
+     * Validates a deck against a format: Each card must be legal, and a restricted card may occur only once.
+     *
+     * <p>The number of copies of other cards and the size of the deck are not validated.</p>
+     *
+     * @param format The format.
+     * @param deck   The names or UUIDs of the cards of the deck and their number of copies.
+     * @return The violations or an empty list, if the deck is valid.
+     */
+    public List<DeckViolation> validate(Format format, Map<String, Integer> deck) {
+        return validate(format, deck, -1);
+    }
+
+    /**
+     * Validates a commander deck against a format: In addition to {@link #validate(Format, Map)}, the commanders must
+     * be legal and the color identity of each card must be within the combined color identity of the commanders.
+     *
+     * @param format     The format, e.g. {@link Format#COMMANDER}.
+     * @param deck       The names or UUIDs of the cards of the deck (without commanders) and their number of copies.
+     * @param commanders The names or UUIDs of the commanders, e.g. two partners.
+     * @return The violations or an empty list, if the deck is valid.
+     */
+    public List<DeckViolation> validate(Format format, Map<String, Integer> deck, Collection<String> commanders) {
+        List<DeckViolation> violations = new ArrayList<>();
+        int colorIdentity = 0;
+        for (String commander : commanders) {
+            int id = find(commander);
+            if (id < 0) {
+                violations.add(new DeckViolation(commander, DeckViolation.Reason.UNKNOWN_CARD, null));
+                continue;
+            }
+            Legality legality = legality(entries[id], format);
+            if (legality != Legality.LEGAL && legality != Legality.RESTRICTED) {
+                violations.add(new DeckViolation(commander, DeckViolation.Reason.NOT_LEGAL, legality));
+            }
+            colorIdentity |= colorIdentity(entries[id]);
+        }
+        violations.addAll(validate(format, deck, colorIdentity));
+        return violations;
+    }
+
+    private List<DeckViolation> validate(Format format, Map<String, Integer> deck, int colorIdentity) {
+        List<DeckViolation> violations = new ArrayList<>();
+        // A card is outside the color identity, if it has a color, which is not allowed (none without commanders).
+        int forbiddenColors = ~colorIdentity;
+        for (Map.Entry<String, Integer> card : deck.entrySet()) {
+            int id = find(card.getKey());
+            if (id < 0) {
+                violations.add(new DeckViolation(card.getKey(), DeckViolation.Reason.UNKNOWN_CARD, null));
+                continue;
+            }
+            long entry = entries[id];
+            Legality legality = legality(entry, format);
+            if (legality == Legality.RESTRICTED && card.getValue() > 1) {
+                violations.add(new DeckViolation(card.getKey(), DeckViolation.Reason.TOO_MANY_COPIES, legality));
+            } else if (legality != Legality.LEGAL && legality != Legality.RESTRICTED) {
+                violations.add(new DeckViolation(card.getKey(), DeckViolation.Reason.NOT_LEGAL, legality));
+            }
+            if ((colorIdentity(entry) & forbiddenColors) != 0) {
+                violations.add(new DeckViolation(card.getKey(), DeckViolation.Reason.OUTSIDE_COLOR_IDENTITY,
+                        legality));
+            }
+        }
+        return violations;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+/**
+ * A read-only, memory-mapped file. The file is read directly from the page cache of the operating system, which
+ * also keeps the pages warm between restarts.
+ *
+ * <p>Since a single mapping is limited to 2 GB, the file is mapped in chunks of 1 GB. The mappings remain valid after
+ * the file has been closed and are released, when they are garbage collected.</p>
+ */
+final class MappedFile implements Closeable {
+
+    private static final int CHUNK_BITS = 30;
+
+    private static final long CHUNK_SIZE = 1L << CHUNK_BITS;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer[] chunks;
+
+    private final long size;
+
+    private MappedFile(FileChannel channel, MappedByteBuffer[] chunks, long size) {
+        this.channel = channel;
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    /**
+     * Maps a file.
+     *
+     * @param path The path of the file.
+     * @return The mapped file.
+     * @throws IOException If the file could not be mapped.
+     */
+    static MappedFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            MappedByteBuffer[] chunks = new MappedByteBuffer[(int) ((size + CHUNK_SIZE - 1) / CHUNK_SIZE)];
+            for (int i = 0; i < chunks.length; i++) {
+                long position = i * CHUNK_SIZE;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(CHUNK_SIZE, size - position));
+            }
+            return new MappedFile(channel, chunks, size);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return The size of the file in bytes.
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * Copies bytes of the file into an array.
+     *
+     * @param position The position of the first byte.
+     * @param dst      The array.
+     * @return The number of copied bytes, which is less than the length of the array at the end of the file.
+     */
+    int read(long position, byte[] dst) {
+        int length = (int) Math.min(dst.length, size - position);
+        int copied = 0;
+        while (copied < length) {
+            long p = position + copied;
+            ByteBuffer chunk = chunks[(int) (p >>> CHUNK_BITS)].duplicate();
+            chunk.position((int) (p & (CHUNK_SIZE - 1)));
+            int n = Math.min(length - copied, chunk.remaining());
+            chunk.get(dst, copied, n);
+            copied += n;
+        }
+        return length;
+    }
+
+    /**
+     * @return An input stream of the whole file.
+     */
+    InputStream newInputStream() {
+        List<InputStream> inputStreams = new ArrayList<>(chunks.length);
+        for (MappedByteBuffer chunk : chunks) {
+            inputStreams.add(new ByteBufferBackedInputStream(chunk.duplicate()));
+        }
+        return new SequenceInputStream(Collections.enumeration(inputStreams));
+    }
+
+    /**
+     * @param offset The offset of the range.
+     * @param length The length of the range.
+     * @return An input stream of a range of the file.
+     * @throws IOException If the range could not be mapped.
+     */
+    InputStream newInputStream(long offset, int length) throws IOException {
+        int chunk = (int) (offset / CHUNK_SIZE);
+        int position = (int) (offset % CHUNK_SIZE);
+        ByteBuffer buffer;
+        if (chunk < chunks.length && position + (long) length <= chunks[chunk].capacity()) {
+            buffer = chunks[chunk].duplicate();
+            buffer.position(position).limit(position + length);
+        } else {
+            // The range crosses the border of two chunks.
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        }
+        return new ByteBufferBackedInputStream(buffer);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
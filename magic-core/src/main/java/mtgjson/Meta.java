@@ -0,0 +1,85 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+import java.beans.ConstructorProperties;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * The Meta data model describes the version of the MTGJSON files.
+ */
+public final class Meta {
+
+    private final LocalDate date;
+
+    private final String version;
+
+    @ConstructorProperties({"date", "version"})
+    public Meta(LocalDate date, String version) {
+        this.date = date;
+        this.version = version;
+    }
+
+    /**
+     * Gets the date of the build of the files.
+     *
+     * @return The date of the build of the files.
+     */
+    public final LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * Gets the version of the files, e.g. "5.2.0+20220119".
+     *
+     * @return The version of the files.
+     */
+    public final String getVersion() {
+        return version;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof Meta)) {
+            return false;
+        }
+        Meta other = (Meta) o;
+        return Objects.equals(date, other.date) && Objects.equals(version, other.version);
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(date, version);
+    }
+
+    @Override
+    public final String toString() {
+        return version + " (" + date + ')';
+    }
+}
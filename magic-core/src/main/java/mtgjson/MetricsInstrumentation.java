@@ -0,0 +1,160 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An instrumentation, which aggregates the measurements in counters and histograms, e.g. to be exposed by a metrics
+ * library or logged after an import.
+ *
+ * <p>The counters are</p>
+ * <ul>
+ * <li>{@code parse.sets}, {@code parse.cards} and {@code parse.bytes}: The parsed sets, cards and bytes.</li>
+ * <li>{@code insert.rows.<table>}: The inserted rows per table, e.g. {@code insert.rows.CARD}.</li>
+ * </ul>
+ *
+ * <p>The histograms are</p>
+ * <ul>
+ * <li>{@code parse.time}: The parse time per set in nanoseconds.</li>
+ * <li>{@code insert.time.<table>}: The time per insert statement per table in nanoseconds.</li>
+ * <li>{@code query.time.<method>}: The latency per query method of the {@link DatabaseUtil} in nanoseconds, e.g.
+ * {@code query.time.findSets}.</li>
+ * <li>{@code query.count.<method>}: The number of SQL statements per call of a query method, i.e. its fan-out into
+ * child queries.</li>
+ * <li>{@code connection.wait}: The time to obtain a connection in nanoseconds.</li>
+ * </ul>
+ *
+ * <p>Throughputs, e.g. bytes or inserted rows per second, are derived with
+ * {@link #getThroughput(String, String)}.</p>
+ *
+ * <p>The instrumentation is thread-safe.</p>
+ */
+public final class MetricsInstrumentation implements Instrumentation {
+
+    private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    @Override
+    public void setParsed(String code, int cards, long bytes, long nanos) {
+        count("parse.sets", 1);
+        count("parse.cards", cards);
+        if (bytes >= 0) {
+            count("parse.bytes", bytes);
+        }
+        record("parse.time", nanos);
+    }
+
+    @Override
+    public void rowsInserted(String table, int rows, long nanos) {
+        count("insert.rows." + table, rows);
+        record("insert.time." + table, nanos);
+    }
+
+    @Override
+    public void queryExecuted(String method, int queries, long nanos) {
+        record("query.time." + method, nanos);
+        record("query.count." + method, queries);
+    }
+
+    @Override
+    public void connectionAcquired(long nanos) {
+        record("connection.wait", nanos);
+    }
+
+    private void count(String name, long value) {
+        counters.computeIfAbsent(name, n -> new LongAdder()).add(value);
+    }
+
+    private void record(String name, long value) {
+        histograms.computeIfAbsent(name, n -> new Histogram()).record(value);
+    }
+
+    /**
+     * Gets the value of a counter.
+     *
+     * @param name The name of the counter, e.g. "parse.sets".
+     * @return The value or 0, if nothing has been counted.
+     */
+    public final long getCount(String name) {
+        LongAdder counter = counters.get(name);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    /**
+     * Gets a histogram.
+     *
+     * @param name The name of the histogram, e.g. "query.time.findSets".
+     * @return The histogram, which is empty, if nothing has been recorded.
+     */
+    public final Histogram getHistogram(String name) {
+        Histogram histogram = histograms.get(name);
+        return histogram != null ? histogram : new Histogram();
+    }
+
+    /**
+     * Gets the throughput of a counter per second of the time, which has been recorded in a histogram, e.g. the bytes
+     * per second of parse time or the inserted rows of a table per second of insert time.
+     *
+     * @param counter The name of the counter, e.g. "parse.bytes".
+     * @param time    The name of the histogram of the time in nanoseconds, e.g. "parse.time".
+     * @return The throughput per second or 0, if no time has been recorded.
+     */
+    public final double getThroughput(String counter, String time) {
+        long nanos = getHistogram(time).getSum();
+        return nanos > 0 ? getCount(counter) * 1e9 / nanos : 0;
+    }
+
+    /**
+     * Gets all counters.
+     *
+     * @return The values of the counters by their names, in the order of the names.
+     */
+    public final Map<String, Long> getCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        counters.forEach((name, counter) -> counts.put(name, counter.sum()));
+        return Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * Gets all histograms.
+     *
+     * @return The histograms by their names, in the order of the names.
+     */
+    public final Map<String, Histogram> getHistograms() {
+        return Collections.unmodifiableMap(new TreeMap<>(histograms));
+    }
+
+    @Override
+    public final String toString() {
+        return getCounts() + " " + getHistograms();
+    }
+}
@@ -24,48 +24,302 @@
 
 package mtgjson;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
+/**
+ * Parses the MTGJSON files.
+ *
+ * <p>All input may be compressed with gzip, xz, bzip2 or ZIP, as distributed by MTGJSON. The compression is detected
+ * from the magic bytes and the input is decompressed on a separate thread, which overlaps with parsing. Closing the
+ * returned streams stops the decompression.</p>
+ */
 public final class MtgJsonParser {
 
-    private static final ObjectReader OBJECT_READER;
-
-    static {
-        ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        mapper.registerModule(new JavaTimeModule());
-        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        OBJECT_READER = mapper.reader();
-    }
+    static final ObjectMapper OBJECT_MAPPER = ParseOptions.DEFAULT.getObjectMapper();
 
     private MtgJsonParser() {
     }
 
     public static Stream<Set> parseAllPrintings(InputStream inputStream) throws IOException {
-        return parse(inputStream, true);
+        return parseAllPrintings(inputStream, ParseOptions.DEFAULT);
+    }
+
+    /**
+     * Parses an AllPrintings file.
+     *
+     * @param inputStream The input stream of the AllPrintings file.
+     * @param options     The options, which e.g. restrict the parsed properties.
+     * @return The stream of sets.
+     * @throws IOException If the file could not be read.
+     */
+    public static Stream<Set> parseAllPrintings(InputStream inputStream, ParseOptions options) throws IOException {
+        return parse(inputStream, true, options);
+    }
+
+    /**
+     * Parses an AllPrintings file, so that the sets can be deserialized in parallel.
+     *
+     * @param path The path of the AllPrintings file.
+     * @return The parallel stream of sets, in the order of the file.
+     * @throws IOException If the file could not be read or is malformed.
+     * @see #parseAllPrintings(Path, ParseOptions)
+     */
+    public static Stream<Set> parseAllPrintings(Path path) throws IOException {
+        return parseAllPrintings(path, ParseOptions.DEFAULT);
+    }
+
+    /**
+     * Parses an AllPrintings file, so that the sets can be deserialized in parallel.
+     *
+     * <p>The file is memory-mapped and the byte range of each set within the {@code data} object is taken from its
+     * {@linkplain AllPrintingsIndex index}, which is built by a structural scan, unless it is
+     * {@linkplain ParseOptions.Builder#storeIndex(boolean) stored}. The returned stream is parallel and splits its
+     * work by these ranges, so that the sets are deserialized concurrently on the common fork-join pool. Use
+     * {@link Stream#sequential()} to deserialize them on the calling thread instead. The stream must be closed, in
+     * order to close the file.</p>
+     *
+     * <p>Compressed files cannot be mapped. They are parsed sequentially from a stream instead.</p>
+     *
+     * @param path    The path of the AllPrintings file.
+     * @param options The options, which e.g. restrict the parsed properties.
+     * @return The parallel stream of sets, in the order of the file.
+     * @throws IOException If the file could not be read or is malformed.
+     */
+    public static Stream<Set> parseAllPrintings(Path path, ParseOptions options) throws IOException {
+        if (isCompressed(path)) {
+            InputStream inputStream = Files.newInputStream(path);
+            try {
+                return parseAllPrintings(inputStream, options).onClose(() -> {
+                    try {
+                        inputStream.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (IOException | RuntimeException e) {
+                inputStream.close();
+                throw e;
+            }
+        }
+        AllPrintingsIndex index = loadIndex(path, options);
+        MappedFile file = MappedFile.open(path);
+        ObjectReader reader = options.newReader(Set.class);
+        return StreamSupport.stream(new SetRangeSpliterator(file, index, reader, options.getInstrumentation(), 0,
+                        index.size()), true)
+                .onClose(() -> {
+                    try {
+                        file.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Lists the sets of an AllPrintings file, whose cards and tokens are parsed on first access.
+     *
+     * @param path The path of the AllPrintings file.
+     * @return The lazy sets, in the order of the file.
+     * @throws IOException If the file could not be read or is malformed.
+     * @see #parseAllPrintingsLazily(Path, ParseOptions)
+     */
+    public static List<Set> parseAllPrintingsLazily(Path path) throws IOException {
+        return parseAllPrintingsLazily(path, ParseOptions.DEFAULT);
+    }
+
+    /**
+     * Lists the sets of an AllPrintings file, whose cards and tokens are parsed on first access. Only the metadata of
+     * the sets is parsed immediately, their cards and tokens are skipped at the token level.
+     *
+     * <p>The first call of {@link Set#getCards()} or {@link Set#getTokens()} parses the byte range of the set, which
+     * is taken from the {@linkplain AllPrintingsIndex index} of the file. It throws an
+     * {@link java.io.UncheckedIOException}, if the file could not be read or has changed since the sets were
+     * listed.</p>
+     *
+     * <p>Compressed files have no index. All of their sets are parsed immediately instead.</p>
+     *
+     * @param path    The path of the AllPrintings file.
+     * @param options The options, which e.g. restrict the parsed properties of the cards.
+     * @return The lazy sets, in the order of the file.
+     * @throws IOException If the file could not be read or is malformed.
+     */
+    public static List<Set> parseAllPrintingsLazily(Path path, ParseOptions options) throws IOException {
+        if (isCompressed(path)) {
+            try (Stream<Set> sets = parseAllPrintings(path, options)) {
+                return sets.collect(Collectors.toList());
+            }
+        }
+        AllPrintingsIndex index = loadIndex(path, options);
+        ObjectReader reader = options.newMetadataReader();
+        List<Set> sets = new ArrayList<>(index.size());
+        try (MappedFile file = MappedFile.open(path)) {
+            for (int i = 0; i < index.size(); i++) {
+                int position = i;
+                Set metadata = reader.readValue(file.newInputStream(index.getOffset(i), index.getLength(i)));
+                sets.add(new Set(metadata, () -> loadSet(path, index, position, options)));
+            }
+        }
+        return sets;
+    }
+
+    private static Set loadSet(Path path, AllPrintingsIndex index, int i, ParseOptions options) {
+        try {
+            if (!index.isUpToDate(path)) {
+                throw new IOException(path + " has changed, since its sets were listed.");
+            }
+            try (MappedFile file = MappedFile.open(path)) {
+                return readSet(options.newReader(Set.class), file.newInputStream(index.getOffset(i),
+                        index.getLength(i)), index.getLength(i), options.getInstrumentation());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Parses only the meta data of an MTGJSON file, i.e. the version of the release, which is at the start of the
+     * file. The rest of the file is not read.
+     *
+     * @param path The path of the file, e.g. an AllPrintings or set file.
+     * @return The meta data or empty, if the file does not start with it.
+     * @throws IOException If the file could not be read.
+     */
+    public static Optional<Meta> parseMeta(Path path) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(path);
+             JsonParser parser = OBJECT_MAPPER.createParser(Compression.decompress(inputStream))) {
+            // move to start of document
+            parser.nextToken();
+            // move to first element
+            if (parser.nextValue() == JsonToken.START_OBJECT && "meta".equals(parser.getCurrentName())) {
+                return Optional.of(OBJECT_MAPPER.readValue(parser, Meta.class));
+            }
+            return Optional.empty();
+        }
     }
 
     public static Optional<Set> parseSet(InputStream inputStream) throws IOException {
-        return parse(inputStream, false).findFirst();
+        return parseSet(inputStream, ParseOptions.DEFAULT);
+    }
+
+    /**
+     * Parses a set file.
+     *
+     * @param inputStream The input stream of the set file.
+     * @param options     The options, which e.g. restrict the parsed properties.
+     * @return The set.
+     * @throws IOException If the file could not be read.
+     */
+    public static Optional<Set> parseSet(InputStream inputStream, ParseOptions options) throws IOException {
+        try (Stream<Set> sets = parse(inputStream, false, options)) {
+            return sets.findFirst();
+        }
+    }
+
+    /**
+     * Parses a set file, which is memory-mapped instead of read through a stream.
+     *
+     * @param path The path of the set file.
+     * @return The set.
+     * @throws IOException If the file could not be read or is malformed.
+     */
+    public static Optional<Set> parseSet(Path path) throws IOException {
+        return parseSet(path, ParseOptions.DEFAULT);
+    }
+
+    /**
+     * Parses a set file, which is memory-mapped instead of read through a stream.
+     *
+     * @param path    The path of the set file.
+     * @param options The options, which e.g. restrict the parsed properties.
+     * @return The set.
+     * @throws IOException If the file could not be read or is malformed.
+     */
+    public static Optional<Set> parseSet(Path path, ParseOptions options) throws IOException {
+        try (MappedFile file = MappedFile.open(path)) {
+            return parseSet(file.newInputStream(), options);
+        }
+    }
+
+    /**
+     * Parses a single set of an AllPrintings file.
+     *
+     * @param path The path of the AllPrintings file.
+     * @param code The set code, e.g. "MRD".
+     * @return The set or empty, if the file contains no set with the code.
+     * @throws IOException If the file could not be read or is malformed.
+     * @see #parseSet(Path, String, ParseOptions)
+     */
+    public static Optional<Set> parseSet(Path path, String code) throws IOException {
+        return parseSet(path, code, ParseOptions.DEFAULT);
     }
 
-    private static Stream<Set> parse(InputStream inputStream, boolean skip) throws IOException {
+    /**
+     * Parses a single set of an AllPrintings file. Only the set itself is read, by means of the
+     * {@linkplain AllPrintingsIndex index} of the file, which is built by a structural scan, unless it is
+     * {@linkplain ParseOptions.Builder#storeIndex(boolean) stored}.
+     *
+     * <p>Compressed files have no index. They are parsed up to the set instead.</p>
+     *
+     * @param path    The path of the AllPrintings file.
+     * @param code    The set code, e.g. "MRD".
+     * @param options The options, which e.g. restrict the parsed properties.
+     * @return The set or empty, if the file contains no set with the code.
+     * @throws IOException If the file could not be read or is malformed.
+     */
+    public static Optional<Set> parseSet(Path path, String code, ParseOptions options) throws IOException {
+        if (isCompressed(path)) {
+            try (Stream<Set> sets = parseAllPrintings(path, options)) {
+                return sets.filter(set -> set.getCode().equals(code)).findFirst();
+            }
+        }
+        AllPrintingsIndex index = loadIndex(path, options);
+        int i = index.indexOf(code);
+        if (i < 0) {
+            return Optional.empty();
+        }
+        try (MappedFile file = MappedFile.open(path)) {
+            ObjectReader reader = options.newReader(Set.class);
+            return Optional.of(readSet(reader, file.newInputStream(index.getOffset(i), index.getLength(i)),
+                    index.getLength(i), options.getInstrumentation()));
+        }
+    }
 
-        JsonParser parser = OBJECT_READER.createParser(inputStream);
+    private static AllPrintingsIndex loadIndex(Path path, ParseOptions options) throws IOException {
+        return options.isStoreIndex()
+                ? AllPrintingsIndex.load(path, AllPrintingsIndex.indexPath(path))
+                : AllPrintingsIndex.load(path);
+    }
+
+    private static boolean isCompressed(Path path) throws IOException {
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(path))) {
+            return Compression.detect(inputStream) != Compression.NONE;
+        }
+    }
+
+    private static Stream<Set> parse(InputStream inputStream, boolean skip, ParseOptions options) throws IOException {
+
+        InputStream decompressed = Compression.decompress(inputStream);
+        ObjectReader reader = options.newReader(Set.class);
+        JsonParser parser = reader.createParser(decompressed);
 
         // move to start of document
         parser.nextValue();
@@ -77,23 +331,141 @@ public final class MtgJsonParser {
         if (skip) {
             parser.nextValue();
         }
-        return StreamSupport.stream(new MtgJsonSpliterator(parser), false);
+        // Closing the stream stops the decompression, but leaves the input stream of the caller open.
+        return StreamSupport.stream(new MtgJsonSpliterator(parser, reader, options.getInstrumentation()), false)
+                .onClose(() -> {
+                    if (decompressed instanceof DecompressingInputStream) {
+                        ((DecompressingInputStream) decompressed).close();
+                    }
+                });
+    }
+
+    /**
+     * Reads a set and reports its parse time to the instrumentation.
+     */
+    private static Set readSet(ObjectReader reader, InputStream inputStream, long bytes,
+                               Instrumentation instrumentation) throws IOException {
+        long start = System.nanoTime();
+        Set set = reader.readValue(inputStream);
+        setParsed(instrumentation, set, bytes, start);
+        return set;
+    }
+
+    private static void setParsed(Instrumentation instrumentation, Set set, long bytes, long start) {
+        long nanos = System.nanoTime() - start;
+        if (set != null) {
+            instrumentation.setParsed(set.getCode(), set.getCards() != null ? set.getCards().size() : 0, bytes, nanos);
+        }
+    }
+
+    /**
+     * Deserializes the sets of an AllPrintings file by their byte ranges, which can be read concurrently from the
+     * mapped file. Splits at the middle byte, so that both halves have about the same amount of work, even though the
+     * sets differ in size by orders of magnitude.
+     */
+    private static final class SetRangeSpliterator implements Spliterator<Set> {
+
+        private final MappedFile file;
+
+        private final AllPrintingsIndex index;
+
+        private final ObjectReader reader;
+
+        private final Instrumentation instrumentation;
+
+        private int origin;
+
+        private final int fence;
+
+        private SetRangeSpliterator(MappedFile file, AllPrintingsIndex index, ObjectReader reader,
+                                    Instrumentation instrumentation, int origin, int fence) {
+            this.file = file;
+            this.index = index;
+            this.reader = reader;
+            this.instrumentation = instrumentation;
+            this.origin = origin;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Set> action) {
+            if (origin >= fence) {
+                return false;
+            }
+            Set set = readSet(origin++);
+            action.accept(set);
+            return true;
+        }
+
+        private Set readSet(int i) {
+            try {
+                return MtgJsonParser.readSet(reader, file.newInputStream(index.getOffset(i), index.getLength(i)),
+                        index.getLength(i), instrumentation);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Spliterator<Set> trySplit() {
+            if (fence - origin < 2) {
+                return null;
+            }
+            long start = index.getOffset(origin);
+            long middleOffset = start + (index.getOffset(fence - 1) + index.getLength(fence - 1) - start) / 2;
+            // Binary search for the first set at or behind the middle, so that both halves contain at least one set.
+            int low = origin + 1;
+            int high = fence - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (index.getOffset(mid) < middleOffset) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            Spliterator<Set> prefix = new SetRangeSpliterator(file, index, reader, instrumentation, origin, low);
+            origin = low;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return (long) fence - origin;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.DISTINCT
+                    | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+        }
     }
 
     private static final class MtgJsonSpliterator extends Spliterators.AbstractSpliterator<Set> {
 
         private final JsonParser parser;
 
-        private MtgJsonSpliterator(JsonParser parser) {
+        private final ObjectReader reader;
+
+        private final Instrumentation instrumentation;
+
+        private MtgJsonSpliterator(JsonParser parser, ObjectReader reader, Instrumentation instrumentation) {
             super(Long.MAX_VALUE, Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE);
             this.parser = parser;
+            this.reader = reader;
+            this.instrumentation = instrumentation;
         }
 
         @Override
         public boolean tryAdvance(Consumer<? super Set> action) {
             try {
                 if (parser.nextValue() != null) {
-                    Set set = parser.readValueAs(Set.class);
+                    long start = System.nanoTime();
+                    long offset = parser.getTokenLocation().getByteOffset();
+                    Set set = reader.readValue(parser);
+                    // The offsets are those of the decompressed bytes, or -1, if the parser reads characters.
+                    long end = parser.getCurrentLocation().getByteOffset();
+                    setParsed(instrumentation, set, offset >= 0 && end >= 0 ? end - offset : -1, start);
                     if (set != null) {
                         action.accept(set);
                     }
@@ -0,0 +1,190 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+import java.util.List;
+
+/**
+ * The gameplay data of a card, which all its printings share, e.g. its rules text, type, mana cost and legalities.
+ *
+ * <p>Oracle cards are identified by the {@linkplain Identifiers#getScryfallOracleId() Scryfall oracle id} and the face
+ * name of a card, since the faces of a multi-face card have the same oracle id, but different rules text. The
+ * {@link MtgJsonParser} shares one instance among all printings of a card, e.g. the dozens of printings of Lightning
+ * Bolt, unless this is {@linkplain ParseOptions.Builder#shareOracleCards(boolean) disabled}.</p>
+ *
+ * @see AbstractCard#getOracleCard()
+ */
+public final class OracleCard {
+
+    private final String faceName;
+
+    private final List<String> keywords;
+
+    private final Legalities legalities;
+
+    private final String manaCost;
+
+    private final String name;
+
+    private final String power;
+
+    private final List<Ruling> rulings;
+
+    private final String scryfallOracleId;
+
+    private final String text;
+
+    private final String toughness;
+
+    private final String type;
+
+    OracleCard(String faceName,
+               List<String> keywords,
+               Legalities legalities,
+               String manaCost,
+               String name,
+               String power,
+               List<Ruling> rulings,
+               String scryfallOracleId,
+               String text,
+               String toughness,
+               String type) {
+        this.faceName = faceName;
+        this.keywords = keywords;
+        this.legalities = legalities;
+        this.manaCost = manaCost;
+        this.name = name;
+        this.power = power;
+        this.rulings = rulings;
+        this.scryfallOracleId = scryfallOracleId;
+        this.text = text;
+        this.toughness = toughness;
+        this.type = type;
+    }
+
+    /**
+     * The name on the face of the card.
+     *
+     * @return The name on the face of the card or null, if the card has a single face.
+     */
+    public final String getFaceName() {
+        return faceName;
+    }
+
+    /**
+     * A list of keywords found on the card.
+     *
+     * @return A list of keywords found on the card.
+     */
+    public final List<String> getKeywords() {
+        return keywords;
+    }
+
+    /**
+     * A list of play formats the card the card is legal in.
+     *
+     * @return A list of play formats the card the card is legal in, which is null for tokens.
+     */
+    public final Legalities getLegalities() {
+        return legalities;
+    }
+
+    /**
+     * The mana cost of the card.
+     *
+     * @return The mana cost of the card.
+     */
+    public final String getManaCost() {
+        return manaCost;
+    }
+
+    /**
+     * The name of the card. Cards with multiple faces, like "Split" and "Meld" cards are given a delimiter.
+     *
+     * @return The name of the card.
+     */
+    public final String getName() {
+        return name;
+    }
+
+    /**
+     * The power of the card.
+     *
+     * @return The power of the card.
+     */
+    public final String getPower() {
+        return power;
+    }
+
+    /**
+     * The official rulings of the card. See the Rulings data model.
+     *
+     * @return The official rulings of the card, which are null for tokens.
+     */
+    public final List<Ruling> getRulings() {
+        return rulings;
+    }
+
+    /**
+     * The Scryfall oracle id, which all printings of the card have in common.
+     *
+     * @return The Scryfall oracle id or null, if it is unknown.
+     */
+    public final String getScryfallOracleId() {
+        return scryfallOracleId;
+    }
+
+    /**
+     * The rules text of the card.
+     *
+     * @return The rules text of the card.
+     */
+    public final String getText() {
+        return text;
+    }
+
+    /**
+     * The toughness of the card.
+     *
+     * @return The toughness of the card.
+     */
+    public final String getToughness() {
+        return toughness;
+    }
+
+    /**
+     * Type of the card as visible, including any supertypes and subtypes.
+     *
+     * @return Type of the card as visible, including any supertypes and subtypes.
+     */
+    public final String getType() {
+        return type;
+    }
+
+    @Override
+    public final String toString() {
+        return faceName != null ? faceName : name;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.std.DelegatingDeserializer;
+
+/**
+ * A pool of canonical {@linkplain OracleCard oracle cards}, which lives as long as a single parse.
+ *
+ * <p>Each printing of a card repeats the gameplay data of the card. The {@linkplain #MODIFIER deserializers} replace
+ * the oracle card of each parsed card by the first one with the same Scryfall oracle id and face name, so that all
+ * printings share it and the duplicates can be garbage collected. Cards without an oracle id keep their own.</p>
+ *
+ * <p>Set cards and tokens are pooled apart, since the oracle card of a token lacks the legalities, rulings and mana
+ * cost, but may have the oracle id of a set card.</p>
+ *
+ * <p>Like the {@link StringPool}, the pool is passed to the deserializers as an attribute of the object reader, keyed
+ * by this class. It is thread-safe, since sets may be deserialized in parallel.</p>
+ */
+final class OracleCardPool {
+
+    /**
+     * Wraps the deserializers of the cards, so that they share the oracle cards, if the reader has a pool.
+     */
+    static final BeanDeserializerModifier MODIFIER = new SharingDeserializerModifier();
+
+    private final Map<List<String>, OracleCard> oracleCards = new ConcurrentHashMap<>();
+
+    /**
+     * Replaces the oracle card of a card by the canonical instance.
+     *
+     * @param card The card, which has not been published yet.
+     */
+    void share(AbstractCard card) {
+        OracleCard oracleCard = card.getOracleCard();
+        if (oracleCard.getScryfallOracleId() != null) {
+            OracleCard canonical = oracleCards.putIfAbsent(
+                    Arrays.asList(card instanceof TokenCard ? "token" : "card", oracleCard.getScryfallOracleId(),
+                            oracleCard.getFaceName()), oracleCard);
+            if (canonical != null) {
+                card.setOracleCard(canonical);
+            }
+        }
+    }
+
+    private static final class SharingDeserializerModifier extends BeanDeserializerModifier {
+
+        @Override
+        public JsonDeserializer<?> modifyDeserializer(DeserializationConfig config, BeanDescription beanDesc,
+                                                      JsonDeserializer<?> deserializer) {
+            return AbstractCard.class.isAssignableFrom(beanDesc.getBeanClass())
+                    ? new SharingDeserializer(deserializer)
+                    : deserializer;
+        }
+    }
+
+    private static final class SharingDeserializer extends DelegatingDeserializer {
+
+        private static final long serialVersionUID = 1L;
+
+        private SharingDeserializer(JsonDeserializer<?> delegate) {
+            super(delegate);
+        }
+
+        @Override
+        protected JsonDeserializer<?> newDelegatingInstance(JsonDeserializer<?> newDelegatee) {
+            return new SharingDeserializer(newDelegatee);
+        }
+
+        @Override
+        public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            Object card = super.deserialize(p, ctxt);
+            Object pool = ctxt.getAttribute(OracleCardPool.class);
+            if (card instanceof AbstractCard && pool != null) {
+                ((OracleCardPool) pool).share((AbstractCard) card);
+            }
+            return card;
+        }
+    }
+}
@@ -0,0 +1,396 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+import java.beans.ConstructorProperties;
+import java.lang.reflect.Constructor;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Options, which control how much of the MTGJSON files is materialized by the {@link MtgJsonParser}.
+ *
+ * <p>Properties, which are not needed, can be excluded from parsing. Their values are skipped at the token level and
+ * are never allocated, which saves both parse time and heap. Excluded properties are null (or false, 0) in the parsed
+ * cards and sets.</p>
+ *
+ * <pre>{@code
+ * ParseOptions options = ParseOptions.builder()
+ *         .cardProperties("name", "uuid", "manaCost", "types", "colors", "legalities", "identifiers")
+ *         .translations(false)
+ *         .build();
+ * }</pre>
+ */
+public final class ParseOptions {
+
+    private static final java.util.Set<String> CARD_PROPERTIES;
+
+    static {
+        java.util.Set<String> cardProperties = new LinkedHashSet<>();
+        cardProperties.addAll(creatorProperties(SetCard.class));
+        cardProperties.addAll(creatorProperties(TokenCard.class));
+        CARD_PROPERTIES = Collections.unmodifiableSet(cardProperties);
+    }
+
+    /**
+     * The default options, which parse all properties.
+     */
+    public static final ParseOptions DEFAULT = builder().build();
+
+    private final java.util.Set<String> cardProperties;
+
+    private final boolean tokens;
+
+    private final boolean translations;
+
+    private final boolean internStrings;
+
+    private final boolean shareOracleCards;
+
+    private final boolean storeIndex;
+
+    private final Instrumentation instrumentation;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectMapper metadataMapper;
+
+    private ParseOptions(Builder builder) {
+        this.cardProperties = builder.cardProperties != null
+                ? Collections.unmodifiableSet(new LinkedHashSet<>(builder.cardProperties))
+                : null;
+        this.tokens = builder.tokens;
+        this.translations = builder.translations;
+        this.internStrings = builder.internStrings;
+        this.shareOracleCards = builder.shareOracleCards;
+        this.storeIndex = builder.storeIndex;
+        this.instrumentation = builder.instrumentation;
+
+        ObjectMapper mapper = newObjectMapper(internStrings, shareOracleCards);
+        // Ignored properties are skipped with JsonParser.skipChildren() by the deserializers. Since the deserializers
+        // are cached per mapper, each options instance has its own mapper.
+        if (cardProperties != null) {
+            ignore(mapper, SetCard.class, cardProperties);
+            ignore(mapper, TokenCard.class, cardProperties);
+        }
+        java.util.Set<String> ignoredSetProperties = new LinkedHashSet<>();
+        if (!tokens) {
+            ignoredSetProperties.add("tokens");
+        }
+        if (!translations) {
+            ignoredSetProperties.add("translations");
+        }
+        mapper.configOverride(Set.class).setIgnorals(
+                JsonIgnoreProperties.Value.forIgnoredProperties(ignoredSetProperties).withIgnoreUnknown());
+        this.objectMapper = mapper;
+
+        // The metadata of the sets never contains cards, so their strings and oracle cards are not shared.
+        java.util.Set<String> ignoredMetadataProperties = new LinkedHashSet<>(ignoredSetProperties);
+        ignoredMetadataProperties.add("cards");
+        ignoredMetadataProperties.add("tokens");
+        this.metadataMapper = newObjectMapper(false, false);
+        metadataMapper.configOverride(Set.class).setIgnorals(
+                JsonIgnoreProperties.Value.forIgnoredProperties(ignoredMetadataProperties).withIgnoreUnknown());
+    }
+
+    private static ObjectMapper newObjectMapper(boolean internStrings, boolean shareOracleCards) {
+        ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (internStrings) {
+            mapper.registerModule(new SimpleModule("StringPool")
+                    .addDeserializer(String.class, StringPool.DESERIALIZER));
+        }
+        if (shareOracleCards) {
+            mapper.registerModule(new SimpleModule("OracleCardPool")
+                    .setDeserializerModifier(OracleCardPool.MODIFIER));
+        }
+        return mapper;
+    }
+
+    /**
+     * Creates a builder, which by default includes all properties.
+     *
+     * @return The builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static java.util.Set<String> creatorProperties(Class<?> type) {
+        for (Constructor<?> constructor : type.getConstructors()) {
+            ConstructorProperties properties = constructor.getAnnotation(ConstructorProperties.class);
+            if (properties != null) {
+                return new LinkedHashSet<>(Arrays.asList(properties.value()));
+            }
+        }
+        throw new IllegalStateException("No @ConstructorProperties on " + type);
+    }
+
+    private static void ignore(ObjectMapper mapper, Class<?> type, java.util.Set<String> includedProperties) {
+        java.util.Set<String> ignoredProperties = creatorProperties(type);
+        ignoredProperties.removeAll(includedProperties);
+        mapper.configOverride(type).setIgnorals(
+                JsonIgnoreProperties.Value.forIgnoredProperties(ignoredProperties).withIgnoreUnknown());
+    }
+
+    /**
+     * Gets the card properties, which are parsed.
+     *
+     * @return The names of the parsed card properties or null, if all properties are parsed.
+     */
+    public final java.util.Set<String> getCardProperties() {
+        return cardProperties;
+    }
+
+    /**
+     * Gets whether the tokens of the sets are parsed.
+     *
+     * @return True, if the tokens are parsed.
+     */
+    public final boolean isTokens() {
+        return tokens;
+    }
+
+    /**
+     * Gets whether the translated set names are parsed.
+     *
+     * @return True, if the translated set names are parsed.
+     */
+    public final boolean isTranslations() {
+        return translations;
+    }
+
+    /**
+     * Gets whether repeated strings of the cards (e.g. artist, type or power) are shared by the parsed cards.
+     *
+     * @return True, if the strings are interned.
+     */
+    public final boolean isInternStrings() {
+        return internStrings;
+    }
+
+    /**
+     * Gets whether the printings of a card share a single {@link OracleCard}.
+     *
+     * @return True, if the oracle cards are shared.
+     */
+    public final boolean isShareOracleCards() {
+        return shareOracleCards;
+    }
+
+    /**
+     * Gets whether the index of an AllPrintings file is stored next to it, so that it is built only once.
+     *
+     * @return True, if the index is stored.
+     */
+    public final boolean isStoreIndex() {
+        return storeIndex;
+    }
+
+    /**
+     * Gets the instrumentation, which receives the parse time of each set.
+     *
+     * @return The instrumentation, which is {@link Instrumentation#NOOP} by default.
+     */
+    public final Instrumentation getInstrumentation() {
+        return instrumentation;
+    }
+
+    ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * Creates an object reader for a single parse, which shares a new string pool, if strings are interned, and a
+     * new oracle card pool, if oracle cards are shared.
+     *
+     * @param type The type to read.
+     * @return The object reader.
+     */
+    ObjectReader newReader(Class<?> type) {
+        ObjectReader reader = objectMapper.readerFor(type);
+        if (internStrings) {
+            reader = reader.withAttribute(StringPool.class, new StringPool());
+        }
+        if (shareOracleCards) {
+            reader = reader.withAttribute(OracleCardPool.class, new OracleCardPool());
+        }
+        return reader;
+    }
+
+    /**
+     * Creates an object reader for the metadata of sets, which skips their cards and tokens.
+     *
+     * @return The object reader.
+     */
+    ObjectReader newMetadataReader() {
+        return metadataMapper.readerFor(Set.class);
+    }
+
+    /**
+     * Builds {@link ParseOptions}.
+     */
+    public static final class Builder {
+
+        private java.util.Set<String> cardProperties;
+
+        private boolean tokens = true;
+
+        private boolean translations = true;
+
+        private boolean internStrings = true;
+
+        private boolean shareOracleCards = true;
+
+        private boolean storeIndex;
+
+        private Instrumentation instrumentation = Instrumentation.NOOP;
+
+        private Builder() {
+        }
+
+        /**
+         * Restricts the parsed properties of the cards (both set cards and tokens) to the given ones.
+         *
+         * @param properties The names of the properties as in the JSON files, e.g. "name" or "manaCost".
+         * @return This builder.
+         * @throws IllegalArgumentException If a property is unknown.
+         */
+        public Builder cardProperties(String... properties) {
+            return cardProperties(Arrays.asList(properties));
+        }
+
+        /**
+         * Restricts the parsed properties of the cards (both set cards and tokens) to the given ones.
+         *
+         * @param properties The names of the properties as in the JSON files, e.g. "name" or "manaCost".
+         * @return This builder.
+         * @throws IllegalArgumentException If a property is unknown.
+         */
+        public Builder cardProperties(Collection<String> properties) {
+            for (String property : properties) {
+                if (!CARD_PROPERTIES.contains(Objects.requireNonNull(property))) {
+                    throw new IllegalArgumentException("Unknown card property: " + property);
+                }
+            }
+            this.cardProperties = new LinkedHashSet<>(properties);
+            return this;
+        }
+
+        /**
+         * Sets whether the tokens of the sets are parsed. By default, they are.
+         *
+         * @param tokens True, if the tokens are parsed.
+         * @return This builder.
+         */
+        public Builder tokens(boolean tokens) {
+            this.tokens = tokens;
+            return this;
+        }
+
+        /**
+         * Sets whether the translated set names are parsed. By default, they are.
+         *
+         * @param translations True, if the translated set names are parsed.
+         * @return This builder.
+         */
+        public Builder translations(boolean translations) {
+            this.translations = translations;
+            return this;
+        }
+
+        /**
+         * Sets whether repeated strings of the cards (e.g. artist, type or power) are interned during a parse, so that
+         * the parsed cards share them. By default, they are.
+         *
+         * @param internStrings True, if the strings are interned.
+         * @return This builder.
+         */
+        public Builder internStrings(boolean internStrings) {
+            this.internStrings = internStrings;
+            return this;
+        }
+
+        /**
+         * Sets whether the printings of a card share a single {@link OracleCard} with the gameplay data (e.g. the
+         * rules text, rulings and legalities), which is identified by the Scryfall oracle id. By default, they do.
+         *
+         * @param shareOracleCards True, if the oracle cards are shared.
+         * @return This builder.
+         */
+        public Builder shareOracleCards(boolean shareOracleCards) {
+            this.shareOracleCards = shareOracleCards;
+            return this;
+        }
+
+        /**
+         * Sets whether the {@linkplain AllPrintingsIndex index} of an AllPrintings file, which is parsed from a path,
+         * is stored next to it (as {@link AllPrintingsIndex#indexPath(Path)}), so that later parses of the same file
+         * skip the structural scan. By default, it is not, i.e. the index is built in memory and nothing is written.
+         * If the index cannot be stored, e.g. in a read-only directory, parsing fails.
+         *
+         * @param storeIndex True, if the index is stored.
+         * @return This builder.
+         */
+        public Builder storeIndex(boolean storeIndex) {
+            this.storeIndex = storeIndex;
+            return this;
+        }
+
+        /**
+         * Sets the instrumentation, which receives the parse time, the number of cards and the number of bytes of
+         * each parsed set. By default, nothing is measured.
+         *
+         * @param instrumentation The instrumentation, e.g. a {@link MetricsInstrumentation}.
+         * @return This builder.
+         */
+        public Builder instrumentation(Instrumentation instrumentation) {
+            this.instrumentation = Objects.requireNonNull(instrumentation);
+            return this;
+        }
+
+        /**
+         * Builds the options.
+         *
+         * @return The options.
+         */
+        public ParseOptions build() {
+            return new ParseOptions(this);
+        }
+    }
+}
@@ -0,0 +1,342 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A cache of query results of the {@link DatabaseUtil}, which is bounded by the total number of cached cards.
+ *
+ * <p>The weight of an entry is the number of cards in its result, but at least 1, so that empty results are bounded as
+ * well. Once the total weight exceeds the maximum, the least recently used entries are evicted. Entries may expire a
+ * fixed time after they have been loaded. The whole cache is invalidated by the {@link DatabaseUtil}, whenever it
+ * modifies data, e.g. by an insert or a sync.</p>
+ *
+ * <pre>{@code
+ * QueryCache cache = QueryCache.builder()
+ *         .maximumWeight(50_000)
+ *         .expireAfterWrite(Duration.ofHours(1))
+ *         .build();
+ * DatabaseUtil databaseUtil = new DatabaseUtil(dataSource, cache);
+ * }</pre>
+ *
+ * <p>The cache is thread-safe. The cached results are unmodifiable lists, which are shared by all callers.</p>
+ */
+public final class QueryCache {
+
+    private final long maximumWeight;
+
+    private final long expireAfterWriteNanos;
+
+    // In access order, i.e. the least recently used entry is the first.
+    private final Map<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long weight;
+
+    // Incremented by each invalidation, so that results, which have been loaded before it, are not cached.
+    private long generation;
+
+    private long hitCount;
+
+    private long missCount;
+
+    private long evictionCount;
+
+    private long expirationCount;
+
+    private QueryCache(Builder builder) {
+        this.maximumWeight = builder.maximumWeight;
+        this.expireAfterWriteNanos = builder.expireAfterWrite != null
+                ? builder.expireAfterWrite.toNanos()
+                : Long.MAX_VALUE;
+    }
+
+    /**
+     * Creates a builder, which by default bounds the cache to {@value Builder#DEFAULT_MAXIMUM_WEIGHT} cards and lets
+     * entries never expire.
+     *
+     * @return The builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the cached result of a query or fetches and caches it.
+     *
+     * <p>The query is executed outside of the lock, so that concurrent misses of the same key may execute it more
+     * than once. The last result wins.</p>
+     *
+     * @param key   The key of the query, which must identify the query and its parameters.
+     * @param query The query.
+     * @return The unmodifiable result.
+     * @throws SQLException If the query failed.
+     */
+    @SuppressWarnings("unchecked")
+    <T> List<T> get(Object key, Query<T> query) throws SQLException {
+        long loadGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (System.nanoTime() - entry.loadTime < expireAfterWriteNanos) {
+                    hitCount++;
+                    return (List<T>) entry.result;
+                }
+                entries.remove(key);
+                weight -= entry.weight;
+                expirationCount++;
+            }
+            missCount++;
+            loadGeneration = generation;
+        }
+        List<T> result = List.copyOf(query.fetch());
+        Entry entry = new Entry(result, Math.max(1, result.size()), System.nanoTime());
+        synchronized (this) {
+            if (loadGeneration == generation && entry.weight <= maximumWeight) {
+                Entry previous = entries.put(key, entry);
+                if (previous != null) {
+                    weight -= previous.weight;
+                }
+                weight += entry.weight;
+                evict();
+            }
+        }
+        return result;
+    }
+
+    private void evict() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (weight > maximumWeight) {
+            Entry entry = iterator.next();
+            iterator.remove();
+            weight -= entry.weight;
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Removes all entries. Results, which are being loaded concurrently, are not cached.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        weight = 0;
+        generation++;
+    }
+
+    /**
+     * Gets the statistics of the cache, e.g. to tune its size.
+     *
+     * @return A snapshot of the statistics.
+     */
+    public synchronized Stats getStats() {
+        return new Stats(hitCount, missCount, evictionCount, expirationCount, entries.size(), weight);
+    }
+
+    /**
+     * A query, whose result is cached.
+     */
+    @FunctionalInterface
+    interface Query<T> {
+
+        List<T> fetch() throws SQLException;
+    }
+
+    private static final class Entry {
+
+        private final List<?> result;
+
+        private final int weight;
+
+        private final long loadTime;
+
+        private Entry(List<?> result, int weight, long loadTime) {
+            this.result = result;
+            this.weight = weight;
+            this.loadTime = loadTime;
+        }
+    }
+
+    /**
+     * The statistics of a cache at a point in time.
+     *
+     * <p>This class is immutable.</p>
+     */
+    public static final class Stats {
+
+        private final long hitCount;
+
+        private final long missCount;
+
+        private final long evictionCount;
+
+        private final long expirationCount;
+
+        private final int size;
+
+        private final long weight;
+
+        private Stats(long hitCount, long missCount, long evictionCount, long expirationCount, int size, long weight) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.expirationCount = expirationCount;
+            this.size = size;
+            this.weight = weight;
+        }
+
+        /**
+         * Gets the number of queries, which have been answered from the cache.
+         *
+         * @return The number of hits.
+         */
+        public final long getHitCount() {
+            return hitCount;
+        }
+
+        /**
+         * Gets the number of queries, which have been executed, because their result was not cached or has expired.
+         *
+         * @return The number of misses.
+         */
+        public final long getMissCount() {
+            return missCount;
+        }
+
+        /**
+         * Gets the ratio of hits to all queries.
+         *
+         * @return The hit rate between 0 and 1, which is 1, if there have been no queries.
+         */
+        public final double getHitRate() {
+            long requestCount = hitCount + missCount;
+            return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+        }
+
+        /**
+         * Gets the number of entries, which have been evicted, because the maximum weight was exceeded.
+         *
+         * @return The number of evictions.
+         */
+        public final long getEvictionCount() {
+            return evictionCount;
+        }
+
+        /**
+         * Gets the number of entries, which have been removed, because they have expired.
+         *
+         * @return The number of expirations.
+         */
+        public final long getExpirationCount() {
+            return expirationCount;
+        }
+
+        /**
+         * Gets the number of cached entries.
+         *
+         * @return The number of entries.
+         */
+        public final int getSize() {
+            return size;
+        }
+
+        /**
+         * Gets the total weight of the cached entries, i.e. the number of cached cards.
+         *
+         * @return The total weight.
+         */
+        public final long getWeight() {
+            return weight;
+        }
+
+        @Override
+        public final String toString() {
+            return "Hits: " + hitCount + ", misses: " + missCount + ", evictions: " + evictionCount + ", expirations: "
+                    + expirationCount + ", entries: " + size + ", weight: " + weight;
+        }
+    }
+
+    /**
+     * Builds a {@link QueryCache}.
+     */
+    public static final class Builder {
+
+        /**
+         * The default maximum weight, i.e. the number of cached cards.
+         */
+        public static final long DEFAULT_MAXIMUM_WEIGHT = 100_000;
+
+        private long maximumWeight = DEFAULT_MAXIMUM_WEIGHT;
+
+        private Duration expireAfterWrite;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the maximum total weight of the entries, i.e. the maximum number of cached cards. Results with more
+         * cards are not cached at all.
+         *
+         * @param maximumWeight The maximum weight.
+         * @return This builder.
+         * @throws IllegalArgumentException If the maximum weight is not positive.
+         */
+        public Builder maximumWeight(long maximumWeight) {
+            if (maximumWeight < 1) {
+                throw new IllegalArgumentException("maximumWeight must be positive: " + maximumWeight);
+            }
+            this.maximumWeight = maximumWeight;
+            return this;
+        }
+
+        /**
+         * Lets entries expire after a fixed time after they have been loaded. By default, they never expire.
+         *
+         * @param expireAfterWrite The time to live of an entry.
+         * @return This builder.
+         * @throws IllegalArgumentException If the duration is not positive.
+         */
+        public Builder expireAfterWrite(Duration expireAfterWrite) {
+            if (expireAfterWrite.isNegative() || expireAfterWrite.isZero()) {
+                throw new IllegalArgumentException("expireAfterWrite must be positive: " + expireAfterWrite);
+            }
+            this.expireAfterWrite = expireAfterWrite;
+            return this;
+        }
+
+        /**
+         * Builds the cache.
+         *
+         * @return The cache.
+         */
+        public QueryCache build() {
+            return new QueryCache(this);
+        }
+    }
+}
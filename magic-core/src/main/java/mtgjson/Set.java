@@ -30,6 +30,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 import com.fasterxml.jackson.annotation.JsonValue;
 
@@ -39,7 +40,7 @@ public final class Set {
 
     private final String block;
 
-    private final List<SetCard> cards = new ArrayList<>();
+    private List<SetCard> cards;
 
     private final String code;
 
@@ -75,7 +76,7 @@ public final class Set {
 
     private final Integer tcgplayerGroupId;
 
-    private final List<TokenCard> tokens = new ArrayList<>();
+    private List<TokenCard> tokens;
 
     private final Integer totalSetSize;
 
@@ -83,6 +84,9 @@ public final class Set {
 
     private final Type type;
 
+    // Loads the cards and tokens of a lazy set on first access. It is null, once they are loaded.
+    private volatile Supplier<Set> loader;
+
     // This annotation is used by Jackson for deserialization and by jOOQ for database mapping.
     @ConstructorProperties(
             {"baseSetSize", "block", "code", "codeV3", "cards", "isForeignOnly", "isFoilOnly", "isNonFoilOnly",
@@ -118,9 +122,7 @@ public final class Set {
         this.block = block;
         this.code = Objects.requireNonNull(code);
         this.codeV3 = codeV3;
-        if (cards != null) {
-            this.cards.addAll(cards);
-        }
+        this.cards = cards != null ? new ArrayList<>(cards) : new ArrayList<>();
         this.isForeignOnly = isForeignOnly;
         this.isFoilOnly = isFoilOnly;
         this.isNonFoilOnly = isNonFoilOnly;
@@ -136,14 +138,45 @@ public final class Set {
         this.releaseDate = Objects.requireNonNull(releaseDate);
         this.parentCode = parentCode;
         this.tcgplayerGroupId = tcgplayerGroupId;
-        if (tokens != null) {
-            this.tokens.addAll(tokens);
-        }
+        this.tokens = tokens != null ? new ArrayList<>(tokens) : new ArrayList<>();
         this.totalSetSize = Objects.requireNonNull(totalSetSize);
         this.translations = translations;
         this.type = Objects.requireNonNull(type);
     }
 
+    /**
+     * Creates a lazy set, which has the metadata of the given set, but loads its cards and tokens on first access.
+     *
+     * @param metadata The set, whose cards and tokens are ignored.
+     * @param loader   Loads the complete set. It is called at most once and may throw unchecked exceptions, which
+     *                 are thrown by {@link #getCards()} and {@link #getTokens()}.
+     */
+    Set(Set metadata, Supplier<Set> loader) {
+        this.baseSetSize = metadata.baseSetSize;
+        this.block = metadata.block;
+        this.code = metadata.code;
+        this.codeV3 = metadata.codeV3;
+        this.isForeignOnly = metadata.isForeignOnly;
+        this.isFoilOnly = metadata.isFoilOnly;
+        this.isNonFoilOnly = metadata.isNonFoilOnly;
+        this.isOnlineOnly = metadata.isOnlineOnly;
+        this.isPaperOnly = metadata.isPaperOnly;
+        this.isPartialPreview = metadata.isPartialPreview;
+        this.keyruneCode = metadata.keyruneCode;
+        this.mcmId = metadata.mcmId;
+        this.mcmIdExtras = metadata.mcmIdExtras;
+        this.mcmName = metadata.mcmName;
+        this.mtgoCode = metadata.mtgoCode;
+        this.name = metadata.name;
+        this.releaseDate = metadata.releaseDate;
+        this.parentCode = metadata.parentCode;
+        this.tcgplayerGroupId = metadata.tcgplayerGroupId;
+        this.totalSetSize = metadata.totalSetSize;
+        this.translations = metadata.translations;
+        this.type = metadata.type;
+        this.loader = Objects.requireNonNull(loader);
+    }
+
     /**
      * The number of cards in the set. Will default to totalSetSize if not available. Wizards of the Coast sometimes
      * prints extra cards beyond the set size into promos or supplemental products.
@@ -166,10 +199,13 @@ public final class Set {
     /**
      * The list of cards in the set. The returned list is unmodifiable.
      *
+     * <p>The cards of a lazy set are loaded on the first call.</p>
+     *
      * @return The list of cards in the set.
      * @see SetCard
      */
     public final List<SetCard> getCards() {
+        load();
         return Collections.unmodifiableList(cards);
     }
 
@@ -333,9 +369,12 @@ public final class Set {
     /**
      * The tokens available to the set. The returned list is unmodifiable.
      *
+     * <p>The tokens of a lazy set are loaded on the first call.</p>
+     *
      * @return The tokens available to the set.
      */
     public final List<TokenCard> getTokens() {
+        load();
         return Collections.unmodifiableList(tokens);
     }
 
@@ -366,6 +405,32 @@ public final class Set {
         return type;
     }
 
+    /**
+     * If the cards and tokens of the set are loaded. Only lazy sets, e.g. as listed by
+     * {@link DatabaseUtil#findSetsLazily()}, load them on first access.
+     *
+     * @return If the cards and tokens of the set are loaded.
+     */
+    public final boolean isLoaded() {
+        return loader == null;
+    }
+
+    private void load() {
+        if (loader != null) {
+            synchronized (this) {
+                Supplier<Set> supplier = loader;
+                if (supplier != null) {
+                    Set set = supplier.get();
+                    set.load();
+                    cards = set.cards;
+                    tokens = set.tokens;
+                    // The volatile write publishes the lists to other threads.
+                    loader = null;
+                }
+            }
+        }
+    }
+
     public enum Type {
 
         ARCHENEMY("archenemy"),
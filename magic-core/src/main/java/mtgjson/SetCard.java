@@ -57,12 +57,8 @@ public class SetCard extends AbstractCard {
 
     private final boolean isTimeshifted;
 
-    private final Legalities legalities;
-
     private final String life;
 
-    private final String manaCost;
-
     private final double manaValue;
 
     private final LocalDate originalReleaseDate;
@@ -77,8 +73,6 @@ public class SetCard extends AbstractCard {
 
     private final Rarity rarity;
 
-    private final List<Ruling> rulings;
-
     private final List<String> variations;
 
     @ConstructorProperties(
@@ -155,9 +149,10 @@ public class SetCard extends AbstractCard {
                    String watermark) {
         super(artist, asciiName, availabilities, borderColor, colorIdentity, colorIndicator, colors, edhrecRank,
                 faceName, finishes, flavorText, frameEffects,
-                frameVersion, identifiers, isFullArt, isOnlineOnly, isPromo, isReprint, keywords,
-                layout, loyalty, name, number, power, promoTypes, setCode, side, subtypes, supertypes, text, toughness,
-                type, types, uuid, watermark);
+                frameVersion, identifiers, isFullArt, isOnlineOnly, isPromo, isReprint, layout, loyalty, name, number,
+                new OracleCard(faceName, keywords, legalities, manaCost, name, power, rulings,
+                        identifiers != null ? identifiers.getScryfallOracleId() : null, text, toughness, type),
+                promoTypes, setCode, side, subtypes, supertypes, types, uuid, watermark);
         this.faceManaValue = faceManaValue;
         this.flavorName = flavorName;
         this.foreignData = foreignData;
@@ -171,9 +166,7 @@ public class SetCard extends AbstractCard {
         this.isStorySpotlight = isStorySpotlight;
         this.isTextless = isTextless;
         this.isTimeshifted = isTimeshifted;
-        this.legalities = legalities;
         this.life = life;
-        this.manaCost = manaCost;
         this.manaValue = manaValue;
         this.originalReleaseDate = originalReleaseDate;
         this.originalText = originalText;
@@ -181,7 +174,6 @@ public class SetCard extends AbstractCard {
         this.otherFaceIds = otherFaceIds;
         this.printings = printings;
         this.rarity = rarity;
-        this.rulings = rulings;
         this.variations = variations;
     }
 
@@ -313,7 +305,7 @@ public class SetCard extends AbstractCard {
      * @return A list of play formats the card the card is legal in.
      */
     public final Legalities getLegalities() {
-        return legalities;
+        return getOracleCard().getLegalities();
     }
 
     /**
@@ -332,7 +324,7 @@ public class SetCard extends AbstractCard {
      * @return The mana cost of the card.
      */
     public final String getManaCost() {
-        return manaCost;
+        return getOracleCard().getManaCost();
     }
 
     /**
@@ -405,7 +397,7 @@ public class SetCard extends AbstractCard {
      * @return The official rulings of the card. See the Rulings data model.
      */
     public final List<Ruling> getRulings() {
-        return rulings;
+        return getOracleCard().getRulings();
     }
 
     /**
@@ -0,0 +1,277 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Imports sets into the database, while they are still being parsed.
+ *
+ * <p>The sets are produced on the calling thread (e.g. by parsing the JSON file) and handed over a bounded queue to a
+ * fixed number of writer threads. Parsing and writing therefore overlap. If the writers fall behind, the queue fills
+ * up and the producer blocks, so at most {@code queueCapacity + writers} parsed sets are held in memory at any
+ * time.</p>
+ *
+ * <p>Each writer holds a connection of its own for the whole import and writes its sets in transactions, which are
+ * committed at the {@link CommitInterval}. The ids of the cards are generated by the database, so concurrent writers
+ * never collide. A set code, which occurs more than once in the same import, fails the import, so that two writers
+ * never insert the same set code and no set is silently dropped. A set, which is already in the database, fails the
+ * import as well.</p>
+ */
+public final class SetImporter {
+
+    /**
+     * The default capacity of the queue between the parser and the writers.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 4;
+
+    private final DatabaseUtil databaseUtil;
+
+    private final int writers;
+
+    private final int queueCapacity;
+
+    private final CommitInterval commitInterval;
+
+    /**
+     * Creates an importer with one writer per available processor, but at most four, and the default queue capacity.
+     *
+     * @param databaseUtil The database utility, which inserts the sets.
+     */
+    public SetImporter(DatabaseUtil databaseUtil) {
+        this(databaseUtil, Math.min(4, Runtime.getRuntime().availableProcessors()), DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Creates an importer.
+     *
+     * @param databaseUtil  The database utility, which inserts the sets.
+     * @param writers       The number of writer threads.
+     * @param queueCapacity The maximal number of parsed sets, which wait to be written.
+     */
+    public SetImporter(DatabaseUtil databaseUtil, int writers, int queueCapacity) {
+        this(databaseUtil, writers, queueCapacity, CommitInterval.perSet());
+    }
+
+    /**
+     * Creates an importer, whose writers commit at the given interval.
+     *
+     * @param databaseUtil   The database utility, which inserts the sets.
+     * @param writers        The number of writer threads.
+     * @param queueCapacity  The maximal number of parsed sets, which wait to be written.
+     * @param commitInterval The interval, at which each writer commits its transaction.
+     */
+    public SetImporter(DatabaseUtil databaseUtil, int writers, int queueCapacity, CommitInterval commitInterval) {
+        if (writers < 1) {
+            throw new IllegalArgumentException("writers must be positive: " + writers);
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be positive: " + queueCapacity);
+        }
+        this.databaseUtil = databaseUtil;
+        this.writers = writers;
+        this.queueCapacity = queueCapacity;
+        this.commitInterval = Objects.requireNonNull(commitInterval);
+    }
+
+    /**
+     * Parses an AllPrintings file and imports all of its sets.
+     *
+     * @param inputStream The input stream of the AllPrintings file.
+     * @return The number of imported sets and the statistics of the writers.
+     * @throws IOException  If the file could not be parsed.
+     * @throws SQLException If a set could not be inserted.
+     * @see MtgJsonParser#parseAllPrintings(InputStream)
+     */
+    public ImportResult importAllPrintings(InputStream inputStream) throws IOException, SQLException {
+        try (Stream<Set> sets = MtgJsonParser.parseAllPrintings(inputStream)) {
+            return importSets(sets);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Imports the sets of a stream. The stream is consumed on the calling thread, while the sets are written
+     * concurrently.
+     *
+     * <p>The import stops at the first failure: No further sets are written and the failure is rethrown, after all
+     * writers have stopped. The other writers commit the sets, which they have written until then. The failed writer
+     * rolls back its sets since its last commit.</p>
+     *
+     * @param sets The sets.
+     * @return The number of imported sets and the statistics of the writers.
+     * @throws SQLException             If a set could not be inserted.
+     * @throws IllegalArgumentException If a set code occurs more than once.
+     */
+    public ImportResult importSets(Stream<Set> sets) throws SQLException {
+        long start = System.nanoTime();
+        BlockingQueue<Optional<Set>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Writer> writerList = new ArrayList<>(writers);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(writers, runnable -> {
+            Thread thread = new Thread(runnable, "set-importer-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (int i = 0; i < writers; i++) {
+                Writer writer = new Writer(queue, failure);
+                writerList.add(writer);
+                executor.execute(writer);
+            }
+            try {
+                java.util.Set<String> codes = new HashSet<>();
+                Iterator<Set> iterator = sets.iterator();
+                while (failure.get() == null && iterator.hasNext()) {
+                    Set set = iterator.next();
+                    if (!codes.add(set.getCode())) {
+                        failure.compareAndSet(null,
+                                new IllegalArgumentException("The set " + set.getCode() + " occurs more than once."));
+                        break;
+                    }
+                    put(queue, failure, Optional.of(set));
+                }
+            } catch (RuntimeException | Error e) {
+                failure.compareAndSet(null, e);
+            }
+            // An empty element signals the end of the stream to each writer.
+            for (int i = 0; i < writers; i++) {
+                put(queue, failure, Optional.empty());
+            }
+            // After a failure, the writers stop on their own after their current set.
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                // Wait for the remaining writes.
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+            failure.compareAndSet(null, e);
+        }
+
+        Throwable throwable = failure.get();
+        if (throwable instanceof SQLException) {
+            throw (SQLException) throwable;
+        } else if (throwable instanceof RuntimeException) {
+            throw (RuntimeException) throwable;
+        } else if (throwable instanceof Error) {
+            throw (Error) throwable;
+        } else if (throwable != null) {
+            throw new SQLException("The import has been interrupted.", throwable);
+        }
+        // The writers have terminated, so their statistics are visible.
+        List<ImportResult.WriterStats> writerStats = new ArrayList<>(writers);
+        int imported = 0;
+        for (Writer writer : writerList) {
+            writerStats.add(writer.stats);
+            imported += writer.stats.getSets();
+        }
+        return new ImportResult(imported, Duration.ofNanos(System.nanoTime() - start), writerStats);
+    }
+
+    /**
+     * Puts a set into the queue, unless the import has failed. Waits while the queue is full.
+     */
+    private static void put(BlockingQueue<Optional<Set>> queue, AtomicReference<Throwable> failure, Optional<Set> set)
+            throws InterruptedException {
+        while (failure.get() == null) {
+            if (queue.offer(set, 100, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes the sets of the queue with a connection of its own, until it takes an empty element or the import fails.
+     */
+    private final class Writer implements Runnable {
+
+        private final BlockingQueue<Optional<Set>> queue;
+
+        private final AtomicReference<Throwable> failure;
+
+        private ImportResult.WriterStats stats;
+
+        private Writer(BlockingQueue<Optional<Set>> queue, AtomicReference<Throwable> failure) {
+            this.queue = queue;
+            this.failure = failure;
+        }
+
+        @Override
+        public void run() {
+            String name = Thread.currentThread().getName();
+            long busyNanos = 0;
+            stats = new ImportResult.WriterStats(name, 0, 0, 0, Duration.ZERO);
+            try (DatabaseUtil.SetWriter setWriter = databaseUtil.openWriter(commitInterval)) {
+                try {
+                    while (failure.get() == null) {
+                        Optional<Set> set = queue.poll(100, TimeUnit.MILLISECONDS);
+                        if (set != null) {
+                            if (set.isEmpty()) {
+                                break;
+                            }
+                            long start = System.nanoTime();
+                            setWriter.write(set.get());
+                            busyNanos += System.nanoTime() - start;
+                        }
+                    }
+                    // Sets are written atomically, so they are committed, even if another writer has failed.
+                    long start = System.nanoTime();
+                    setWriter.commit();
+                    busyNanos += System.nanoTime() - start;
+                } finally {
+                    stats = new ImportResult.WriterStats(name, setWriter.getCommittedSets(),
+                            setWriter.getCommittedCards(), setWriter.getCommittedRows(), Duration.ofNanos(busyNanos));
+                }
+            } catch (InterruptedException e) {
+                // The importing thread has been interrupted.
+                Thread.currentThread().interrupt();
+            } catch (SQLException | RuntimeException | Error e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,790 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Writes sets to a compact binary file and reads them back, which is many times faster than parsing the JSON file
+ * again, e.g. when a service starts.
+ *
+ * <p>Every distinct string is stored only once in a string table at the start of the file and referenced by its
+ * index, enums are stored by their ordinal and numbers as variable-length integers. Each set is prefixed by its
+ * length. The strings, which are read from the table, are shared by all sets, so the read sets need about as little
+ * memory as {@linkplain ParseOptions.Builder#internStrings(boolean) interned} ones.</p>
+ *
+ * <p>A snapshot records the {@link Meta} of the MTGJSON file it has been created from, so that it can be recognized as
+ * outdated, when a new MTGJSON release is available. It also records the version of its format, which includes the
+ * constants of the enums, so that a snapshot of an earlier version of this library is recognized as well.</p>
+ *
+ * @see #load(Path, Path)
+ */
+public final class Snapshot {
+
+    // "MTGS"
+    private static final int MAGIC = 0x4D544753;
+
+    private static final int FORMAT_VERSION = 1;
+
+    // The enums are stored by ordinal, so snapshots are incompatible, if any of their constants change.
+    private static final long SCHEMA = schema(Availability.values(), BorderColor.values(), Color.values(),
+            Finish.values(), FrameEffect.values(), FrameVersion.values(), Layout.values(), Rarity.values(),
+            Set.Type.values());
+
+    private static final BorderColor[] BORDER_COLORS = BorderColor.values();
+
+    private static final FrameVersion[] FRAME_VERSIONS = FrameVersion.values();
+
+    private static final Layout[] LAYOUTS = Layout.values();
+
+    private static final Rarity[] RARITIES = Rarity.values();
+
+    private static final Set.Type[] SET_TYPES = Set.Type.values();
+
+    private Snapshot() {
+    }
+
+    /**
+     * Loads the sets of an AllPrintings file from a snapshot. If the snapshot does not exist or has been created from
+     * another release of the file (or by an incompatible version of this library), the file is parsed and the
+     * snapshot is (re-)created first.
+     *
+     * @param allPrintings The path of the AllPrintings file.
+     * @param snapshot     The path of the snapshot.
+     * @return The sets.
+     * @throws IOException If the file or snapshot could not be read or the snapshot could not be written.
+     */
+    public static Stream<Set> load(Path allPrintings, Path snapshot) throws IOException {
+        Optional<Meta> meta = MtgJsonParser.parseMeta(allPrintings);
+        if (meta.isEmpty() || !Files.exists(snapshot) || !readMeta(snapshot).equals(meta)) {
+            try (Stream<Set> sets = MtgJsonParser.parseAllPrintings(allPrintings)) {
+                write(snapshot, meta.orElse(null), sets);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        return read(snapshot);
+    }
+
+    /**
+     * Writes a snapshot of sets. The file is replaced atomically, once it has been written completely.
+     *
+     * @param path The path of the snapshot.
+     * @param meta The meta data of the MTGJSON file, which the sets have been parsed from, or null.
+     * @param sets The sets.
+     * @throws IOException If the snapshot could not be written.
+     */
+    public static void write(Path path, Meta meta, Stream<Set> sets) throws IOException {
+        Encoder body = new Encoder(new HashMap<>());
+        Encoder set = new Encoder(body.strings);
+        int setCount = 0;
+        Iterator<Set> iterator = sets.iterator();
+        while (iterator.hasNext()) {
+            set.reset();
+            set.writeSet(iterator.next());
+            body.writeVarint(set.size);
+            body.writeBytes(set.bytes, 0, set.size);
+            setCount++;
+        }
+
+        Encoder header = new Encoder(null);
+        header.writeInt(MAGIC);
+        header.writeInt(FORMAT_VERSION);
+        header.writeLong(SCHEMA);
+        header.writeUtf8(meta != null ? meta.getVersion() : null);
+        header.writeDate(meta != null ? meta.getDate() : null);
+        header.writeVarint(setCount);
+        String[] strings = new String[body.strings.size()];
+        body.strings.forEach((string, index) -> strings[index - 1] = string);
+        header.writeVarint(strings.length);
+        for (String string : strings) {
+            header.writeUtf8(string);
+        }
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer[] buffers = {ByteBuffer.wrap(header.bytes, 0, header.size),
+                    ByteBuffer.wrap(body.bytes, 0, body.size)};
+            while (buffers[0].hasRemaining() || buffers[1].hasRemaining()) {
+                channel.write(buffers);
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the meta data of the MTGJSON file, which a snapshot has been created from.
+     *
+     * @param path The path of the snapshot.
+     * @return The meta data or empty, if the snapshot has been created without meta data or by an incompatible
+     * version of this library.
+     * @throws IOException If the file could not be read or is no snapshot.
+     */
+    public static Optional<Meta> readMeta(Path path) throws IOException {
+        Decoder decoder = open(path);
+        if (!decoder.isCompatible()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(decoder.meta);
+    }
+
+    /**
+     * Reads the sets of a snapshot. The sets are decoded one after another, as the stream is consumed.
+     *
+     * @param path The path of the snapshot.
+     * @return The sets.
+     * @throws IOException If the file could not be read, is no snapshot or has been created by an incompatible
+     *                     version of this library.
+     */
+    public static Stream<Set> read(Path path) throws IOException {
+        Decoder decoder = open(path);
+        if (!decoder.isCompatible()) {
+            throw new IOException("Snapshot of an incompatible version: " + path);
+        }
+        try {
+            decoder.readStrings();
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Corrupt snapshot: " + path, e);
+        }
+        return StreamSupport.stream(new SetSpliterator(decoder, path), false);
+    }
+
+    private static Decoder open(Path path) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot is too large: " + path);
+            }
+            // The mapping remains valid after the channel is closed.
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a snapshot: " + path);
+            }
+            return new Decoder(buffer);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Corrupt snapshot: " + path, e);
+        }
+    }
+
+    private static long schema(Enum<?>[]... enums) {
+        long schema = FORMAT_VERSION;
+        for (Enum<?>[] constants : enums) {
+            for (Enum<?> constant : constants) {
+                schema = 31 * schema + constant.getDeclaringClass().getName().hashCode();
+                schema = 31 * schema + constant.name().hashCode();
+            }
+        }
+        return schema;
+    }
+
+    /**
+     * Decodes the sets of a snapshot one at a time.
+     */
+    private static final class SetSpliterator extends Spliterators.AbstractSpliterator<Set> {
+
+        private final Decoder decoder;
+
+        private final Path path;
+
+        private int remaining;
+
+        private SetSpliterator(Decoder decoder, Path path) {
+            super(decoder.setCount, Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL
+                    | Spliterator.IMMUTABLE);
+            this.decoder = decoder;
+            this.path = path;
+            this.remaining = decoder.setCount;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Set> action) {
+            if (remaining == 0) {
+                return false;
+            }
+            Set set;
+            try {
+                int length = decoder.readVarint();
+                int end = decoder.buffer.position() + length;
+                set = decoder.readSet();
+                if (decoder.buffer.position() != end) {
+                    throw new IllegalArgumentException("Unexpected set length");
+                }
+            } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new UncheckedIOException(new IOException("Corrupt snapshot: " + path, e));
+            }
+            remaining--;
+            action.accept(set);
+            return true;
+        }
+    }
+
+    /**
+     * Encodes sets into a growing byte array. The strings are replaced by their one-based index in the string table,
+     * zero stands for null. Nullable numbers, enums and collections are encoded likewise, with zero for null.
+     */
+    private static final class Encoder {
+
+        private final Map<String, Integer> strings;
+
+        private byte[] bytes = new byte[1 << 16];
+
+        private int size;
+
+        private Encoder(Map<String, Integer> strings) {
+            this.strings = strings;
+        }
+
+        private void reset() {
+            size = 0;
+        }
+
+        private void writeSet(Set set) {
+            writeInteger(set.getBaseSetSize());
+            writeString(set.getBlock());
+            writeString(set.getCode());
+            writeString(set.getCodeV3());
+            writeCollection(set.getCards(), this::writeSetCard);
+            writeBoolean(set.isForeignOnly());
+            writeBoolean(set.isFoilOnly());
+            writeBoolean(set.isNonFoilOnly());
+            writeBoolean(set.isOnlineOnly());
+            writeBoolean(set.isPaperOnly());
+            writeBoolean(set.isPartialPreview());
+            writeString(set.getKeyruneCode());
+            writeInteger(set.getMcmId());
+            writeInteger(set.getMcmIdExtras());
+            writeString(set.getMcmName());
+            writeString(set.getMtgoCode());
+            writeString(set.getName());
+            writeDate(set.getReleaseDate());
+            writeString(set.getParentCode());
+            writeInteger(set.getTcgplayerGroupId());
+            writeCollection(set.getTokens(), this::writeTokenCard);
+            writeInteger(set.getTotalSetSize());
+            writeTranslations(set.getTranslations());
+            writeEnum(set.getType());
+        }
+
+        // The properties are written in the order of the constructor parameters, so that the decoder can pass them
+        // directly to the constructor.
+        private void writeSetCard(SetCard card) {
+            writeString(card.getArtist());
+            writeString(card.getAsciiName());
+            writeVarint(card.getAvailabilityMask());
+            writeEnum(card.getBorderColor());
+            writeVarint(card.getColorIdentityMask());
+            writeVarint(card.getColorIndicatorMask());
+            writeVarint(card.getColorsMask());
+            writeInteger(card.getEdhrecRank());
+            writeString(card.getFaceName());
+            writeDouble(card.getFaceManaValue());
+            writeVarint(card.getFinishesMask());
+            writeString(card.getFlavorName());
+            writeString(card.getFlavorText());
+            writeCollection(card.getForeignData(), this::writeForeignData);
+            writeVarint(card.getFrameEffectsMask());
+            writeEnum(card.getFrameVersion());
+            writeString(card.getHand());
+            writeBoolean(card.hasContentWarning());
+            writeBoolean(card.hasAlternativeDeckLimit());
+            writeIdentifiers(card.getIdentifiers());
+            writeBoolean(card.isAlternative());
+            writeBoolean(card.isFullArt());
+            writeBoolean(card.isOnlineOnly());
+            writeBoolean(card.isOversized());
+            writeBoolean(card.isPromo());
+            writeBoolean(card.isReprint());
+            writeBoolean(card.isReserved());
+            writeBoolean(card.isStarter());
+            writeBoolean(card.isStorySpotlight());
+            writeBoolean(card.isTextless());
+            writeBoolean(card.isTimeshifted());
+            writeCollection(card.getKeywords(), this::writeString);
+            writeEnum(card.getLayout());
+            writeLegalities(card.getLegalities());
+            writeString(card.getLife());
+            writeString(card.getLoyalty());
+            writeString(card.getManaCost());
+            writeDouble(card.getManaValue());
+            writeString(card.getName());
+            writeString(card.getNumber());
+            writeDate(card.getOriginalReleaseDate());
+            writeString(card.getOriginalText());
+            writeString(card.getOriginalType());
+            writeString(card.getOtherFaceIds());
+            writeString(card.getPower());
+            writeCollection(card.getPrintings(), this::writeString);
+            writeCollection(card.getPromoTypes(), this::writeString);
+            writeEnum(card.getRarity());
+            writeCollection(card.getRulings(), this::writeRuling);
+            writeString(card.getSetCode());
+            writeString(card.getSide());
+            writeCollection(card.getSubtypes(), this::writeString);
+            writeCollection(card.getSupertypes(), this::writeString);
+            writeString(card.getText());
+            writeString(card.getToughness());
+            writeString(card.getType());
+            writeCollection(card.getTypes(), this::writeString);
+            writeString(card.getUuid());
+            writeCollection(card.getVariations(), this::writeString);
+            writeString(card.getWatermark());
+        }
+
+        private void writeTokenCard(TokenCard card) {
+            writeString(card.getArtist());
+            writeString(card.getAsciiName());
+            writeVarint(card.getAvailabilityMask());
+            writeEnum(card.getBorderColor());
+            writeVarint(card.getColorIdentityMask());
+            writeVarint(card.getColorIndicatorMask());
+            writeVarint(card.getColorsMask());
+            writeInteger(card.getEdhrecRank());
+            writeString(card.getFaceName());
+            writeVarint(card.getFinishesMask());
+            writeString(card.getFlavorText());
+            writeVarint(card.getFrameEffectsMask());
+            writeEnum(card.getFrameVersion());
+            writeIdentifiers(card.getIdentifiers());
+            writeBoolean(card.isFullArt());
+            writeBoolean(card.isOnlineOnly());
+            writeBoolean(card.isPromo());
+            writeBoolean(card.isReprint());
+            writeCollection(card.getKeywords(), this::writeString);
+            writeEnum(card.getLayout());
+            writeString(card.getLoyalty());
+            writeString(card.getName());
+            writeString(card.getNumber());
+            writeString(card.getPower());
+            writeCollection(card.getPromoTypes(), this::writeString);
+            writeCollection(card.getReverseRelated(), this::writeString);
+            writeString(card.getSetCode());
+            writeString(card.getSide());
+            writeCollection(card.getSubtypes(), this::writeString);
+            writeCollection(card.getSupertypes(), this::writeString);
+            writeString(card.getText());
+            writeString(card.getToughness());
+            writeString(card.getType());
+            writeCollection(card.getTypes(), this::writeString);
+            writeString(card.getUuid());
+            writeString(card.getWatermark());
+        }
+
+        private void writeForeignData(ForeignData foreignData) {
+            writeString(foreignData.getFaceName());
+            writeString(foreignData.getFlavorText());
+            writeString(foreignData.getLanguage());
+            writeInteger(foreignData.getMultiverseId());
+            writeString(foreignData.getName());
+            writeString(foreignData.getText());
+            writeString(foreignData.getType());
+        }
+
+        private void writeIdentifiers(Identifiers identifiers) {
+            writeBoolean(identifiers != null);
+            if (identifiers != null) {
+                writeString(identifiers.getCardKingdomFoilId());
+                writeString(identifiers.getCardKingdomId());
+                writeString(identifiers.getMcmId());
+                writeString(identifiers.getMcmMetaId());
+                writeString(identifiers.getMtgArenaId());
+                writeString(identifiers.getMtgoFoilId());
+                writeString(identifiers.getMtgoId());
+                writeString(identifiers.getMtgjsonV4Id());
+                writeString(identifiers.getMultiverseId());
+                writeString(identifiers.getScryfallId());
+                writeString(identifiers.getScryfallOracleId());
+                writeString(identifiers.getScryfallIllustrationId());
+                writeString(identifiers.getTcgplayerProductId());
+            }
+        }
+
+        private void writeLegalities(Legalities legalities) {
+            writeBoolean(legalities != null);
+            if (legalities != null) {
+                writeString(legalities.getBrawl());
+                writeString(legalities.getCommander());
+                writeString(legalities.getDuel());
+                writeString(legalities.getFuture());
+                writeString(legalities.getFrontier());
+                writeString(legalities.getHistoric());
+                writeString(legalities.getLegacy());
+                writeString(legalities.getModern());
+                writeString(legalities.getPauper());
+                writeString(legalities.getPenny());
+                writeString(legalities.getPioneer());
+                writeString(legalities.getStandard());
+                writeString(legalities.getVintage());
+            }
+        }
+
+        private void writeRuling(Ruling ruling) {
+            writeDate(ruling.getDate());
+            writeString(ruling.getText());
+        }
+
+        private void writeTranslations(Translations translations) {
+            writeBoolean(translations != null);
+            if (translations != null) {
+                writeString(translations.getAncientGreek());
+                writeString(translations.getArabic());
+                writeString(translations.getChineseSimplified());
+                writeString(translations.getChineseTraditional());
+                writeString(translations.getFrench());
+                writeString(translations.getGerman());
+                writeString(translations.getHebrew());
+                writeString(translations.getItalian());
+                writeString(translations.getJapanese());
+                writeString(translations.getKorean());
+                writeString(translations.getLatin());
+                writeString(translations.getPhyrexian());
+                writeString(translations.getPortuguese());
+                writeString(translations.getRussian());
+                writeString(translations.getSanskrit());
+                writeString(translations.getSpanish());
+            }
+        }
+
+        private <T> void writeCollection(Collection<T> collection, Consumer<T> writer) {
+            if (collection == null) {
+                writeVarint(0);
+            } else {
+                writeVarint(collection.size() + 1);
+                collection.forEach(writer);
+            }
+        }
+
+        private void writeString(String string) {
+            writeVarint(string == null ? 0 : strings.computeIfAbsent(string, s -> strings.size() + 1));
+        }
+
+        private void writeUtf8(String string) {
+            if (string == null) {
+                writeVarint(0);
+            } else {
+                byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+                writeVarint(utf8.length + 1);
+                writeBytes(utf8, 0, utf8.length);
+            }
+        }
+
+        private void writeInteger(Integer value) {
+            writeVarlong(value == null ? 0 : zigZag(value) + 1);
+        }
+
+        private void writeDate(LocalDate date) {
+            writeVarlong(date == null ? 0 : zigZag(date.toEpochDay()) + 1);
+        }
+
+        private void writeEnum(Enum<?> value) {
+            writeVarint(value == null ? 0 : value.ordinal() + 1);
+        }
+
+        private void writeBoolean(boolean value) {
+            writeByte(value ? 1 : 0);
+        }
+
+        private void writeDouble(double value) {
+            writeLong(Double.doubleToRawLongBits(value));
+        }
+
+        private void writeInt(int value) {
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                writeByte(value >>> shift);
+            }
+        }
+
+        private void writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                writeByte((int) (value >>> shift));
+            }
+        }
+
+        private void writeVarint(int value) {
+            writeVarlong(value & 0xFFFFFFFFL);
+        }
+
+        private void writeVarlong(long value) {
+            long remaining = value;
+            while ((remaining & ~0x7FL) != 0) {
+                writeByte((int) ((remaining & 0x7F) | 0x80));
+                remaining >>>= 7;
+            }
+            writeByte((int) remaining);
+        }
+
+        private void writeByte(int value) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, size * 2);
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        private void writeBytes(byte[] source, int offset, int length) {
+            if (size + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(size + length, bytes.length * 2));
+            }
+            System.arraycopy(source, offset, bytes, size, length);
+            size += length;
+        }
+
+        private static long zigZag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+    }
+
+    /**
+     * Decodes the sets of a mapped snapshot. The reads mirror the writes of the {@link Encoder}.
+     */
+    private static final class Decoder {
+
+        private final ByteBuffer buffer;
+
+        private final int formatVersion;
+
+        private final long schema;
+
+        private final Meta meta;
+
+        private final int setCount;
+
+        // The printings of a card share its oracle card, like those of a parsed file.
+        private final OracleCardPool oracleCards = new OracleCardPool();
+
+        private String[] strings;
+
+        private Decoder(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.formatVersion = buffer.getInt();
+            this.schema = buffer.getLong();
+            if (isCompatible()) {
+                String version = readUtf8();
+                LocalDate date = readDate();
+                this.meta = version != null || date != null ? new Meta(date, version) : null;
+                this.setCount = readVarint();
+            } else {
+                this.meta = null;
+                this.setCount = 0;
+            }
+        }
+
+        private boolean isCompatible() {
+            return formatVersion == FORMAT_VERSION && schema == SCHEMA;
+        }
+
+        private void readStrings() {
+            strings = new String[readVarint()];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = readUtf8();
+            }
+        }
+
+        private Set readSet() {
+            return new Set(readInteger(), readString(), readString(), readString(),
+                    readList(this::readSetCard), readBoolean(), readBoolean(), readBoolean(), readBoolean(),
+                    readBoolean(), readBoolean(), readString(), readInteger(), readInteger(), readString(),
+                    readString(), readString(), readDate(), readString(), readInteger(),
+                    readList(this::readTokenCard), readInteger(), readTranslations(), readEnum(SET_TYPES));
+        }
+
+        private SetCard readSetCard() {
+            SetCard card = new SetCard(readString(), readString(), readMask(Availability.class),
+                    readEnum(BORDER_COLORS), readMask(Color.class), readMask(Color.class), readMask(Color.class),
+                    readInteger(), readString(), readDouble(), readMask(Finish.class), readString(), readString(),
+                    readLinkedHashSet(this::readForeignData), readMask(FrameEffect.class), readEnum(FRAME_VERSIONS),
+                    readString(), readBoolean(), readBoolean(), readIdentifiers(), readBoolean(), readBoolean(),
+                    readBoolean(), readBoolean(), readBoolean(), readBoolean(), readBoolean(), readBoolean(),
+                    readBoolean(), readBoolean(), readBoolean(), readList(this::readString), readEnum(LAYOUTS),
+                    readLegalities(), readString(), readString(), readString(), readDouble(), readString(),
+                    readString(), readDate(), readString(), readString(), readString(), readString(),
+                    readList(this::readString), readList(this::readString), readEnum(RARITIES),
+                    readList(this::readRuling), readString(), readString(), readList(this::readString),
+                    readList(this::readString), readString(), readString(), readString(),
+                    readList(this::readString), readString(), readList(this::readString), readString());
+            oracleCards.share(card);
+            return card;
+        }
+
+        private TokenCard readTokenCard() {
+            TokenCard card = new TokenCard(readString(), readString(), readMask(Availability.class),
+                    readEnum(BORDER_COLORS), readMask(Color.class), readMask(Color.class), readMask(Color.class),
+                    readInteger(), readString(), readMask(Finish.class), readString(), readMask(FrameEffect.class),
+                    readEnum(FRAME_VERSIONS), readIdentifiers(), readBoolean(), readBoolean(), readBoolean(),
+                    readBoolean(), readList(this::readString), readEnum(LAYOUTS), readString(), readString(),
+                    readString(), readString(), readList(this::readString), readLinkedHashSet(this::readString),
+                    readString(), readString(), readList(this::readString), readList(this::readString),
+                    readString(), readString(), readString(), readList(this::readString), readString(),
+                    readString());
+            oracleCards.share(card);
+            return card;
+        }
+
+        private ForeignData readForeignData() {
+            return new ForeignData(readString(), readString(), readString(), readInteger(), readString(),
+                    readString(), readString());
+        }
+
+        private Identifiers readIdentifiers() {
+            if (!readBoolean()) {
+                return null;
+            }
+            return new Identifiers(readString(), readString(), readString(), readString(), readString(),
+                    readString(), readString(), readString(), readString(), readString(), readString(),
+                    readString(), readString());
+        }
+
+        private Legalities readLegalities() {
+            if (!readBoolean()) {
+                return null;
+            }
+            return new Legalities(readString(), readString(), readString(), readString(), readString(),
+                    readString(), readString(), readString(), readString(), readString(), readString(),
+                    readString(), readString());
+        }
+
+        private Ruling readRuling() {
+            return new Ruling(readDate(), readString());
+        }
+
+        private Translations readTranslations() {
+            if (!readBoolean()) {
+                return null;
+            }
+            return new Translations(readString(), readString(), readString(), readString(), readString(),
+                    readString(), readString(), readString(), readString(), readString(), readString(),
+                    readString(), readString(), readString(), readString(), readString());
+        }
+
+        private <T> List<T> readList(Supplier<T> reader) {
+            int size = readVarint() - 1;
+            if (size < 0) {
+                return null;
+            }
+            List<T> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(reader.get());
+            }
+            return list;
+        }
+
+        private <T> java.util.Set<T> readLinkedHashSet(Supplier<T> reader) {
+            List<T> list = readList(reader);
+            return list != null ? new LinkedHashSet<>(list) : null;
+        }
+
+        private String readString() {
+            int index = readVarint();
+            return index == 0 ? null : strings[index - 1];
+        }
+
+        private String readUtf8() {
+            int length = readVarint() - 1;
+            if (length < 0) {
+                return null;
+            }
+            byte[] utf8 = new byte[length];
+            buffer.get(utf8);
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        private Integer readInteger() {
+            long value = readVarlong();
+            return value == 0 ? null : (int) unZigZag(value - 1);
+        }
+
+        private LocalDate readDate() {
+            long value = readVarlong();
+            return value == 0 ? null : LocalDate.ofEpochDay(unZigZag(value - 1));
+        }
+
+        private <E extends Enum<E>> E readEnum(E[] constants) {
+            int value = readVarint();
+            return value == 0 ? null : constants[value - 1];
+        }
+
+        private <E extends Enum<E>> EnumBitSet<E> readMask(Class<E> type) {
+            return EnumBitSet.fromMask(type, readVarint());
+        }
+
+        private boolean readBoolean() {
+            return buffer.get() != 0;
+        }
+
+        private double readDouble() {
+            return buffer.getDouble();
+        }
+
+        private int readVarint() {
+            long value = readVarlong();
+            if (value > 0xFFFFFFFFL) {
+                throw new IllegalArgumentException("Malformed varint");
+            }
+            return (int) value;
+        }
+
+        private long readVarlong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = buffer.get();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        private static long unZigZag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
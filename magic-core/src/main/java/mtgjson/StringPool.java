@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+
+/**
+ * A pool of canonical strings, which lives as long as a single parse.
+ *
+ * <p>Many card properties have only a few distinct values (e.g. artist, type, power or set code), which are repeated
+ * across hundreds of thousands of cards. The {@linkplain #DESERIALIZER deserializer} replaces such strings by their
+ * canonical instance, so that the parsed cards share them. Unlike {@link String#intern()}, the pool can be garbage
+ * collected after the parse.</p>
+ *
+ * <p>The pool is passed to the deserializer as an attribute of the object reader, keyed by this class. It is
+ * thread-safe, since sets may be deserialized in parallel.</p>
+ */
+final class StringPool {
+
+    /**
+     * Interns the strings of the card properties with few distinct values, if the reader has a pool. Other strings
+     * are deserialized as usual.
+     */
+    static final JsonDeserializer<String> DESERIALIZER = new InterningStringDeserializer();
+
+    // Only properties with few distinct values are interned. Names, numbers and rules texts are almost unique, so
+    // interning them would only grow the pool.
+    private static final Map<Class<?>, java.util.Set<String>> INTERNED_PROPERTIES = Map.of(
+            SetCard.class, java.util.Set.of("artist", "keywords", "loyalty", "power", "promoTypes", "setCode", "side",
+                    "subtypes", "supertypes", "toughness", "type", "types", "watermark"),
+            TokenCard.class, java.util.Set.of("artist", "keywords", "loyalty", "power", "promoTypes", "setCode",
+                    "side", "subtypes", "supertypes", "toughness", "type", "types", "watermark"),
+            ForeignData.class, java.util.Set.of("language", "type"));
+
+    private final Map<String, String> strings = new ConcurrentHashMap<>();
+
+    /**
+     * @param string The string.
+     * @return The canonical instance of the string.
+     */
+    String intern(String string) {
+        String canonical = strings.putIfAbsent(string, string);
+        return canonical != null ? canonical : string;
+    }
+
+    /**
+     * @return The number of canonical strings.
+     */
+    int size() {
+        return strings.size();
+    }
+
+    private static final class InterningStringDeserializer extends StdScalarDeserializer<String>
+            implements ContextualDeserializer {
+
+        private static final long serialVersionUID = 1L;
+
+        private InterningStringDeserializer() {
+            super(String.class);
+        }
+
+        @Override
+        public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) {
+            if (property != null && property.getMember() != null) {
+                java.util.Set<String> properties = INTERNED_PROPERTIES.get(property.getMember().getDeclaringClass());
+                if (properties != null && properties.contains(property.getName())) {
+                    return this;
+                }
+            }
+            return StringDeserializer.instance;
+        }
+
+        @Override
+        public String deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            String string = StringDeserializer.instance.deserialize(p, ctxt);
+            Object pool = ctxt.getAttribute(StringPool.class);
+            return string != null && pool != null ? ((StringPool) pool).intern(string) : string;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+/**
+ * The result of an incremental sync, i.e. the number of sets and cards, which have been inserted, updated or deleted
+ * and which have been skipped, because they were unchanged.
+ *
+ * <p>This class is immutable.</p>
+ *
+ * @see DatabaseUtil#sync(java.util.stream.Stream)
+ */
+public final class SyncResult {
+
+    static final SyncResult EMPTY = new SyncResult(0, 0, 0, 0, 0, 0, 0, 0);
+
+    private final int insertedSets;
+
+    private final int updatedSets;
+
+    private final int deletedSets;
+
+    private final int unchangedSets;
+
+    private final int insertedCards;
+
+    private final int updatedCards;
+
+    private final int deletedCards;
+
+    private final int unchangedCards;
+
+    SyncResult(int insertedSets, int updatedSets, int deletedSets, int unchangedSets, int insertedCards,
+               int updatedCards, int deletedCards, int unchangedCards) {
+        this.insertedSets = insertedSets;
+        this.updatedSets = updatedSets;
+        this.deletedSets = deletedSets;
+        this.unchangedSets = unchangedSets;
+        this.insertedCards = insertedCards;
+        this.updatedCards = updatedCards;
+        this.deletedCards = deletedCards;
+        this.unchangedCards = unchangedCards;
+    }
+
+    /**
+     * Adds the counts of another result to the counts of this one.
+     *
+     * @param other The other result.
+     * @return The sum of both results.
+     */
+    SyncResult plus(SyncResult other) {
+        return new SyncResult(insertedSets + other.insertedSets, updatedSets + other.updatedSets,
+                deletedSets + other.deletedSets, unchangedSets + other.unchangedSets,
+                insertedCards + other.insertedCards, updatedCards + other.updatedCards,
+                deletedCards + other.deletedCards, unchangedCards + other.unchangedCards);
+    }
+
+    /**
+     * Checks, whether anything has been written to the database.
+     */
+    boolean isModified() {
+        return insertedSets + updatedSets + deletedSets + insertedCards + updatedCards + deletedCards > 0;
+    }
+
+    /**
+     * Gets the number of sets, which have not been in the database before.
+     *
+     * @return The number of inserted sets.
+     */
+    public final int getInsertedSets() {
+        return insertedSets;
+    }
+
+    /**
+     * Gets the number of sets, whose content has changed. Only their changed cards have been rewritten.
+     *
+     * @return The number of updated sets.
+     */
+    public final int getUpdatedSets() {
+        return updatedSets;
+    }
+
+    /**
+     * Gets the number of sets, which have been deleted, because they are no longer part of the release.
+     *
+     * @return The number of deleted sets.
+     */
+    public final int getDeletedSets() {
+        return deletedSets;
+    }
+
+    /**
+     * Gets the number of sets, which have been skipped, because their content hash has not changed.
+     *
+     * @return The number of unchanged sets.
+     */
+    public final int getUnchangedSets() {
+        return unchangedSets;
+    }
+
+    /**
+     * Gets the number of cards and tokens, which have not been in the database before.
+     *
+     * @return The number of inserted cards.
+     */
+    public final int getInsertedCards() {
+        return insertedCards;
+    }
+
+    /**
+     * Gets the number of cards and tokens, whose content has changed and which have therefore been rewritten.
+     *
+     * @return The number of updated cards.
+     */
+    public final int getUpdatedCards() {
+        return updatedCards;
+    }
+
+    /**
+     * Gets the number of cards and tokens, which have been deleted, because they are no longer part of their set.
+     *
+     * @return The number of deleted cards.
+     */
+    public final int getDeletedCards() {
+        return deletedCards;
+    }
+
+    /**
+     * Gets the number of cards and tokens, which have been skipped, because their content hash has not changed.
+     *
+     * @return The number of unchanged cards.
+     */
+    public final int getUnchangedCards() {
+        return unchangedCards;
+    }
+
+    @Override
+    public final String toString() {
+        return "Sets: " + insertedSets + " inserted, " + updatedSets + " updated, " + deletedSets + " deleted, "
+                + unchangedSets + " unchanged; Cards: " + insertedCards + " inserted, " + updatedCards + " updated, "
+                + deletedCards + " deleted, " + unchangedCards + " unchanged";
+    }
+}
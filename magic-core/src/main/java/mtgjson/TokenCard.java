@@ -77,8 +77,10 @@ public final class TokenCard extends AbstractCard {
                      String watermark) {
         super(artist, asciiName, availabilities, borderColor, colorIdentity, colorIndicator, colors, edhrecRank,
                 faceName, finishes, flavorText, frameEffects, frameVersion, identifiers, isFullArt, isOnlineOnly,
-                isPromo, isReprint, keywords, layout, loyalty, name, number, power, promoTypes, setCode, side, subtypes,
-                supertypes, text, toughness, type, types, uuid, watermark);
+                isPromo, isReprint, layout, loyalty, name, number,
+                new OracleCard(faceName, keywords, null, null, name, power, null,
+                        identifiers != null ? identifiers.getScryfallOracleId() : null, text, toughness, type),
+                promoTypes, setCode, side, subtypes, supertypes, types, uuid, watermark);
         this.reverseRelated = reverseRelated;
     }
 
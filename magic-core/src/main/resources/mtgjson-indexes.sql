@@ -0,0 +1,21 @@
+-- Lookup columns are bounded, because TEXT columns are stored as CLOBs and cannot be indexed.
+ALTER TABLE Card ALTER COLUMN name SET DATA TYPE VARCHAR(255);
+ALTER TABLE Card ALTER COLUMN ascii_name SET DATA TYPE VARCHAR(255);
+ALTER TABLE Card ALTER COLUMN face_name SET DATA TYPE VARCHAR(255);
+ALTER TABLE Card ALTER COLUMN set_code SET DATA TYPE VARCHAR(8);
+
+ALTER TABLE Identifiers ALTER COLUMN multiverse_id SET DATA TYPE VARCHAR(36);
+ALTER TABLE Identifiers ALTER COLUMN mtgjson_v4_id SET DATA TYPE VARCHAR(36);
+ALTER TABLE Identifiers ALTER COLUMN scryfall_id SET DATA TYPE VARCHAR(36);
+ALTER TABLE Identifiers ALTER COLUMN scryfall_oracle_id SET DATA TYPE VARCHAR(36);
+ALTER TABLE Identifiers ALTER COLUMN tcgplayer_product_id SET DATA TYPE VARCHAR(36);
+
+CREATE INDEX IDX_Card_Name ON Card (name);
+CREATE INDEX IDX_Card_Set_Code ON Card (set_code);
+CREATE UNIQUE INDEX IDX_Card_Uuid ON Card (uuid);
+
+CREATE INDEX IDX_Identifiers_Multiverse_Id ON Identifiers (multiverse_id);
+CREATE INDEX IDX_Identifiers_Mtgjson_V4_Id ON Identifiers (mtgjson_v4_id);
+CREATE INDEX IDX_Identifiers_Scryfall_Id ON Identifiers (scryfall_id);
+CREATE INDEX IDX_Identifiers_Scryfall_Oracle_Id ON Identifiers (scryfall_oracle_id);
+CREATE INDEX IDX_Identifiers_Tcgplayer_Product_Id ON Identifiers (tcgplayer_product_id);
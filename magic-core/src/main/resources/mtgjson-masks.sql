@@ -0,0 +1,105 @@
+-- The sets of enum constants of a card are stored as bitmasks in the Card table instead of child tables.
+-- Bit i stands for the enum constant with the ordinal i (see mtgjson.EnumBitSet).
+-- The bits are combined with BIT_OR instead of SUM, since the child tables may contain a value more than once, which
+-- would otherwise carry into the bit of another constant.
+
+ALTER TABLE Card ADD COLUMN availability_mask INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE Card ADD COLUMN color_identity_mask INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE Card ADD COLUMN color_indicator_mask INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE Card ADD COLUMN colors_mask INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE Card ADD COLUMN finishes_mask INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE Card ADD COLUMN frame_effects_mask INTEGER NOT NULL DEFAULT 0;
+
+UPDATE Card
+SET availability_mask = COALESCE(
+        (SELECT BIT_OR(CASE UPPER(CAST(availability AS VARCHAR(32)))
+                        WHEN 'ARENA' THEN 1
+                        WHEN 'DREAMCAST' THEN 2
+                        WHEN 'MTGO' THEN 4
+                        WHEN 'PAPER' THEN 8
+                        WHEN 'SHANDALAR' THEN 16
+                        ELSE 0 END)
+         FROM Card_Availability
+         WHERE Card_Availability.card_id = Card.id), 0);
+
+UPDATE Card
+SET color_identity_mask = COALESCE(
+        (SELECT BIT_OR(CASE UPPER(CAST(color AS VARCHAR(32)))
+                        WHEN 'WHITE' THEN 1
+                        WHEN 'BLUE' THEN 2
+                        WHEN 'BLACK' THEN 4
+                        WHEN 'RED' THEN 8
+                        WHEN 'GREEN' THEN 16
+                        ELSE 0 END)
+         FROM Card_Color_Identity
+         WHERE Card_Color_Identity.card_id = Card.id), 0);
+
+UPDATE Card
+SET color_indicator_mask = COALESCE(
+        (SELECT BIT_OR(CASE UPPER(CAST(color AS VARCHAR(32)))
+                        WHEN 'WHITE' THEN 1
+                        WHEN 'BLUE' THEN 2
+                        WHEN 'BLACK' THEN 4
+                        WHEN 'RED' THEN 8
+                        WHEN 'GREEN' THEN 16
+                        ELSE 0 END)
+         FROM Card_Color_Indicator
+         WHERE Card_Color_Indicator.card_id = Card.id), 0);
+
+UPDATE Card
+SET colors_mask = COALESCE(
+        (SELECT BIT_OR(CASE UPPER(CAST(color AS VARCHAR(32)))
+                        WHEN 'WHITE' THEN 1
+                        WHEN 'BLUE' THEN 2
+                        WHEN 'BLACK' THEN 4
+                        WHEN 'RED' THEN 8
+                        WHEN 'GREEN' THEN 16
+                        ELSE 0 END)
+         FROM Card_Color
+         WHERE Card_Color.card_id = Card.id), 0);
+
+UPDATE Card
+SET finishes_mask = COALESCE(
+        (SELECT BIT_OR(CASE UPPER(CAST(finish AS VARCHAR(32)))
+                        WHEN 'ETCHED' THEN 1
+                        WHEN 'FOIL' THEN 2
+                        WHEN 'GLOSSY' THEN 4
+                        WHEN 'NONFOIL' THEN 8
+                        WHEN 'SIGNED' THEN 16
+                        ELSE 0 END)
+         FROM Card_Finish
+         WHERE Card_Finish.card_id = Card.id), 0);
+
+UPDATE Card
+SET frame_effects_mask = COALESCE(
+        (SELECT BIT_OR(CASE UPPER(CAST(frame_effect AS VARCHAR(32)))
+                        WHEN 'COLORSHIFTED' THEN 1
+                        WHEN 'COMPANION' THEN 2
+                        WHEN 'COMPASSLANDDFC' THEN 4
+                        WHEN 'DEVOID' THEN 8
+                        WHEN 'DRAFT' THEN 16
+                        WHEN 'ETCHED' THEN 32
+                        WHEN 'EXTENDEDART' THEN 64
+                        WHEN 'FULLART' THEN 128
+                        WHEN 'INVERTED' THEN 256
+                        WHEN 'LEGENDARY' THEN 512
+                        WHEN 'MIRACLE' THEN 1024
+                        WHEN 'MOONELDRAZIDFC' THEN 2048
+                        WHEN 'NYXBORN' THEN 4096
+                        WHEN 'NYXTOUCHED' THEN 8192
+                        WHEN 'ORIGINPWDFC' THEN 16384
+                        WHEN 'SHOWCASE' THEN 32768
+                        WHEN 'SNOW' THEN 65536
+                        WHEN 'SUNMOONDFC' THEN 131072
+                        WHEN 'TOMBSTONE' THEN 262144
+                        WHEN 'WAXINGANDWANINGMOONDFC' THEN 524288
+                        ELSE 0 END)
+         FROM Card_Frame_Effect
+         WHERE Card_Frame_Effect.card_id = Card.id), 0);
+
+DROP TABLE Card_Availability;
+DROP TABLE Card_Color_Identity;
+DROP TABLE Card_Color_Indicator;
+DROP TABLE Card_Color;
+DROP TABLE Card_Finish;
+DROP TABLE Card_Frame_Effect;
@@ -0,0 +1,36 @@
+-- Oracle cards are identified by their Scryfall oracle id and face name, like the printings of a parse share them
+-- (see mtgjson.OracleCardPool). The content hash only detects, whether a stored oracle card has changed. Since NULL
+-- values are distinct in a unique index, the key uses a face key, which is empty for cards without faces.
+ALTER TABLE Oracle_Card ADD COLUMN face_key VARCHAR(255) NOT NULL DEFAULT '';
+UPDATE Oracle_Card SET face_key = face_name WHERE face_name IS NOT NULL;
+
+-- Oracle cards, which have been stored more than once (e.g. by concurrent writers), are merged into the first one.
+UPDATE Card
+SET oracle_card_id = (SELECT MIN(kept.id)
+                      FROM Oracle_Card kept
+                               JOIN Oracle_Card duplicate
+                                    ON kept.scryfall_oracle_id = duplicate.scryfall_oracle_id
+                                        AND kept.face_key = duplicate.face_key
+                      WHERE duplicate.id = Card.oracle_card_id)
+WHERE oracle_card_id IN (SELECT duplicate.id
+                         FROM Oracle_Card kept
+                                  JOIN Oracle_Card duplicate
+                                       ON kept.scryfall_oracle_id = duplicate.scryfall_oracle_id
+                                           AND kept.face_key = duplicate.face_key
+                                           AND kept.id < duplicate.id);
+DELETE
+FROM Oracle_Card_Keyword
+WHERE oracle_card_id NOT IN (SELECT MIN(id) FROM Oracle_Card GROUP BY scryfall_oracle_id, face_key)
+  AND oracle_card_id IN (SELECT id FROM Oracle_Card WHERE scryfall_oracle_id IS NOT NULL);
+DELETE
+FROM Oracle_Card_Ruling
+WHERE oracle_card_id NOT IN (SELECT MIN(id) FROM Oracle_Card GROUP BY scryfall_oracle_id, face_key)
+  AND oracle_card_id IN (SELECT id FROM Oracle_Card WHERE scryfall_oracle_id IS NOT NULL);
+DELETE
+FROM Oracle_Card
+WHERE id NOT IN (SELECT MIN(id) FROM Oracle_Card GROUP BY scryfall_oracle_id, face_key)
+  AND scryfall_oracle_id IS NOT NULL;
+
+DROP INDEX IDX_Oracle_Card_Content_Hash;
+DROP INDEX IDX_Oracle_Card_Scryfall_Oracle_Id;
+CREATE UNIQUE INDEX IDX_Oracle_Card_Key ON Oracle_Card (scryfall_oracle_id, face_key);
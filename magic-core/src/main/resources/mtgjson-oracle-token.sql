@@ -0,0 +1,19 @@
+-- Tokens and set cards may have the same Scryfall oracle id, but the oracle card of a token lacks e.g. the legalities
+-- and rulings. Therefore the kind of the card is part of the key of an oracle card (see mtgjson.OracleCardPool).
+ALTER TABLE Oracle_Card ADD COLUMN token BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Oracle cards, which only tokens use, are marked. Those, which tokens share with set cards, are kept by the set cards,
+-- since the tokens get their own ones, when their sets are stored again.
+UPDATE Oracle_Card
+SET token = TRUE
+WHERE id IN (SELECT Card.oracle_card_id
+             FROM Card
+                      JOIN Token_Card ON Token_Card.card_id = Card.id
+             WHERE Card.oracle_card_id IS NOT NULL)
+  AND id NOT IN (SELECT Card.oracle_card_id
+                 FROM Card
+                          JOIN Set_Card ON Set_Card.card_id = Card.id
+                 WHERE Card.oracle_card_id IS NOT NULL);
+
+DROP INDEX IDX_Oracle_Card_Key;
+CREATE UNIQUE INDEX IDX_Oracle_Card_Key ON Oracle_Card (scryfall_oracle_id, face_key, token);
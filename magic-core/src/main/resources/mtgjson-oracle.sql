@@ -0,0 +1,53 @@
+-- The gameplay data, which all printings of a card share (see mtgjson.OracleCard), is stored once in Oracle_Card
+-- instead of in each Card row. Oracle cards are identified by the content hash of their rows, since the oracle id is
+-- shared by the faces of a card. Cards, which have been imported before, keep their data in the Card row.
+CREATE TABLE Oracle_Card
+(
+    id                 INTEGER PRIMARY KEY AUTO_INCREMENT,
+    face_name          VARCHAR(255),
+    mana_cost          TEXT,
+    name               VARCHAR(255),
+    power              TEXT,
+    scryfall_oracle_id VARCHAR(36),
+    text               TEXT,
+    toughness          TEXT,
+    type               TEXT,
+    brawl              VARCHAR(16),
+    commander          VARCHAR(16),
+    duel               VARCHAR(16),
+    future             VARCHAR(16),
+    frontier           VARCHAR(16),
+    historic           VARCHAR(16),
+    legacy             VARCHAR(16),
+    modern             VARCHAR(16),
+    pauper             VARCHAR(16),
+    penny              VARCHAR(16),
+    pioneer            VARCHAR(16),
+    standard           VARCHAR(16),
+    vintage            VARCHAR(16),
+    content_hash       BIGINT NOT NULL
+);
+
+CREATE TABLE Oracle_Card_Keyword
+(
+    id             INTEGER PRIMARY KEY AUTO_INCREMENT,
+    oracle_card_id INTEGER,
+    keyword        VARCHAR(255),
+    CONSTRAINT FK_Oracle_Card_Oracle_Card_Keyword FOREIGN KEY (oracle_card_id) REFERENCES Oracle_Card (id)
+);
+
+CREATE TABLE Oracle_Card_Ruling
+(
+    id             INTEGER PRIMARY KEY AUTO_INCREMENT,
+    oracle_card_id INTEGER,
+    date           DATE,
+    text           TEXT,
+    CONSTRAINT FK_Oracle_Card_Oracle_Card_Ruling FOREIGN KEY (oracle_card_id) REFERENCES Oracle_Card (id)
+);
+
+CREATE INDEX IDX_Oracle_Card_Content_Hash ON Oracle_Card (content_hash);
+CREATE INDEX IDX_Oracle_Card_Name ON Oracle_Card (name);
+CREATE INDEX IDX_Oracle_Card_Scryfall_Oracle_Id ON Oracle_Card (scryfall_oracle_id);
+
+ALTER TABLE Card ADD COLUMN oracle_card_id INTEGER;
+ALTER TABLE Card ADD CONSTRAINT FK_Oracle_Card_Card FOREIGN KEY (oracle_card_id) REFERENCES Oracle_Card (id);
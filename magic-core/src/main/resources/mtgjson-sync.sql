@@ -0,0 +1,13 @@
+-- Content hashes of the stored sets and cards, by which an incremental sync skips unchanged content
+-- (see mtgjson.DatabaseUtil#sync). Rows without a hash are always rewritten by the next sync.
+ALTER TABLE Set ADD COLUMN content_hash BIGINT;
+ALTER TABLE Card ADD COLUMN content_hash BIGINT;
+
+-- The set, which a card or token has been imported with. Tokens have a set code of their own, e.g. TMRD for MRD.
+ALTER TABLE Card ADD COLUMN set_id INTEGER;
+ALTER TABLE Card ADD CONSTRAINT FK_Set_Card FOREIGN KEY (set_id) REFERENCES Set (id);
+
+-- Tokens, which have been imported before, cannot be assigned to their set. They get their set with the next sync.
+UPDATE Card
+SET set_id = (SELECT Set.id FROM Set WHERE Set.code = Card.set_code)
+WHERE id IN (SELECT card_id FROM Set_Card);
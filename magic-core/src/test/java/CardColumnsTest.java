@@ -0,0 +1,137 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import mtgjson.CardColumns;
+import mtgjson.Color;
+import mtgjson.Format;
+import mtgjson.Layout;
+import mtgjson.Legality;
+import mtgjson.MtgJsonParser;
+import mtgjson.Rarity;
+import mtgjson.Set;
+import mtgjson.SetCard;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class CardColumnsTest {
+
+    private List<SetCard> cards;
+
+    private CardColumns columns;
+
+    @BeforeClass
+    public void buildColumns() throws IOException {
+        try (InputStream inputStream = getClass().getResourceAsStream("MRD.json")) {
+            Set set = MtgJsonParser.parseSet(inputStream).orElseThrow();
+            cards = set.getCards();
+            columns = CardColumns.of(Stream.of(set));
+        }
+    }
+
+    @Test
+    public void testRows() {
+        Assert.assertEquals(columns.size(), 306);
+        for (int row = 0; row < cards.size(); row++) {
+            SetCard card = cards.get(row);
+            Assert.assertEquals(columns.getUuid(row), card.getUuid());
+            Assert.assertEquals(columns.getName(row), card.getName());
+            Assert.assertEquals(columns.getSetCode(row), "MRD");
+            Assert.assertEquals(columns.getArtist(row), card.getArtist());
+            Assert.assertEquals(columns.getManaValue(row), card.getManaValue());
+            Assert.assertEquals(columns.getFaceManaValue(row), card.getFaceManaValue());
+            Assert.assertEquals(columns.getEdhrecRank(row), card.getEdhrecRank());
+            Assert.assertEquals(columns.getRarity(row), card.getRarity());
+            Assert.assertEquals(columns.getLayout(row), card.getLayout());
+            Assert.assertEquals(columns.getColors(row), card.getColors());
+            Assert.assertEquals(columns.getColorIdentity(row), card.getColorIdentity());
+            Assert.assertEquals(columns.getLegality(row, Format.VINTAGE), card.getLegalities().getVintage());
+        }
+    }
+
+    @Test
+    public void testFilters() {
+        assertRows(columns.manaValueBetween(2, 3), card -> card.getManaValue() >= 2 && card.getManaValue() <= 3);
+        assertRows(columns.faceManaValueBetween(0, 0), card -> card.getFaceManaValue() == 0);
+        assertRows(columns.edhrecRankAtMost(5000),
+                card -> card.getEdhrecRank() != null && card.getEdhrecRank() <= 5000);
+        assertRows(columns.rarityIn(Rarity.RARE, Rarity.MYTHIC),
+                card -> card.getRarity() == Rarity.RARE || card.getRarity() == Rarity.MYTHIC);
+        assertRows(columns.layoutIn(Layout.NORMAL), card -> card.getLayout() == Layout.NORMAL);
+        assertRows(columns.borderColorIn(cards.get(0).getBorderColor()),
+                card -> card.getBorderColor() == cards.get(0).getBorderColor());
+        assertRows(columns.frameVersionIn(cards.get(0).getFrameVersion()),
+                card -> card.getFrameVersion() == cards.get(0).getFrameVersion());
+        assertRows(columns.colorsWithin(EnumSet.of(Color.BLUE, Color.RED)),
+                card -> EnumSet.of(Color.BLUE, Color.RED).containsAll(card.getColors()));
+        assertRows(columns.colorsIncluding(EnumSet.of(Color.GREEN)), card -> card.getColors().contains(Color.GREEN));
+        assertRows(columns.colorIdentityWithin(EnumSet.noneOf(Color.class)),
+                card -> card.getColorIdentity().isEmpty());
+        assertRows(columns.typeContains("Artifact"), card -> card.getTypes().contains("Artifact"));
+        assertRows(columns.legalityEquals(Format.MODERN, "Legal"),
+                card -> "Legal".equals(card.getLegalities().getModern()));
+        assertRows(columns.legalityEquals(Format.VINTAGE, Legality.RESTRICTED),
+                card -> "Restricted".equals(card.getLegalities().getVintage()));
+        assertRows(columns.legalityEquals(Format.STANDARD, Legality.NOT_LEGAL),
+                card -> Legality.of(card.getLegalities().getStandard()) == Legality.NOT_LEGAL);
+        assertRows(columns.nameEquals("Chrome Mox"), card -> card.getName().equals("Chrome Mox"));
+        assertRows(columns.setCodeEquals("MRD"), card -> true);
+    }
+
+    @Test
+    public void testFiltersWithUnknownValues() {
+        Assert.assertTrue(columns.typeContains("Plane").isEmpty());
+        Assert.assertTrue(columns.nameEquals("Black Lotus").isEmpty());
+        Assert.assertTrue(columns.legalityEquals(Format.STANDARD, "Restricted").isEmpty());
+        Assert.assertTrue(columns.legalityEquals(Format.STANDARD, Legality.RESTRICTED).isEmpty());
+        Assert.assertTrue(columns.rarityIn().isEmpty());
+    }
+
+    @Test
+    public void testCombinedFilters() {
+        BitSet rows = columns.typeContains("Artifact");
+        rows.and(columns.manaValueBetween(0, 0));
+        rows.and(columns.rarityIn(Rarity.RARE));
+        Assert.assertTrue(rows.stream().mapToObj(columns::getName).anyMatch("Chrome Mox"::equals));
+    }
+
+    private void assertRows(BitSet rows, Predicate<SetCard> predicate) {
+        BitSet expected = new BitSet();
+        for (int row = 0; row < cards.size(); row++) {
+            if (predicate.test(cards.get(row))) {
+                expected.set(row);
+            }
+        }
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(rows, expected);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import mtgjson.CardIndex;
+import mtgjson.MtgJsonParser;
+import mtgjson.Set;
+import mtgjson.SetCard;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class CardIndexTest {
+
+    private CardIndex cardIndex;
+
+    @BeforeClass
+    public void buildIndex() throws IOException {
+        try (InputStream inputStream = getClass().getResourceAsStream("MRD.json")) {
+            Set set = MtgJsonParser.parseSet(inputStream).orElseThrow();
+            cardIndex = CardIndex.of(Stream.of(set));
+        }
+    }
+
+    @Test
+    public void testFindCardsByName() {
+        List<SetCard> cards = cardIndex.findCardsByName("Chrome Mox");
+        Assert.assertEquals(cards.size(), 1);
+        Assert.assertEquals(cards.get(0).getName(), "Chrome Mox");
+        Assert.assertEquals(cardIndex.findCardsByName("chrome mox"), cards);
+        Assert.assertEquals(cardIndex.findCardsByName("Plains").size(), 4);
+        Assert.assertTrue(cardIndex.findCardsByName("Chrome").isEmpty());
+    }
+
+    @Test
+    public void testFindCardsByNameIsAccentInsensitive() {
+        List<SetCard> cards = cardIndex.findCardsByName("Æther Spellbomb");
+        Assert.assertEquals(cards.size(), 1);
+        Assert.assertEquals(cards.get(0).getName(), "Aether Spellbomb");
+        Assert.assertEquals(cardIndex.findCardsByName("Chrôme Mox").size(), 1);
+    }
+
+    @Test
+    public void testFindCardsByNamePrefix() {
+        Assert.assertEquals(names(cardIndex.findCardsByNamePrefix("ch")),
+                List.of("Chalice of the Void", "Chimney Imp", "Chromatic Sphere", "Chrome Mox"));
+        Assert.assertEquals(cardIndex.findCardsByNamePrefix("Plai").size(), 4);
+        Assert.assertTrue(cardIndex.findCardsByNamePrefix("xyz").isEmpty());
+        Assert.assertEquals(cardIndex.findNamesByPrefix("ch", 2), List.of("Chalice of the Void", "Chimney Imp"));
+        Assert.assertEquals(cardIndex.findNamesByPrefix("plains", 10), List.of("Plains"));
+    }
+
+    @Test
+    public void testFindCardsByNameLike() {
+        Assert.assertEquals(names(cardIndex.findCardsByNameLike("%spellbomb")),
+                List.of("Aether Spellbomb", "Lifespark Spellbomb", "Necrogen Spellbomb", "Pyrite Spellbomb",
+                        "Sunbeam Spellbomb"));
+        Assert.assertEquals(names(cardIndex.findCardsByNameLike("%mox%")), List.of("Chrome Mox"));
+        Assert.assertEquals(names(cardIndex.findCardsByNameLike("Chrome Mox")), List.of("Chrome Mox"));
+        Assert.assertEquals(names(cardIndex.findCardsByNameLike("Chr_me%")), List.of("Chrome Mox"));
+        Assert.assertEquals(names(cardIndex.findCardsByNameLike("%mox")), List.of("Chrome Mox"));
+        Assert.assertEquals(cardIndex.findCardsByNameLike("%").size(), 306);
+        Assert.assertTrue(cardIndex.findCardsByNameLike("Chrome").isEmpty());
+        Assert.assertTrue(cardIndex.findCardsByNameLike("%mox%spell%").isEmpty());
+        Assert.assertTrue(cardIndex.findCardsByNameLike("%100\\%%").isEmpty());
+    }
+
+    private static List<String> names(List<SetCard> cards) {
+        return cards.stream().map(SetCard::getName).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import mtgjson.CardTextIndex;
+import mtgjson.MtgJsonParser;
+import mtgjson.Set;
+import mtgjson.SetCard;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class CardTextIndexTest {
+
+    private List<SetCard> cards;
+
+    private CardTextIndex index;
+
+    @BeforeClass
+    public void buildIndex() throws IOException {
+        try (InputStream inputStream = getClass().getResourceAsStream("MRD.json")) {
+            Set set = MtgJsonParser.parseSet(inputStream).orElseThrow();
+            cards = set.getCards();
+            index = CardTextIndex.of(Stream.of(set));
+        }
+    }
+
+    @Test
+    public void testSearchPhrase() {
+        List<SetCard> expected = cards.stream()
+                .filter(card -> card.getText() != null && card.getText().toLowerCase().contains("draw a card"))
+                .collect(Collectors.toList());
+        Assert.assertFalse(expected.isEmpty());
+        List<SetCard> result = index.search("\"Draw a card\"", 1000);
+        Assert.assertTrue(result.containsAll(expected));
+        for (SetCard card : result) {
+            Assert.assertTrue(expected.contains(card) || card.getOriginalText().toLowerCase().contains("draw a card"),
+                    card.getName());
+        }
+        // The terms occur in many more cards, than the phrase.
+        Assert.assertTrue(index.search("draw a card", 1000).size() > result.size());
+    }
+
+    @Test
+    public void testSearchAllTerms() {
+        List<SetCard> result = index.search("\"draw a card\" artifact creature", 1000);
+        Assert.assertFalse(result.isEmpty());
+        for (SetCard card : result) {
+            String words = (card.getType() + ' ' + card.getText() + ' ' + card.getOriginalText()).toLowerCase();
+            Assert.assertTrue(words.contains("artifact") && words.contains("creature"), card.getName());
+        }
+        Assert.assertTrue(index.search("\"draw a card\" flying", 10).isEmpty());
+        Assert.assertTrue(index.search("xyzzy", 10).isEmpty());
+        Assert.assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    public void testRanking() {
+        // The name and the type count more than the text, which mentions Chrome Mox as well.
+        List<SetCard> result = index.search("chrome mox", 10);
+        Assert.assertEquals(result.get(0).getName(), "Chrome Mox");
+        Assert.assertEquals(index.search("chrome mox", 0).size(), 0);
+    }
+
+    @Test
+    public void testSearchForeignData() {
+        Assert.assertEquals(index.search("Mox de chrome", 10).get(0).getName(), "Chrome Mox");
+        // Accents are folded.
+        Assert.assertEquals(index.search("chrommox einpragen", 10).get(0).getName(), "Chrome Mox");
+        Assert.assertEquals(index.search("Chrommox Einprägen", 10).get(0).getName(), "Chrome Mox");
+        // Japanese texts are split into bigrams.
+        Assert.assertEquals(index.search("金属モックス", 10).get(0).getName(), "Chrome Mox");
+        Assert.assertEquals(index.search("モックス", 10).get(0).getName(), "Chrome Mox");
+    }
+}
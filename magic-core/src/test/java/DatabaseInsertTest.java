@@ -0,0 +1,222 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import liquibase.exception.LiquibaseException;
+import mtgjson.CommitInterval;
+import mtgjson.DatabaseUtil;
+import mtgjson.ForeignData;
+import mtgjson.MtgJsonParser;
+import mtgjson.OracleCard;
+import mtgjson.Set;
+import mtgjson.SetCard;
+import org.h2.jdbcx.JdbcDataSource;
+import org.jooq.exception.DataAccessException;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class DatabaseInsertTest {
+
+    private JsonNode json;
+
+    @BeforeClass
+    public void readSet() throws IOException {
+        try (InputStream inputStream = getClass().getResourceAsStream("MRD.json")) {
+            json = new ObjectMapper().readTree(inputStream);
+        }
+    }
+
+    @Test
+    public void insertIsAtomic() throws SQLException, LiquibaseException, IOException {
+        DatabaseUtil databaseUtil = createDatabase("InsertIsAtomic");
+        databaseUtil.insert(copy("AAA", 'a'));
+
+        // The cards of the copy have the same uuids, so the insert fails after the set has been written.
+        Assert.assertThrows(DataAccessException.class, () -> databaseUtil.insert(copy("BBB", 'a')));
+        Assert.assertEquals(codes(databaseUtil), List.of("AAA"));
+        Assert.assertEquals(databaseUtil.findCardsByName("Chrome Mox").size(), 1);
+    }
+
+    @Test
+    public void insertCommitsPerSets() throws SQLException, LiquibaseException, IOException {
+        DatabaseUtil databaseUtil = createDatabase("InsertCommitsPerSets");
+        Stream<Set> sets = Stream.of(copy("AAA", 'a'), copy("BBB", 'b'), copy("CCC", 'c'), copy("DDD", 'a'));
+        Assert.assertThrows(DataAccessException.class, () -> databaseUtil.insert(sets, CommitInterval.perSets(2)));
+        // The third set has not been committed, when the fourth one failed.
+        Assert.assertEquals(codes(databaseUtil), List.of("AAA", "BBB"));
+    }
+
+    @Test
+    public void insertCommitsPerRows() throws SQLException, LiquibaseException, IOException {
+        DatabaseUtil databaseUtil = createDatabase("InsertCommitsPerRows");
+        Stream<Set> sets = Stream.of(copy("AAA", 'a'), copy("BBB", 'b'), copy("CCC", 'a'));
+        Assert.assertThrows(DataAccessException.class,
+                () -> databaseUtil.insert(sets, CommitInterval.perRows(1_000_000)));
+        Assert.assertTrue(codes(databaseUtil).isEmpty());
+
+        // A single set exceeds the interval, so each set is committed.
+        Assert.assertEquals(databaseUtil.insert(Stream.of(copy("AAA", 'a'), copy("BBB", 'b')),
+                CommitInterval.perRows(100)), 2);
+        Assert.assertEquals(codes(databaseUtil), List.of("AAA", "BBB"));
+        Assert.assertEquals(databaseUtil.findCardsByName("Chrome Mox").size(), 2);
+    }
+
+    @Test
+    public void insertInSmallBatches() throws SQLException, LiquibaseException, IOException {
+        // The batch size does not divide the number of cards or child rows, so the last chunk of each is partial.
+        JdbcDataSource dataSource = dataSource("InsertInSmallBatches");
+        DatabaseUtil databaseUtil = new DatabaseUtil(dataSource, 7);
+        databaseUtil.init();
+        Set set = copy("AAA", 'a');
+        databaseUtil.insert(set);
+
+        Map<String, SetCard> cards = databaseUtil.findCardsByName("%").stream()
+                .collect(Collectors.toMap(SetCard::getNumber, Function.identity()));
+        Assert.assertEquals(cards.size(), set.getCards().size());
+        for (SetCard expected : set.getCards()) {
+            SetCard card = cards.get(expected.getNumber());
+            Assert.assertEquals(card.getName(), expected.getName());
+            Assert.assertEquals(card.getColors(), expected.getColors());
+            Assert.assertEquals(card.getIdentifiers().getScryfallId(), expected.getIdentifiers().getScryfallId());
+            Assert.assertEquals(card.getForeignData().stream().map(ForeignData::getName).collect(Collectors.toSet()),
+                    expected.getForeignData().stream().map(ForeignData::getName).collect(Collectors.toSet()));
+            Assert.assertEquals(card.getKeywords(), expected.getKeywords());
+            Assert.assertEquals(card.getRulings().size(), expected.getRulings().size());
+            Assert.assertEquals(card.getLegalities().getVintage(), expected.getLegalities().getVintage());
+        }
+
+        // The tokens are not fetched with the cards, so their rows are counted.
+        JdbcDataSource referenceDataSource = dataSource("InsertInSmallBatchesReference");
+        DatabaseUtil reference = new DatabaseUtil(referenceDataSource);
+        reference.init();
+        reference.insert(set);
+        for (String table : List.of("Card", "Foreign_Data", "Identifiers", "Token_Card_Reverse_Related",
+                "Oracle_Card_Ruling")) {
+            Assert.assertEquals(count(dataSource, table), count(referenceDataSource, table), table);
+        }
+    }
+
+    @Test
+    public void insertTokensWithOracleIdOfCard() throws SQLException, LiquibaseException, IOException {
+        DatabaseUtil databaseUtil = createDatabase("InsertTokensWithOracleIdOfCard");
+        databaseUtil.insert(copyWithToken("AAA", 'a', "Chrome Mox"));
+        int oracleCards = count(dataSource("InsertTokensWithOracleIdOfCard"), "Oracle_Card");
+        databaseUtil.insert(copyWithToken("BBB", 'b', "Chrome Mox"));
+
+        // The printings of the token share one row, which is kept apart from the one of the card.
+        Assert.assertEquals(count(dataSource("InsertTokensWithOracleIdOfCard"), "Oracle_Card"), oracleCards);
+        List<OracleCard> chromeMox = databaseUtil.findOracleCardsByName("Chrome Mox");
+        Assert.assertEquals(chromeMox.size(), 2);
+        Assert.assertEquals(chromeMox.stream().filter(oracleCard -> oracleCard.getRulings().size() == 2).count(), 1);
+        Assert.assertTrue(databaseUtil.findCardsByName("Chrome Mox").stream()
+                .allMatch(card -> "Banned".equals(card.getLegalities().getModern())
+                        && card.getRulings().size() == 2));
+    }
+
+    @Test
+    public void commitIntervalRejectsInvalidValues() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> CommitInterval.perSets(0));
+        Assert.assertThrows(IllegalArgumentException.class, () -> CommitInterval.perRows(0));
+    }
+
+    private static DatabaseUtil createDatabase(String name) throws SQLException, LiquibaseException {
+        DatabaseUtil databaseUtil = new DatabaseUtil(dataSource(name));
+        databaseUtil.init();
+        return databaseUtil;
+    }
+
+    private static JdbcDataSource dataSource(String name) {
+        JdbcDataSource jdbcDataSource = new JdbcDataSource();
+        jdbcDataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return jdbcDataSource;
+    }
+
+    private static int count(DataSource dataSource, String table) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             ResultSet resultSet = connection.createStatement().executeQuery("SELECT COUNT(*) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private static List<String> codes(DatabaseUtil databaseUtil) throws SQLException {
+        return databaseUtil.findSetsLazily().stream().map(Set::getCode).sorted().collect(Collectors.toList());
+    }
+
+    /**
+     * Copies the MRD set under another code. The uuids of its cards start with the given character instead.
+     */
+    private Set copy(String code, char uuidPrefix) throws IOException {
+        return copy(code, uuidPrefix, json.deepCopy());
+    }
+
+    /**
+     * Copies the MRD set like {@link #copy(String, char)} and adds a token, which has the oracle id of a card and is
+     * parsed before it.
+     */
+    private Set copyWithToken(String code, char uuidPrefix, String name) throws IOException {
+        JsonNode copy = json.deepCopy();
+        ObjectNode data = (ObjectNode) copy.path("data");
+        JsonNode cards = data.remove("cards");
+        for (JsonNode card : cards) {
+            if (card.path("name").asText().equals(name)) {
+                ObjectNode token = card.deepCopy();
+                // Not a hex digit, so the uuid differs from those of all cards.
+                token.put("uuid", card.path("uuid").asText().substring(0, 35) + "x");
+                token.putArray("reverseRelated");
+                data.putArray("tokens").add(token);
+            }
+        }
+        data.set("cards", cards);
+        return copy(code, uuidPrefix, copy);
+    }
+
+    private static Set copy(String code, char uuidPrefix, JsonNode copy) throws IOException {
+        ObjectNode data = (ObjectNode) copy.path("data");
+        data.put("code", code);
+        for (String cards : List.of("cards", "tokens")) {
+            for (JsonNode card : data.path(cards)) {
+                ((ObjectNode) card).put("uuid", uuidPrefix + card.path("uuid").asText().substring(1));
+            }
+        }
+        byte[] bytes = new ObjectMapper().writeValueAsBytes(copy);
+        return MtgJsonParser.parseSet(new ByteArrayInputStream(bytes)).orElseThrow();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import liquibase.exception.LiquibaseException;
+import mtgjson.DatabaseUtil;
+import mtgjson.MtgJsonParser;
+import mtgjson.OracleCard;
+import mtgjson.Set;
+import mtgjson.SetCard;
+import mtgjson.SyncResult;
+import org.h2.jdbcx.JdbcDataSource;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class DatabaseSyncTest {
+
+    private DatabaseUtil databaseUtil;
+
+    private JsonNode json;
+
+    @BeforeClass
+    public void initDatabase() throws SQLException, LiquibaseException, IOException {
+        JdbcDataSource jdbcDataSource = new JdbcDataSource();
+        jdbcDataSource.setURL("jdbc:h2:mem:DatabaseSync;DB_CLOSE_DELAY=-1");
+        databaseUtil = new DatabaseUtil(jdbcDataSource);
+        databaseUtil.init();
+        try (InputStream inputStream = getClass().getResourceAsStream("MRD.json")) {
+            json = new ObjectMapper().readTree(inputStream);
+        }
+    }
+
+    @Test
+    public void syncInsertsNewSet() throws SQLException, IOException {
+        SyncResult result = databaseUtil.sync(Stream.of(parse(json)));
+        Assert.assertEquals(result.getInsertedSets(), 1);
+        Assert.assertEquals(result.getInsertedCards(), 306);
+        Assert.assertEquals(databaseUtil.findSets().get(0).getCards().size(), 306);
+    }
+
+    @Test(dependsOnMethods = "syncInsertsNewSet")
+    public void syncSkipsUnchangedSet() throws SQLException, IOException {
+        SyncResult result = databaseUtil.sync(Stream.of(parse(json)));
+        Assert.assertEquals(result.getUnchangedSets(), 1);
+        Assert.assertEquals(result.getUnchangedCards(), 306);
+        Assert.assertEquals(result.getUpdatedSets(), 0);
+        Assert.assertEquals(result.getInsertedCards(), 0);
+    }
+
+    @Test(dependsOnMethods = "syncSkipsUnchangedSet")
+    public void syncWritesChangedCards() throws SQLException, IOException {
+        JsonNode changed = json.deepCopy();
+        ArrayNode cards = (ArrayNode) changed.path("data").path("cards");
+        for (int i = cards.size() - 1; i >= 0; i--) {
+            String name = cards.get(i).path("name").asText();
+            if (name.equals("Chrome Mox")) {
+                ((ObjectNode) cards.get(i)).put("artist", "Someone Else");
+            } else if (name.equals("Solar Tide")) {
+                cards.remove(i);
+            }
+        }
+
+        SyncResult result = databaseUtil.sync(parse(changed));
+        Assert.assertEquals(result.getUpdatedSets(), 1);
+        Assert.assertEquals(result.getUpdatedCards(), 1);
+        Assert.assertEquals(result.getDeletedCards(), 1);
+        Assert.assertEquals(result.getInsertedCards(), 0);
+        Assert.assertEquals(result.getUnchangedCards(), 304);
+
+        List<SetCard> chromeMox = databaseUtil.findCardsByName("Chrome Mox");
+        Assert.assertEquals(chromeMox.size(), 1);
+        Assert.assertEquals(chromeMox.get(0).getArtist(), "Someone Else");
+        Assert.assertEquals(chromeMox.get(0).getForeignData().size(), 6);
+        Assert.assertNotNull(chromeMox.get(0).getIdentifiers());
+        Assert.assertTrue(databaseUtil.findCardsByName("Solar Tide").isEmpty());
+
+        // The original release restores the card.
+        result = databaseUtil.sync(parse(json));
+        Assert.assertEquals(result.getInsertedCards(), 1);
+        Assert.assertEquals(result.getUpdatedCards(), 1);
+        Assert.assertEquals(databaseUtil.findCardsByName("Chrome Mox").get(0).getArtist(), "Donato Giancola");
+    }
+
+    @Test(dependsOnMethods = "syncWritesChangedCards")
+    public void syncUpdatesChangedOracleCards() throws SQLException, IOException {
+        OracleCard before = databaseUtil.findOracleCardsByName("Chrome Mox").get(0);
+        JsonNode changed = json.deepCopy();
+        for (JsonNode card : changed.path("data").path("cards")) {
+            if (card.path("name").asText().equals("Chrome Mox")) {
+                ((ObjectNode) card.path("legalities")).put("modern", "Legal");
+            }
+        }
+
+        SyncResult result = databaseUtil.sync(parse(changed));
+        Assert.assertEquals(result.getUpdatedCards(), 1);
+        // The oracle card is identified by its oracle id and updated in place, including its keywords and rulings.
+        List<OracleCard> oracleCards = databaseUtil.findOracleCardsByName("Chrome Mox");
+        Assert.assertEquals(oracleCards.size(), 1);
+        Assert.assertEquals(oracleCards.get(0).getLegalities().getModern(), "Legal");
+        Assert.assertEquals(oracleCards.get(0).getKeywords(), before.getKeywords());
+        Assert.assertEquals(oracleCards.get(0).getRulings().size(), before.getRulings().size());
+        Assert.assertEquals(databaseUtil.findCardsByName("Chrome Mox").get(0).getLegalities().getModern(), "Legal");
+
+        result = databaseUtil.sync(parse(json));
+        Assert.assertEquals(result.getUpdatedCards(), 1);
+        Assert.assertEquals(databaseUtil.findOracleCardsByName("Chrome Mox").get(0).getLegalities().getModern(),
+                "Banned");
+    }
+
+    @Test(dependsOnMethods = "syncUpdatesChangedOracleCards")
+    public void syncDeletesMissingSet() throws SQLException {
+        SyncResult result = databaseUtil.sync(Stream.empty());
+        Assert.assertEquals(result.getDeletedSets(), 1);
+        Assert.assertEquals(result.getDeletedCards(), 306);
+        Assert.assertTrue(databaseUtil.findSets().isEmpty());
+        Assert.assertTrue(databaseUtil.findCardsByName("%").isEmpty());
+    }
+
+    private static Set parse(JsonNode json) throws IOException {
+        byte[] bytes = new ObjectMapper().writeValueAsBytes(json);
+        return MtgJsonParser.parseSet(new ByteArrayInputStream(bytes)).orElseThrow();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import mtgjson.Color;
+import mtgjson.EnumBitSet;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class EnumBitSetTest {
+
+    @Test
+    public void testMask() {
+        EnumBitSet<Color> colors = EnumBitSet.of(Color.class, List.of(Color.BLACK, Color.WHITE, Color.BLACK));
+        Assert.assertEquals(colors.toMask(), 0b101);
+        Assert.assertEquals(colors.size(), 2);
+        Assert.assertTrue(colors.contains(Color.WHITE));
+        Assert.assertFalse(colors.contains(Color.BLUE));
+        // Iterates in the order of the constants, like an EnumSet.
+        Assert.assertEquals(List.copyOf(colors), List.of(Color.WHITE, Color.BLACK));
+        Assert.assertEquals(EnumBitSet.fromMask(Color.class, 0b101), colors);
+        Assert.assertEquals(colors, EnumSet.of(Color.WHITE, Color.BLACK));
+        Assert.assertEquals(EnumSet.of(Color.WHITE, Color.BLACK), colors);
+        Assert.assertEquals(colors.hashCode(), EnumSet.of(Color.WHITE, Color.BLACK).hashCode());
+        Assert.assertTrue(EnumBitSet.of(Color.class, null).isEmpty());
+    }
+
+    @Test
+    public void testContainsAll() {
+        Set<Color> esper = EnumBitSet.of(Color.class, EnumSet.of(Color.WHITE, Color.BLUE, Color.BLACK));
+        Assert.assertTrue(esper.containsAll(EnumBitSet.of(Color.class, EnumSet.of(Color.WHITE, Color.BLACK))));
+        Assert.assertFalse(esper.containsAll(EnumBitSet.of(Color.class, EnumSet.of(Color.WHITE, Color.RED))));
+        Assert.assertTrue(esper.containsAll(EnumSet.of(Color.BLUE)));
+        Assert.assertFalse(esper.containsAll(EnumSet.of(Color.GREEN)));
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testImmutable() {
+        EnumBitSet.of(Color.class, EnumSet.of(Color.WHITE)).add(Color.BLUE);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidMask() {
+        EnumBitSet.fromMask(Color.class, 0b100000);
+    }
+}
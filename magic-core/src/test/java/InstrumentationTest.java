@@ -0,0 +1,141 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import liquibase.exception.LiquibaseException;
+import mtgjson.DatabaseUtil;
+import mtgjson.JfrInstrumentation;
+import mtgjson.MetricsInstrumentation;
+import mtgjson.MtgJsonParser;
+import mtgjson.ParseOptions;
+import mtgjson.Set;
+import org.h2.jdbcx.JdbcDataSource;
+import org.jooq.exception.DataAccessException;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class InstrumentationTest {
+
+    private MetricsInstrumentation metrics;
+
+    private DatabaseUtil databaseUtil;
+
+    private Set set;
+
+    @BeforeClass
+    public void initDatabase() throws SQLException, LiquibaseException, IOException {
+        metrics = new MetricsInstrumentation();
+        try (InputStream inputStream = getClass().getResourceAsStream("MRD.json")) {
+            set = MtgJsonParser.parseSet(inputStream, ParseOptions.builder().instrumentation(metrics).build())
+                    .orElseThrow();
+        }
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:Instrumentation;DB_CLOSE_DELAY=-1");
+        databaseUtil = new DatabaseUtil(dataSource, DatabaseUtil.DEFAULT_BATCH_SIZE, null, metrics);
+        databaseUtil.init();
+        databaseUtil.insert(set);
+    }
+
+    @Test
+    public void testParse() {
+        Assert.assertEquals(metrics.getCount("parse.sets"), 1);
+        Assert.assertEquals(metrics.getCount("parse.cards"), set.getCards().size());
+        Assert.assertTrue(metrics.getCount("parse.bytes") > 0);
+        Assert.assertEquals(metrics.getHistogram("parse.time").getCount(), 1);
+        Assert.assertTrue(metrics.getThroughput("parse.bytes", "parse.time") > 0);
+    }
+
+    @Test
+    public void testInsert() {
+        Assert.assertEquals(metrics.getCount("insert.rows.SET"), 1);
+        Assert.assertEquals(metrics.getCount("insert.rows.CARD"), set.getCards().size() + set.getTokens().size());
+        Assert.assertTrue(metrics.getCount("insert.rows.FOREIGN_DATA") > 0);
+        Assert.assertTrue(metrics.getHistogram("insert.time.CARD").getCount() > 0);
+        Assert.assertTrue(metrics.getHistogram("connection.wait").getCount() > 0);
+    }
+
+    @Test
+    public void testQueries() throws SQLException {
+        Assert.assertEquals(databaseUtil.findCardsByName("Chrome Mox").size(), 1);
+        // The cards and their foreign data, identifiers, oracle cards, keywords and rulings.
+        Assert.assertEquals(metrics.getHistogram("query.count.findCardsByName").getMax(), 6);
+        Assert.assertEquals(metrics.getHistogram("query.time.findCardsByName").getCount(), 1);
+
+        try (Stream<Set> sets = databaseUtil.streamSets()) {
+            Assert.assertEquals(sets.count(), 1);
+        }
+        // The sets and the cards of the only set.
+        Assert.assertEquals(metrics.getHistogram("query.count.streamSets").getMax(), 7);
+    }
+
+    @Test
+    public void testFailedQueries() {
+        MetricsInstrumentation failures = new MetricsInstrumentation();
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:InstrumentationWithoutSchema;DB_CLOSE_DELAY=-1");
+        DatabaseUtil uninitialized = new DatabaseUtil(dataSource, DatabaseUtil.DEFAULT_BATCH_SIZE, null, failures);
+
+        Assert.assertThrows(DataAccessException.class, () -> uninitialized.findCardsByName("Chrome Mox"));
+        Assert.assertEquals(failures.getHistogram("query.time.findCardsByName").getCount(), 1);
+
+        Assert.assertThrows(DataAccessException.class, uninitialized::streamSets);
+        Assert.assertEquals(failures.getHistogram("query.time.streamSets").getCount(), 1);
+    }
+
+    @Test
+    public void testJfrEvents() throws IOException {
+        Path path = Files.createTempFile("mtgjson", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("mtgjson.SetParsed");
+            recording.start();
+            try (InputStream inputStream = getClass().getResourceAsStream("MRD.json")) {
+                MtgJsonParser.parseSet(inputStream, ParseOptions.builder()
+                        .instrumentation(new JfrInstrumentation().andThen(new MetricsInstrumentation()))
+                        .build());
+            }
+            recording.stop();
+            recording.dump(path);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(path).stream()
+                    .filter(event -> event.getEventType().getName().equals("mtgjson.SetParsed"))
+                    .collect(Collectors.toList());
+            Assert.assertEquals(events.size(), 1);
+            Assert.assertEquals(events.get(0).getString("code"), "MRD");
+            Assert.assertEquals(events.get(0).getInt("cards"), set.getCards().size());
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
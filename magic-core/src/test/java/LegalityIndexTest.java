@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import mtgjson.DeckViolation;
+import mtgjson.Format;
+import mtgjson.Legality;
+import mtgjson.LegalityIndex;
+import mtgjson.MtgJsonParser;
+import mtgjson.Set;
+import mtgjson.SetCard;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class LegalityIndexTest {
+
+    private Set set;
+
+    private LegalityIndex index;
+
+    @BeforeClass
+    public void buildIndex() throws IOException {
+        try (InputStream inputStream = getClass().getResourceAsStream("MRD.json")) {
+            set = MtgJsonParser.parseSet(inputStream).orElseThrow();
+            index = LegalityIndex.of(Stream.of(set));
+        }
+    }
+
+    @Test
+    public void testGetLegality() {
+        Assert.assertEquals(index.getLegality("Chrome Mox", Format.VINTAGE), Optional.of(Legality.LEGAL));
+        Assert.assertEquals(index.getLegality("chrome mox", Format.MODERN), Optional.of(Legality.BANNED));
+        Assert.assertEquals(index.getLegality("Chalice of the Void", Format.VINTAGE), Optional.of(Legality.RESTRICTED));
+        Assert.assertEquals(index.getLegality("Chrome Mox", Format.STANDARD), Optional.of(Legality.NOT_LEGAL));
+        Assert.assertEquals(index.getLegality("Black Lotus", Format.VINTAGE), Optional.empty());
+        for (SetCard card : set.getCards()) {
+            for (Format format : Format.values()) {
+                Assert.assertEquals(index.getLegality(card.getUuid(), format),
+                        Optional.of(Legality.of(format.getLegality(card.getLegalities()))));
+            }
+        }
+    }
+
+    @Test
+    public void testValidate() {
+        Map<String, Integer> deck = new LinkedHashMap<>();
+        deck.put("Atog", 4);
+        deck.put("Seat of the Synod", 4);
+        deck.put("Chalice of the Void", 2);
+        deck.put("Black Lotus", 1);
+        List<DeckViolation> violations = index.validate(Format.MODERN, deck);
+        Assert.assertEquals(violations.size(), 2);
+        Assert.assertEquals(violations.get(0).getCard(), "Seat of the Synod");
+        Assert.assertEquals(violations.get(0).getReason(), DeckViolation.Reason.NOT_LEGAL);
+        Assert.assertEquals(violations.get(0).getLegality(), Legality.BANNED);
+        Assert.assertEquals(violations.get(1).getCard(), "Black Lotus");
+        Assert.assertEquals(violations.get(1).getReason(), DeckViolation.Reason.UNKNOWN_CARD);
+
+        violations = index.validate(Format.VINTAGE, deck);
+        Assert.assertEquals(violations.size(), 2);
+        Assert.assertEquals(violations.get(0).getCard(), "Chalice of the Void");
+        Assert.assertEquals(violations.get(0).getReason(), DeckViolation.Reason.TOO_MANY_COPIES);
+    }
+
+    @Test
+    public void testValidateCommander() {
+        Map<String, Integer> deck = new LinkedHashMap<>();
+        deck.put("Atog", 1);
+        deck.put("Chrome Mox", 1);
+        deck.put("Mountain", 30);
+        deck.put("Trolls of Tel-Jilad", 1);
+        List<DeckViolation> violations = index.validate(Format.COMMANDER, deck, List.of("Bosh, Iron Golem"));
+        Assert.assertEquals(violations.size(), 1);
+        Assert.assertEquals(violations.get(0).getCard(), "Trolls of Tel-Jilad");
+        Assert.assertEquals(violations.get(0).getReason(), DeckViolation.Reason.OUTSIDE_COLOR_IDENTITY);
+
+        violations = index.validate(Format.COMMANDER, deck, List.of("Bosh, Iron Golem", "Glissa Sunseeker"));
+        Assert.assertTrue(violations.isEmpty());
+
+        violations = index.validate(Format.COMMANDER, deck, List.of("Lightning Greaves"));
+        Assert.assertEquals(violations.size(), 3);
+    }
+}
@@ -27,17 +27,22 @@ import java.io.InputStream;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.Month;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import liquibase.exception.LiquibaseException;
 import mtgjson.Availability;
 import mtgjson.BorderColor;
+import mtgjson.Color;
 import mtgjson.DatabaseUtil;
 import mtgjson.Finish;
 import mtgjson.FrameVersion;
 import mtgjson.Layout;
 import mtgjson.MtgJsonParser;
+import mtgjson.OracleCard;
 import mtgjson.Set;
 import mtgjson.SetCard;
 import org.h2.jdbcx.JdbcDataSource;
@@ -116,6 +121,36 @@ public class MtgDaoTest {
         Assert.assertNull(chromeMox.getWatermark());
     }
 
+    @Test
+    public void findOracleCardsByName() throws SQLException {
+        List<OracleCard> oracleCards = mtgDao.findOracleCardsByName("Chrome Mox");
+        Assert.assertEquals(oracleCards.size(), 1);
+        OracleCard chromeMox = oracleCards.get(0);
+        Assert.assertEquals(chromeMox.getScryfallOracleId(), "ec3d4466-547c-4e02-b1b5-a156ec4637e9");
+        Assert.assertEquals(chromeMox.getManaCost(), "{0}");
+        Assert.assertEquals(chromeMox.getType(), "Artifact");
+        Assert.assertEquals(chromeMox.getKeywords(), List.of("Imprint"));
+        Assert.assertEquals(chromeMox.getLegalities().getModern(), "Banned");
+        Assert.assertEquals(chromeMox.getLegalities().getVintage(), "Legal");
+        Assert.assertNull(chromeMox.getLegalities().getStandard());
+        Assert.assertEquals(chromeMox.getRulings().size(), 2);
+        Assert.assertEquals(chromeMox.getRulings().get(0).getDate(), LocalDate.of(2020, Month.AUGUST, 7));
+
+        SetCard card = mtgDao.findCardsByName("Chrome Mox").get(0);
+        Assert.assertEquals(card.getText(), chromeMox.getText());
+        Assert.assertEquals(card.getRulings().size(), 2);
+        Assert.assertEquals(card.getLegalities().getModern(), "Banned");
+    }
+
+    @Test
+    public void findCardsSharesOracleCards() throws SQLException {
+        List<SetCard> plains = mtgDao.findCardsByName("Plains");
+        Assert.assertEquals(plains.size(), 4);
+        // Assert.assertSame compares with equals() in this TestNG version, therefore the references are compared.
+        plains.forEach(card -> Assert.assertTrue(card.getOracleCard() == plains.get(0).getOracleCard()));
+        Assert.assertEquals(mtgDao.findOracleCardsByName("Plains").size(), 1);
+    }
+
     @Test
     public void findSets() throws SQLException {
         List<Set> sets = mtgDao.findSets();
@@ -135,5 +170,72 @@ public class MtgDaoTest {
         Assert.assertEquals(set.getTcgplayerGroupId(), Integer.valueOf(75));
         Assert.assertEquals(set.getTotalSetSize(), Integer.valueOf(306));
         Assert.assertEquals(set.getType(), Set.Type.EXPANSION);
+
+        SetCard chromeMox = set.getCards().stream()
+                .filter(card -> card.getName().equals("Chrome Mox"))
+                .findFirst()
+                .orElseThrow();
+        Assert.assertEquals(chromeMox.getAvailabilities().size(), 2);
+        Assert.assertEquals(chromeMox.getFinishes().size(), 2);
+        Assert.assertEquals(chromeMox.getForeignData().size(), 6);
+        Assert.assertNotNull(chromeMox.getIdentifiers());
+    }
+
+    @Test
+    public void findSetsLazily() throws SQLException {
+        List<Set> sets = mtgDao.findSetsLazily();
+        Assert.assertEquals(sets.size(), 1);
+        Set set = sets.get(0);
+        Assert.assertFalse(set.isLoaded());
+        Assert.assertEquals(set.getCode(), "MRD");
+        Assert.assertEquals(set.getName(), "Mirrodin");
+        Assert.assertFalse(set.isLoaded());
+
+        Assert.assertEquals(set.getCards().size(), set.getTotalSetSize().intValue());
+        Assert.assertTrue(set.isLoaded());
+        Assert.assertTrue(set.getCards().stream().allMatch(card -> card.getIdentifiers() != null));
+        Assert.assertTrue(set.getTokens().isEmpty());
+    }
+
+    @Test
+    public void streamSets() throws SQLException {
+        try (Stream<Set> sets = mtgDao.streamSets()) {
+            List<Set> list = sets.collect(Collectors.toList());
+            Assert.assertEquals(list.size(), 1);
+            Set set = list.get(0);
+            Assert.assertEquals(set.getCode(), "MRD");
+            Assert.assertEquals(set.getCards().size(), set.getTotalSetSize().intValue());
+            Assert.assertTrue(set.getCards().stream().allMatch(card -> card.getIdentifiers() != null));
+        }
+    }
+
+    @Test
+    public void streamCardsByName() throws SQLException {
+        try (Stream<SetCard> cards = mtgDao.streamCardsByName("Chrome Mox")) {
+            SetCard chromeMox = cards.collect(Collectors.toList()).get(0);
+            Assert.assertEquals(chromeMox.getArtist(), "Donato Giancola");
+            Assert.assertEquals(chromeMox.getForeignData().size(), 6);
+            Assert.assertNotNull(chromeMox.getIdentifiers());
+        }
+        // More cards than fit into one chunk.
+        try (Stream<SetCard> cards = mtgDao.streamCardsByName("%")) {
+            Assert.assertEquals(cards.filter(card -> card.getIdentifiers() != null).count(), 306);
+        }
+    }
+
+    @Test
+    public void findCardsWithinColorIdentity() throws SQLException {
+        Assert.assertEquals(mtgDao.findCardsWithinColorIdentity(EnumSet.noneOf(Color.class)).size(), 106);
+        Assert.assertEquals(mtgDao.findCardsWithinColorIdentity(EnumSet.of(Color.WHITE)).size(), 145);
+        Assert.assertEquals(mtgDao.findCardsWithinColorIdentity(
+                EnumSet.of(Color.WHITE, Color.BLUE, Color.BLACK)).size(), 225);
+        Assert.assertEquals(mtgDao.findCardsWithinColorIdentity(EnumSet.allOf(Color.class)).size(), 306);
+
+        SetCard solarTide = mtgDao.findCardsByName("Solar Tide").get(0);
+        Assert.assertEquals(solarTide.getColors(), EnumSet.of(Color.WHITE));
+        Assert.assertEquals(solarTide.getColorIdentity(), EnumSet.of(Color.WHITE));
+        Assert.assertTrue(solarTide.getColorIndicator().isEmpty());
+        Assert.assertEquals(solarTide.getFinishes(), EnumSet.of(Finish.FOIL, Finish.NONFOIL));
+        Assert.assertEquals(solarTide.getAvailabilities(), EnumSet.of(Availability.MTGO, Availability.PAPER));
     }
 }
@@ -27,14 +27,12 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.sql.SQLException;
-import java.util.stream.Stream;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import liquibase.exception.LiquibaseException;
 import mtgjson.DatabaseUtil;
-import mtgjson.MtgJsonParser;
-import mtgjson.Set;
+import mtgjson.SetImporter;
 import org.testng.annotations.Test;
 
 public class MtgJsonParserIT {
@@ -53,14 +51,7 @@ public class MtgJsonParserIT {
         DatabaseUtil db = new DatabaseUtil(ds);
         db.init();
         try (InputStream inputStream = Files.newInputStream(Paths.get("./AllPrintings.json"))) {
-            Stream<Set> sets = MtgJsonParser.parseAllPrintings(inputStream);
-            sets.forEach(set -> {
-                try {
-                    db.insert(set);
-                } catch (SQLException e) {
-                    e.printStackTrace();
-                }
-            });
+            new SetImporter(db).importAllPrintings(inputStream);
         }
     }
 }
@@ -22,14 +22,38 @@
  * SOFTWARE.
  */
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import mtgjson.AllPrintingsIndex;
 import mtgjson.MtgJsonParser;
+import mtgjson.ParseOptions;
 import mtgjson.Set;
+import mtgjson.SetCard;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorOutputStream;
 import org.testng.Assert;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 public class MtgJsonParserTest {
@@ -47,4 +71,330 @@ public class MtgJsonParserTest {
             Assert.assertEquals(set.getCards().size(), 306);
         }
     }
+
+    @Test
+    public void testParseWithProjection() throws IOException {
+        ParseOptions options = ParseOptions.builder()
+                .cardProperties("name", "uuid", "manaCost", "types", "colors", "legalities", "identifiers")
+                .tokens(false)
+                .translations(false)
+                .build();
+        try (InputStream inputStream = getClass().getResourceAsStream("MRD.json")) {
+            Set set = MtgJsonParser.parseSet(inputStream, options).orElseThrow();
+            Assert.assertEquals(set.getCode(), "MRD");
+            Assert.assertTrue(set.getTokens().isEmpty());
+            Assert.assertNull(set.getTranslations());
+            Assert.assertEquals(set.getCards().size(), 306);
+
+            SetCard chromeMox = set.getCards().stream()
+                    .filter(card -> card.getName().equals("Chrome Mox"))
+                    .findFirst()
+                    .orElseThrow();
+            Assert.assertEquals(chromeMox.getManaCost(), "{0}");
+            Assert.assertNotNull(chromeMox.getUuid());
+            Assert.assertEquals(chromeMox.getTypes(), List.of("Artifact"));
+            Assert.assertNotNull(chromeMox.getLegalities());
+            Assert.assertNotNull(chromeMox.getIdentifiers());
+            Assert.assertNull(chromeMox.getArtist());
+            Assert.assertNull(chromeMox.getForeignData());
+            Assert.assertNull(chromeMox.getRulings());
+            Assert.assertNull(chromeMox.getOriginalText());
+            Assert.assertNull(chromeMox.getText());
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testParseOptionsRejectUnknownProperty() {
+        ParseOptions.builder().cardProperties("name", "nmae");
+    }
+
+    @Test
+    public void testParseInternsStrings() throws IOException {
+        // Assert.assertSame compares with equals() in this TestNG version, therefore the references are compared.
+        try (InputStream inputStream = getClass().getResourceAsStream("MRD.json")) {
+            List<SetCard> cards = MtgJsonParser.parseSet(inputStream).orElseThrow().getCards();
+            SetCard first = cards.get(0);
+            for (SetCard card : cards) {
+                Assert.assertTrue(card.getSetCode() == first.getSetCode());
+            }
+            List<String> artifactTypes = cards.stream()
+                    .flatMap(card -> card.getTypes().stream())
+                    .filter("Artifact"::equals)
+                    .collect(Collectors.toList());
+            Assert.assertTrue(artifactTypes.size() > 1);
+            artifactTypes.forEach(type -> Assert.assertTrue(type == artifactTypes.get(0)));
+        }
+        try (InputStream inputStream = getClass().getResourceAsStream("MRD.json")) {
+            List<SetCard> cards = MtgJsonParser.parseSet(inputStream, ParseOptions.builder().internStrings(false).build())
+                    .orElseThrow().getCards();
+            Assert.assertFalse(cards.get(0).getSetCode() == cards.get(1).getSetCode());
+        }
+    }
+
+    @Test
+    public void testParseSharesOracleCards() throws IOException {
+        try (InputStream inputStream = getClass().getResourceAsStream("MRD.json")) {
+            List<SetCard> plains = MtgJsonParser.parseSet(inputStream).orElseThrow().getCards().stream()
+                    .filter(card -> card.getName().equals("Plains"))
+                    .collect(Collectors.toList());
+            Assert.assertEquals(plains.size(), 4);
+            plains.forEach(card -> Assert.assertTrue(card.getOracleCard() == plains.get(0).getOracleCard()));
+            Assert.assertTrue(plains.get(1).getLegalities() == plains.get(0).getLegalities());
+            Assert.assertEquals(plains.get(0).getOracleCard().getScryfallOracleId(),
+                    plains.get(0).getIdentifiers().getScryfallOracleId());
+            Assert.assertEquals(plains.get(0).getOracleCard().getType(), "Basic Land — Plains");
+        }
+        try (InputStream inputStream = getClass().getResourceAsStream("MRD.json")) {
+            List<SetCard> plains = MtgJsonParser.parseSet(inputStream,
+                            ParseOptions.builder().shareOracleCards(false).build())
+                    .orElseThrow().getCards().stream()
+                    .filter(card -> card.getName().equals("Plains"))
+                    .collect(Collectors.toList());
+            Assert.assertFalse(plains.get(0).getOracleCard() == plains.get(1).getOracleCard());
+        }
+    }
+
+    @Test
+    public void testParseSharesOracleCardsOfTokensApart() throws IOException {
+        ObjectNode json;
+        try (InputStream inputStream = getClass().getResourceAsStream("MRD.json")) {
+            json = (ObjectNode) new ObjectMapper().readTree(inputStream);
+        }
+        // A token with the oracle id of a card, which is parsed before the card, since the cards are moved last.
+        ObjectNode data = (ObjectNode) json.get("data");
+        JsonNode cards = data.remove("cards");
+        for (JsonNode card : cards) {
+            if (card.path("name").asText().equals("Chrome Mox")) {
+                ObjectNode token = card.deepCopy();
+                token.put("uuid", "00000000-0000-0000-0000-000000000000");
+                token.putArray("reverseRelated");
+                data.putArray("tokens").add(token);
+            }
+        }
+        data.set("cards", cards);
+
+        Set set = MtgJsonParser.parseSet(new ByteArrayInputStream(new ObjectMapper().writeValueAsBytes(json)))
+                .orElseThrow();
+        SetCard chromeMox = set.getCards().stream()
+                .filter(card -> card.getName().equals("Chrome Mox"))
+                .findAny()
+                .orElseThrow();
+        Assert.assertEquals(set.getTokens().get(0).getIdentifiers().getScryfallOracleId(),
+                chromeMox.getIdentifiers().getScryfallOracleId());
+        Assert.assertFalse(set.getTokens().get(0).getOracleCard() == chromeMox.getOracleCard());
+        Assert.assertNull(set.getTokens().get(0).getOracleCard().getLegalities());
+        Assert.assertEquals(chromeMox.getLegalities().getModern(), "Banned");
+        Assert.assertEquals(chromeMox.getRulings().size(), 2);
+    }
+
+    @DataProvider
+    public Object[][] compressions() {
+        return new Object[][]{
+                {(Compressor) GZIPOutputStream::new},
+                // The fastest presets keep the test fast.
+                {(Compressor) outputStream -> new XZCompressorOutputStream(outputStream, 0)},
+                {(Compressor) outputStream -> new BZip2CompressorOutputStream(outputStream, 1)}
+        };
+    }
+
+    @Test(dataProvider = "compressions")
+    public void testParseCompressedSet(Compressor compressor) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (InputStream inputStream = getClass().getResourceAsStream("MRD.json");
+             OutputStream outputStream = compressor.compress(compressed)) {
+            inputStream.transferTo(outputStream);
+        }
+        Set set = MtgJsonParser.parseSet(new ByteArrayInputStream(compressed.toByteArray())).orElseThrow();
+        Assert.assertEquals(set.getCode(), "MRD");
+        Assert.assertEquals(set.getCards().size(), 306);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testParseZstdIsRejected() throws IOException {
+        byte[] zstd = {0x28, (byte) 0xB5, 0x2F, (byte) 0xFD, 0, 0, 0, 0};
+        MtgJsonParser.parseSet(new ByteArrayInputStream(zstd));
+    }
+
+    @Test
+    public void testParseCompressedAllPrintings() throws IOException {
+        Path allPrintings = writeAllPrintings(Arrays.asList("AAA", "BBB", "CCC"));
+        Path compressed = allPrintings.resolveSibling(allPrintings.getFileName() + ".gz");
+        try {
+            try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+                Files.copy(allPrintings, outputStream);
+            }
+            try (Stream<Set> sets = MtgJsonParser.parseAllPrintings(compressed)) {
+                Assert.assertEquals(sets.map(Set::getCode).collect(Collectors.toList()),
+                        Arrays.asList("AAA", "BBB", "CCC"));
+            }
+            Assert.assertEquals(MtgJsonParser.parseSet(compressed, "BBB").orElseThrow().getCode(), "BBB");
+        } finally {
+            deleteAllPrintings(allPrintings);
+            Files.delete(compressed);
+        }
+    }
+
+    @Test
+    public void testParseMappedSet() throws IOException {
+        Path path = Files.createTempFile("MRD", ".json");
+        try (InputStream inputStream = getClass().getResourceAsStream("MRD.json")) {
+            Files.copy(inputStream, path, StandardCopyOption.REPLACE_EXISTING);
+            Set set = MtgJsonParser.parseSet(path).orElseThrow();
+            Assert.assertEquals(set.getCode(), "MRD");
+            Assert.assertEquals(set.getCards().size(), 306);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testParseAllPrintingsInParallel() throws IOException {
+        Path allPrintings = writeAllPrintings(Arrays.asList("AAA", "BBB", "CCC", "DDD", "EEE"));
+        try (Stream<Set> sets = MtgJsonParser.parseAllPrintings(allPrintings)) {
+            Assert.assertTrue(sets.isParallel());
+            List<Set> result = sets.collect(Collectors.toList());
+            Assert.assertEquals(result.stream().map(Set::getCode).collect(Collectors.toList()),
+                    Arrays.asList("AAA", "BBB", "CCC", "DDD", "EEE"));
+            for (Set set : result) {
+                Assert.assertEquals(set.getName(), "Mirrodin");
+                Assert.assertEquals(set.getCards().size(), 306);
+            }
+        } finally {
+            deleteAllPrintings(allPrintings);
+        }
+    }
+
+    @Test
+    public void testParseAllPrintingsSplits() throws IOException {
+        Path allPrintings = writeAllPrintings(Arrays.asList("AAA", "BBB", "CCC", "DDD"));
+        try (Stream<Set> sets = MtgJsonParser.parseAllPrintings(allPrintings)) {
+            Spliterator<Set> suffix = sets.spliterator();
+            Assert.assertTrue(suffix.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+            Assert.assertEquals(suffix.estimateSize(), 4);
+
+            // All sets have the same size, so the split is in the middle.
+            Spliterator<Set> prefix = suffix.trySplit();
+            Assert.assertNotNull(prefix);
+            Assert.assertEquals(prefix.estimateSize(), 2);
+            Assert.assertEquals(suffix.estimateSize(), 2);
+            Assert.assertTrue(prefix.tryAdvance(set -> Assert.assertEquals(set.getCode(), "AAA")));
+            Assert.assertTrue(suffix.tryAdvance(set -> Assert.assertEquals(set.getCode(), "CCC")));
+        } finally {
+            deleteAllPrintings(allPrintings);
+        }
+    }
+
+    @Test
+    public void testParseAllPrintingsLazily() throws IOException {
+        Path allPrintings = writeAllPrintings(Arrays.asList("AAA", "BBB"));
+        try {
+            List<Set> sets = MtgJsonParser.parseAllPrintingsLazily(allPrintings);
+            Assert.assertEquals(sets.stream().map(Set::getCode).collect(Collectors.toList()),
+                    Arrays.asList("AAA", "BBB"));
+            Set aaa = sets.get(0);
+            Assert.assertFalse(aaa.isLoaded());
+            Assert.assertEquals(aaa.getName(), "Mirrodin");
+            Assert.assertEquals(aaa.getReleaseDate(), LocalDate.of(2003, 10, 2));
+            Assert.assertEquals(aaa.getCards().size(), 306);
+            Assert.assertTrue(aaa.isLoaded());
+
+            // The byte ranges are outdated, once the file has changed.
+            Files.setLastModifiedTime(allPrintings, FileTime.fromMillis(0));
+            Assert.assertThrows(UncheckedIOException.class, () -> sets.get(1).getCards());
+            Assert.assertEquals(aaa.getCards().size(), 306);
+        } finally {
+            deleteAllPrintings(allPrintings);
+        }
+    }
+
+    @Test
+    public void testParseSetByCode() throws IOException {
+        Path allPrintings = writeAllPrintings(Arrays.asList("AAA", "BBB", "CCC"));
+        try {
+            Set set = MtgJsonParser.parseSet(allPrintings, "BBB").orElseThrow();
+            Assert.assertEquals(set.getCode(), "BBB");
+            Assert.assertEquals(set.getCards().size(), 306);
+            Assert.assertFalse(MtgJsonParser.parseSet(allPrintings, "MRD").isPresent());
+            // By default, nothing is written next to the file.
+            Path indexPath = AllPrintingsIndex.indexPath(allPrintings);
+            Assert.assertFalse(Files.exists(indexPath));
+
+            // The index is stored and reused, if asked to.
+            ParseOptions options = ParseOptions.builder().storeIndex(true).build();
+            Assert.assertEquals(MtgJsonParser.parseSet(allPrintings, "BBB", options).orElseThrow().getCode(), "BBB");
+            Assert.assertTrue(Files.exists(indexPath));
+            AllPrintingsIndex index = AllPrintingsIndex.load(allPrintings, indexPath);
+            Assert.assertEquals(index.getSetCodes(), Arrays.asList("AAA", "BBB", "CCC"));
+            Assert.assertEquals(index.getMeta().getVersion(), "5.2.0+20220119");
+            Assert.assertEquals(index.getMeta().getDate(), LocalDate.of(2022, 1, 19));
+            Assert.assertEquals(MtgJsonParser.parseSet(allPrintings, "CCC", options).orElseThrow().getCode(), "CCC");
+        } finally {
+            deleteAllPrintings(allPrintings);
+        }
+    }
+
+    @Test
+    public void testParseSetByCodeRebuildsOutdatedIndex() throws IOException {
+        Path allPrintings = writeAllPrintings(Arrays.asList("AAA", "BBB"));
+        try {
+            ParseOptions options = ParseOptions.builder().storeIndex(true).build();
+            Assert.assertTrue(MtgJsonParser.parseSet(allPrintings, "AAA", options).isPresent());
+            Path other = writeAllPrintings(Arrays.asList("XXX", "AAA"));
+            Files.move(other, allPrintings, StandardCopyOption.REPLACE_EXISTING);
+            Files.setLastModifiedTime(allPrintings, FileTime.fromMillis(0));
+
+            Assert.assertEquals(AllPrintingsIndex.load(allPrintings, AllPrintingsIndex.indexPath(allPrintings))
+                    .getSetCodes(), Arrays.asList("XXX", "AAA"));
+            Assert.assertEquals(MtgJsonParser.parseSet(allPrintings, "AAA", options).orElseThrow().getCode(), "AAA");
+        } finally {
+            deleteAllPrintings(allPrintings);
+        }
+    }
+
+    @Test
+    public void testStoreIndexFailure() throws IOException {
+        Path allPrintings = writeAllPrintings(Arrays.asList("AAA"));
+        try {
+            Path indexPath = allPrintings.resolveSibling("missing").resolve("AllPrintings.json.idx");
+            Assert.assertThrows(IOException.class, () -> AllPrintingsIndex.load(allPrintings, indexPath));
+        } finally {
+            deleteAllPrintings(allPrintings);
+        }
+    }
+
+    private interface Compressor {
+
+        OutputStream compress(OutputStream outputStream) throws IOException;
+    }
+
+    private static void deleteAllPrintings(Path allPrintings) throws IOException {
+        Files.delete(allPrintings);
+        Files.deleteIfExists(AllPrintingsIndex.indexPath(allPrintings));
+    }
+
+    /**
+     * Writes an AllPrintings file, which contains the MRD set under each of the given codes.
+     */
+    private Path writeAllPrintings(List<String> codes) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode mrd;
+        try (InputStream inputStream = getClass().getResourceAsStream("MRD.json")) {
+            mrd = mapper.readTree(inputStream);
+        }
+        ObjectNode allPrintings = mapper.createObjectNode();
+        ObjectNode meta = allPrintings.putObject("meta");
+        meta.setAll((ObjectNode) mrd.get("meta"));
+        // Must not confuse the scan for the sets.
+        meta.put("note", "\"data\": {\"}]\\");
+        meta.putArray("nested").addObject().putArray("empty");
+        ObjectNode data = allPrintings.putObject("data");
+        for (String code : codes) {
+            ObjectNode set = mrd.get("data").deepCopy();
+            set.put("code", code);
+            data.set(code, set);
+        }
+        Path path = Files.createTempFile("AllPrintings", ".json");
+        mapper.writeValue(path.toFile(), allPrintings);
+        return path;
+    }
 }
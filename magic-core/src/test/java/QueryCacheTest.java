@@ -0,0 +1,152 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import liquibase.exception.LiquibaseException;
+import mtgjson.Color;
+import mtgjson.DatabaseUtil;
+import mtgjson.MtgJsonParser;
+import mtgjson.QueryCache;
+import mtgjson.Set;
+import mtgjson.SetCard;
+import org.h2.jdbcx.JdbcDataSource;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class QueryCacheTest {
+
+    private JdbcDataSource dataSource;
+
+    private JsonNode json;
+
+    private Set set;
+
+    @BeforeClass
+    public void initDatabase() throws SQLException, LiquibaseException, IOException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:QueryCache;DB_CLOSE_DELAY=-1");
+        DatabaseUtil databaseUtil = new DatabaseUtil(dataSource);
+        databaseUtil.init();
+        try (InputStream inputStream = getClass().getResourceAsStream("MRD.json")) {
+            json = new ObjectMapper().readTree(inputStream);
+        }
+        set = MtgJsonParser.parseSet(new ByteArrayInputStream(new ObjectMapper().writeValueAsBytes(json)))
+                .orElseThrow();
+        databaseUtil.insert(set);
+    }
+
+    @Test
+    public void cachesResults() throws SQLException {
+        QueryCache cache = QueryCache.builder().build();
+        DatabaseUtil databaseUtil = new DatabaseUtil(dataSource, cache);
+
+        List<SetCard> chromeMox = databaseUtil.findCardsByName("Chrome Mox");
+        Assert.assertEquals(chromeMox.size(), 1);
+        Assert.assertTrue(databaseUtil.findCardsByName("Chrome Mox") == chromeMox);
+        Assert.assertThrows(UnsupportedOperationException.class, () -> chromeMox.remove(0));
+        Assert.assertTrue(databaseUtil.findCardsByName("Unknown").isEmpty());
+        List<SetCard> colorless = databaseUtil.findCardsWithinColorIdentity(EnumSet.noneOf(Color.class));
+        Assert.assertTrue(databaseUtil.findCardsWithinColorIdentity(EnumSet.noneOf(Color.class)) == colorless);
+
+        QueryCache.Stats stats = cache.getStats();
+        Assert.assertEquals(stats.getHitCount(), 2);
+        Assert.assertEquals(stats.getMissCount(), 3);
+        Assert.assertEquals(stats.getSize(), 3);
+        // An empty result weighs as much as a single card.
+        Assert.assertEquals(stats.getWeight(), 2 + colorless.size());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() throws SQLException {
+        QueryCache cache = QueryCache.builder().maximumWeight(2).build();
+        DatabaseUtil databaseUtil = new DatabaseUtil(dataSource, cache);
+
+        List<SetCard> chromeMox = databaseUtil.findCardsByName("Chrome Mox");
+        databaseUtil.findCardsByName("Solar Tide");
+        databaseUtil.findCardsByName("Chrome Mox");
+        databaseUtil.findCardsByName("Skeleton Shard");
+        Assert.assertEquals(cache.getStats().getEvictionCount(), 1);
+        Assert.assertTrue(databaseUtil.findCardsByName("Chrome Mox") == chromeMox);
+        Assert.assertEquals(cache.getStats().getMissCount(), 3);
+
+        // Results, which exceed the maximum weight, are not cached.
+        databaseUtil.findCardsByName("%");
+        Assert.assertEquals(cache.getStats().getSize(), 2);
+        Assert.assertEquals(cache.getStats().getWeight(), 2);
+    }
+
+    @Test
+    public void expiresEntries() throws SQLException, InterruptedException {
+        QueryCache cache = QueryCache.builder().expireAfterWrite(Duration.ofMillis(50)).build();
+        DatabaseUtil databaseUtil = new DatabaseUtil(dataSource, cache);
+
+        List<SetCard> chromeMox = databaseUtil.findCardsByName("Chrome Mox");
+        Thread.sleep(100);
+        Assert.assertFalse(databaseUtil.findCardsByName("Chrome Mox") == chromeMox);
+        Assert.assertEquals(cache.getStats().getExpirationCount(), 1);
+        Assert.assertEquals(cache.getStats().getMissCount(), 2);
+    }
+
+    @Test
+    public void invalidatesOnModification() throws SQLException, IOException {
+        QueryCache cache = QueryCache.builder().build();
+        DatabaseUtil databaseUtil = new DatabaseUtil(dataSource, cache);
+
+        databaseUtil.findCardsByName("Chrome Mox");
+        // An unchanged set leaves the cache intact.
+        databaseUtil.sync(set);
+        Assert.assertEquals(cache.getStats().getSize(), 1);
+
+        JsonNode changed = json.deepCopy();
+        for (JsonNode card : changed.path("data").path("cards")) {
+            if (card.path("name").asText().equals("Chrome Mox")) {
+                ((ObjectNode) card).put("artist", "Someone Else");
+            }
+        }
+        byte[] bytes = new ObjectMapper().writeValueAsBytes(changed);
+        try {
+            databaseUtil.sync(MtgJsonParser.parseSet(new ByteArrayInputStream(bytes)).orElseThrow());
+            Assert.assertEquals(cache.getStats().getSize(), 0);
+            Assert.assertEquals(databaseUtil.findCardsByName("Chrome Mox").get(0).getArtist(), "Someone Else");
+        } finally {
+            databaseUtil.sync(set);
+        }
+        Assert.assertEquals(databaseUtil.findCardsByName("Chrome Mox").get(0).getArtist(), "Donato Giancola");
+
+        cache.invalidateAll();
+        Assert.assertEquals(cache.getStats().getSize(), 0);
+        Assert.assertEquals(cache.getStats().getWeight(), 0);
+    }
+}
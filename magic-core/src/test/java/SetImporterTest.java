@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Stream;
+
+import liquibase.exception.LiquibaseException;
+import mtgjson.CommitInterval;
+import mtgjson.DatabaseUtil;
+import mtgjson.ImportResult;
+import mtgjson.MtgJsonParser;
+import mtgjson.Set;
+import mtgjson.SetImporter;
+import org.h2.jdbcx.JdbcDataSource;
+import org.jooq.exception.DataAccessException;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class SetImporterTest {
+
+    private DatabaseUtil databaseUtil;
+
+    private Set set;
+
+    @BeforeClass
+    public void initDatabase() throws SQLException, LiquibaseException, IOException {
+        JdbcDataSource jdbcDataSource = new JdbcDataSource();
+        jdbcDataSource.setURL("jdbc:h2:mem:SetImporter;DB_CLOSE_DELAY=-1");
+        databaseUtil = new DatabaseUtil(jdbcDataSource);
+        databaseUtil.init();
+        try (InputStream inputStream = getClass().getResourceAsStream("MRD.json")) {
+            set = MtgJsonParser.parseSet(inputStream).orElseThrow();
+        }
+    }
+
+    @Test
+    public void importSets() throws SQLException {
+        ImportResult result = new SetImporter(databaseUtil, 2, 1).importSets(Stream.of(set));
+        Assert.assertEquals(result.getImportedSets(), 1);
+        Assert.assertEquals(result.getWriters().size(), 2);
+        Assert.assertEquals(result.getWriters().stream().mapToInt(ImportResult.WriterStats::getSets).sum(), 1);
+        Assert.assertEquals(result.getWriters().stream().mapToInt(ImportResult.WriterStats::getCards).sum(), 306);
+
+        List<Set> sets = databaseUtil.findSets();
+        Assert.assertEquals(sets.size(), 1);
+        Assert.assertEquals(sets.get(0).getCards().size(), 306);
+    }
+
+    @Test(dependsOnMethods = "importSets", expectedExceptions = DataAccessException.class)
+    public void importSetsFailsOnDuplicateSet() throws SQLException {
+        new SetImporter(databaseUtil, 2, 1).importSets(Stream.of(set));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*MRD.*")
+    public void importSetsFailsOnDuplicateCode() throws SQLException, LiquibaseException {
+        JdbcDataSource jdbcDataSource = new JdbcDataSource();
+        jdbcDataSource.setURL("jdbc:h2:mem:SetImporterDuplicateCode;DB_CLOSE_DELAY=-1");
+        DatabaseUtil otherDatabaseUtil = new DatabaseUtil(jdbcDataSource);
+        otherDatabaseUtil.init();
+
+        new SetImporter(otherDatabaseUtil, 2, 1).importSets(Stream.of(set, set));
+    }
+
+    @Test
+    public void importSetsWithCommitInterval() throws SQLException, LiquibaseException {
+        JdbcDataSource jdbcDataSource = new JdbcDataSource();
+        jdbcDataSource.setURL("jdbc:h2:mem:SetImporterCommitInterval;DB_CLOSE_DELAY=-1");
+        DatabaseUtil otherDatabaseUtil = new DatabaseUtil(jdbcDataSource);
+        otherDatabaseUtil.init();
+
+        ImportResult result = new SetImporter(otherDatabaseUtil, 1, 1, CommitInterval.perSets(10))
+                .importSets(Stream.of(set));
+        Assert.assertEquals(result.getImportedSets(), 1);
+        ImportResult.WriterStats writer = result.getWriters().get(0);
+        Assert.assertTrue(writer.getRows() > writer.getCards());
+        Assert.assertTrue(writer.getRowsPerSecond() > 0);
+        Assert.assertEquals(otherDatabaseUtil.findSets().get(0).getCards().size(), 306);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void importSetsFailsOnParserError() throws SQLException {
+        new SetImporter(databaseUtil, 2, 1).importSets(Stream.generate(() -> {
+            throw new IllegalStateException();
+        }));
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import mtgjson.Meta;
+import mtgjson.MtgJsonParser;
+import mtgjson.Set;
+import mtgjson.SetCard;
+import mtgjson.Snapshot;
+import mtgjson.TokenCard;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class SnapshotTest {
+
+    private static final Meta META = new Meta(LocalDate.of(2022, 1, 19), "5.2.0+20220119");
+
+    private Set mrd;
+
+    @BeforeClass
+    public void parse() throws IOException {
+        try (InputStream inputStream = getClass().getResourceAsStream("MRD.json")) {
+            mrd = MtgJsonParser.parseSet(inputStream).orElseThrow();
+        }
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        Path path = Files.createTempFile("MRD", ".snapshot");
+        Snapshot.write(path, META, Stream.of(mrd));
+        Assert.assertEquals(Snapshot.readMeta(path), Optional.of(META));
+
+        List<Set> sets;
+        try (Stream<Set> stream = Snapshot.read(path)) {
+            sets = stream.collect(Collectors.toList());
+        }
+        Assert.assertEquals(sets.size(), 1);
+        Set set = sets.get(0);
+        Assert.assertEquals(set.getCode(), mrd.getCode());
+        Assert.assertEquals(set.getName(), mrd.getName());
+        Assert.assertEquals(set.getReleaseDate(), mrd.getReleaseDate());
+        Assert.assertEquals(set.getType(), mrd.getType());
+        Assert.assertEquals(set.getTotalSetSize(), mrd.getTotalSetSize());
+        Assert.assertEquals(set.getTranslations().getGerman(), mrd.getTranslations().getGerman());
+        Assert.assertEquals(set.getCards().size(), mrd.getCards().size());
+        Assert.assertEquals(set.getTokens().size(), mrd.getTokens().size());
+
+        for (int i = 0; i < set.getCards().size(); i++) {
+            SetCard expected = mrd.getCards().get(i);
+            SetCard card = set.getCards().get(i);
+            Assert.assertEquals(card.getUuid(), expected.getUuid());
+            Assert.assertEquals(card.getName(), expected.getName());
+            Assert.assertEquals(card.getText(), expected.getText());
+            Assert.assertEquals(card.getManaValue(), expected.getManaValue());
+            Assert.assertEquals(card.getRarity(), expected.getRarity());
+            Assert.assertEquals(card.getLayout(), expected.getLayout());
+            Assert.assertEquals(card.getColors(), expected.getColors());
+            Assert.assertEquals(card.getAvailabilities(), expected.getAvailabilities());
+            Assert.assertEquals(card.getPrintings(), expected.getPrintings());
+            Assert.assertEquals(card.getTypes(), expected.getTypes());
+            Assert.assertEquals(card.getEdhrecRank(), expected.getEdhrecRank());
+            Assert.assertEquals(card.isReprint(), expected.isReprint());
+            Assert.assertEquals(card.getForeignData().size(), expected.getForeignData().size());
+            Assert.assertEquals(card.getRulings().size(), expected.getRulings().size());
+            Assert.assertEquals(card.getLegalities().getCommander(), expected.getLegalities().getCommander());
+            Assert.assertEquals(card.getIdentifiers().getScryfallId(), expected.getIdentifiers().getScryfallId());
+        }
+        for (int i = 0; i < set.getTokens().size(); i++) {
+            TokenCard expected = mrd.getTokens().get(i);
+            TokenCard card = set.getTokens().get(i);
+            Assert.assertEquals(card.getUuid(), expected.getUuid());
+            Assert.assertEquals(card.getReverseRelated(), expected.getReverseRelated());
+        }
+
+        // Equal strings are read from the string table as the same instance.
+        Assert.assertTrue(set.getCards().get(0).getSetCode() == set.getCards().get(1).getSetCode());
+        Files.delete(path);
+    }
+
+    @Test
+    public void testReadSharesOracleCardsOfTokensApart() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode json;
+        try (InputStream inputStream = getClass().getResourceAsStream("MRD.json")) {
+            json = mapper.readTree(inputStream);
+        }
+        // Two printings of a token with the oracle id of a card.
+        ObjectNode data = (ObjectNode) json.get("data");
+        for (JsonNode card : data.get("cards")) {
+            if (card.path("name").asText().equals("Chrome Mox")) {
+                for (String uuid : List.of("00000000-0000-0000-0000-000000000000",
+                        "00000000-0000-0000-0000-000000000001")) {
+                    ObjectNode token = card.deepCopy();
+                    token.put("uuid", uuid);
+                    token.putArray("reverseRelated");
+                    data.withArray("tokens").add(token);
+                }
+            }
+        }
+        Path path = Files.createTempFile("MRD", ".snapshot");
+        Snapshot.write(path, META, Stream.of(MtgJsonParser.parseSet(
+                new ByteArrayInputStream(mapper.writeValueAsBytes(json))).orElseThrow()));
+
+        Set set;
+        try (Stream<Set> stream = Snapshot.read(path)) {
+            set = stream.findFirst().orElseThrow();
+        }
+        SetCard chromeMox = set.getCards().stream()
+                .filter(card -> card.getName().equals("Chrome Mox"))
+                .findAny()
+                .orElseThrow();
+        List<TokenCard> tokens = set.getTokens().stream()
+                .filter(card -> card.getName().equals("Chrome Mox"))
+                .collect(Collectors.toList());
+        Assert.assertEquals(tokens.size(), 2);
+        Assert.assertTrue(tokens.get(0).getOracleCard() == tokens.get(1).getOracleCard());
+        Assert.assertFalse(tokens.get(0).getOracleCard() == chromeMox.getOracleCard());
+        Assert.assertNull(tokens.get(0).getOracleCard().getLegalities());
+        Assert.assertEquals(chromeMox.getLegalities().getModern(), "Banned");
+        Files.delete(path);
+    }
+
+    @Test
+    public void testLoad() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode allPrintings = mapper.createObjectNode();
+        ObjectNode meta = allPrintings.putObject("meta");
+        meta.put("date", "2022-01-19");
+        meta.put("version", "5.2.0+20220119");
+        try (InputStream inputStream = getClass().getResourceAsStream("MRD.json")) {
+            allPrintings.putObject("data").set("MRD", mapper.readTree(inputStream).get("data"));
+        }
+        Path json = Files.createTempFile("AllPrintings", ".json");
+        Path snapshot = json.resolveSibling(json.getFileName() + ".snapshot");
+        mapper.writeValue(json.toFile(), allPrintings);
+
+        try (Stream<Set> sets = Snapshot.load(json, snapshot)) {
+            Assert.assertEquals(sets.count(), 1);
+        }
+        Assert.assertEquals(Snapshot.readMeta(snapshot), Optional.of(META));
+
+        // The current snapshot is read, instead of being recreated.
+        FileTime lastModified = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(snapshot, lastModified);
+        try (Stream<Set> sets = Snapshot.load(json, snapshot)) {
+            Assert.assertEquals(sets.findFirst().orElseThrow().getCards().size(), 306);
+        }
+        Assert.assertEquals(Files.getLastModifiedTime(snapshot), lastModified);
+
+        // A new release replaces the outdated snapshot.
+        meta.put("version", "5.2.0+20220201");
+        mapper.writeValue(json.toFile(), allPrintings);
+        try (Stream<Set> sets = Snapshot.load(json, snapshot)) {
+            Assert.assertEquals(sets.count(), 1);
+        }
+        Assert.assertEquals(Snapshot.readMeta(snapshot).map(Meta::getVersion), Optional.of("5.2.0+20220201"));
+
+        Files.delete(json);
+        Files.delete(snapshot);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testReadNoSnapshot() throws IOException {
+        Path path = Files.createTempFile("MRD", ".json");
+        try (InputStream inputStream = getClass().getResourceAsStream("MRD.json")) {
+            Files.copy(inputStream, path, StandardCopyOption.REPLACE_EXISTING);
+            Snapshot.read(path).close();
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Christian Schudt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package mtgjson;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class StringPoolTest {
+
+    @Test
+    public void testPoolHoldsOnlyRepeatedStrings() throws IOException {
+        StringPool pool = new StringPool();
+        Set set;
+        try (InputStream inputStream = getClass().getResourceAsStream("/MRD.json")) {
+            ObjectMapper mapper = ParseOptions.DEFAULT.getObjectMapper();
+            set = mapper.readerFor(Set.class)
+                    .withAttribute(StringPool.class, pool)
+                    .readValue(mapper.readTree(inputStream).get("data"));
+        }
+        // The cards of MRD have about 3600 distinct strings, of which only the repeated artists, types and the like are
+        // pooled.
+        Assert.assertTrue(pool.size() > 0);
+        Assert.assertTrue(pool.size() < 1000, "pool size " + pool.size());
+        // Names and rules texts are not pooled, so an equal string is not replaced by a canonical instance.
+        SetCard card = set.getCards().get(0);
+        for (String string : new String[]{card.getName(), card.getText()}) {
+            String copy = new String(string.toCharArray());
+            Assert.assertTrue(pool.intern(copy) == copy);
+        }
+    }
+}